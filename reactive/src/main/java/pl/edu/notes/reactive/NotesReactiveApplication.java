@@ -0,0 +1,14 @@
+package pl.edu.notes.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+// Wariant reaktywny API notatek: WebFlux (Netty) + R2DBC
+// zadanie czekajace na baze nie zajmuje watku - kilka watkow petli zdarzen obsluguje wszystkie polaczenia
+@SpringBootApplication
+public class NotesReactiveApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(NotesReactiveApplication.class, args);
+    }
+}
@@ -0,0 +1,66 @@
+package pl.edu.notes.reactive.controller;
+
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import pl.edu.notes.reactive.dto.CategoryInput;
+import pl.edu.notes.reactive.dto.CategoryStats;
+import pl.edu.notes.reactive.dto.CategoryView;
+import pl.edu.notes.reactive.repository.CategoryRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+// Ten sam kontrakt co CategoryController wersji MVC
+@RestController
+@RequestMapping("/api/categories")
+public class CategoryController {
+
+    private final CategoryRepository categoryRepository;
+
+    public CategoryController(CategoryRepository categoryRepository) {
+        this.categoryRepository = categoryRepository;
+    }
+
+    // dwa zapytania niezaleznie od liczby kategorii: notatki wszystkich kategorii (pogrupowane w pamieci)
+    // i kategorie - kazda wysylana od razu ze swoja lista notatek
+    @GetMapping
+    public Flux<CategoryView> getAllCategories() {
+        return categoryRepository.findAllNoteItems()
+                .collectMultimap(CategoryView.NoteItem::categoryId)
+                .flatMapMany(notesByCategory -> categoryRepository.findAllSummaries()
+                        .map(category -> new CategoryView(category.id(), category.name(),
+                                List.copyOf(notesByCategory.getOrDefault(category.id(), List.of())))));
+    }
+
+    @GetMapping("/stats")
+    public Flux<CategoryStats> getCategoryStats() {
+        return categoryRepository.stats();
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<CategoryView>> getCategoryById(@PathVariable Long id) {
+        return categoryRepository.findById(id)
+                .flatMap(category -> categoryRepository.findNoteItems(id)
+                        .collectList()
+                        .map(notes -> ResponseEntity.ok(new CategoryView(category.id(), category.name(), notes))))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<CategoryView>> createCategory(@Valid @RequestBody CategoryInput category) {
+        return categoryRepository.insert(category.name())
+                .map(id -> ResponseEntity.status(HttpStatus.CREATED)
+                        .body(new CategoryView(id, category.name(), List.of())));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteCategory(@PathVariable Long id) {
+        return categoryRepository.delete(id)
+                .map(deleted -> deleted
+                        ? ResponseEntity.noContent().<Void>build()
+                        : ResponseEntity.notFound().<Void>build());
+    }
+}
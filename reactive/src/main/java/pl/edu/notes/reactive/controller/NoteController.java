@@ -0,0 +1,121 @@
+package pl.edu.notes.reactive.controller;
+
+import jakarta.validation.Valid;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import pl.edu.notes.reactive.dto.NoteInput;
+import pl.edu.notes.reactive.dto.NoteRecord;
+import pl.edu.notes.reactive.dto.NoteView;
+import pl.edu.notes.reactive.repository.CategoryRepository;
+import pl.edu.notes.reactive.repository.NoteRepository;
+import pl.edu.notes.reactive.service.NoteExportService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+// Ten sam kontrakt co NoteController wersji MVC (lista, odczyt, zapis, usuwanie, wyszukiwanie, eksport)
+// metody zwracaja Mono/Flux - watek petli zdarzen wraca do puli, zanim baza odpowie
+@RestController
+@RequestMapping("/api/notes")
+public class NoteController {
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    private final NoteRepository noteRepository;
+    private final CategoryRepository categoryRepository;
+    private final NoteExportService noteExportService;
+
+    public NoteController(NoteRepository noteRepository, CategoryRepository categoryRepository,
+                          NoteExportService noteExportService) {
+        this.noteRepository = noteRepository;
+        this.categoryRepository = categoryRepository;
+        this.noteExportService = noteExportService;
+    }
+
+    // tablica JSON zapisywana element po elemencie w miare naplywu wierszy, bez listy w pamieci
+    @GetMapping
+    public Flux<NoteView> getAllNotes() {
+        return noteRepository.findAll();
+    }
+
+    // Accept: application/x-ndjson - jedna notatka w linii, kazda wysylana od razu
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<NoteView> streamAllNotes() {
+        return noteRepository.findAll();
+    }
+
+    // GET /api/notes/export?format=ndjson|csv - format pliku jak w wersji MVC
+    @GetMapping("/export")
+    public ResponseEntity<Flux<NoteRecord>> exportNotes(@RequestParam(defaultValue = "ndjson") String format) {
+        if (!format.equals("ndjson")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Nieznany format: " + format);
+        }
+        return exportResponse(MediaType.APPLICATION_NDJSON, "notes.ndjson", noteExportService.records());
+    }
+
+    @GetMapping(value = "/export", params = "format=csv")
+    public ResponseEntity<Flux<String>> exportNotesCsv() {
+        return exportResponse(TEXT_CSV, "notes.csv", noteExportService.csv());
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<NoteView>> getNoteById(@PathVariable Long id) {
+        return noteRepository.findById(id)
+                .map(note -> ResponseEntity.ok().eTag(note.id() + "-" + note.version()).body(note))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<NoteView>> createNote(@Valid @RequestBody NoteInput note) {
+        return checkCategory(note)
+                .then(noteRepository.insert(note.title(), note.content(), note.categoryId()))
+                .flatMap(noteRepository::findById)
+                .map(saved -> ResponseEntity.status(HttpStatus.CREATED).body(saved));
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<NoteView>> updateNote(@PathVariable Long id, @Valid @RequestBody NoteInput note) {
+        return checkCategory(note)
+                .then(noteRepository.update(id, note.title(), note.content(), note.categoryId()))
+                .flatMap(noteRepository::findById)
+                .map(updated -> ResponseEntity.ok().eTag(updated.id() + "-" + updated.version()).body(updated))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteNote(@PathVariable Long id) {
+        return noteRepository.delete(id)
+                .map(deleted -> deleted
+                        ? ResponseEntity.noContent().<Void>build()
+                        : ResponseEntity.notFound().<Void>build());
+    }
+
+    @GetMapping("/search")
+    public Flux<NoteView> searchNotes(@RequestParam String title) {
+        return noteRepository.searchByTitle(title);
+    }
+
+    private Mono<Void> checkCategory(NoteInput note) {
+        if (note.categoryId() == null) {
+            return Mono.empty();
+        }
+        return categoryRepository.existsById(note.categoryId())
+                .flatMap(exists -> exists
+                        ? Mono.<Void>empty()
+                        : Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Kategoria nie istnieje")));
+    }
+
+    private static <T> ResponseEntity<Flux<T>> exportResponse(MediaType type, String fileName, Flux<T> body) {
+        return ResponseEntity.ok()
+                .contentType(type)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
+    }
+}
@@ -0,0 +1,11 @@
+package pl.edu.notes.reactive.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+// Cialo POST /api/categories
+public record CategoryInput(
+        @NotBlank(message = "Nazwa kategorii nie może być pusta")
+        @Size(max = 50, message = "Nazwa kategorii może mieć maksymalnie 50 znaków")
+        String name) {
+}
@@ -0,0 +1,5 @@
+package pl.edu.notes.reactive.dto;
+
+// Kategoria bez listy notatek - tak jak jest osadzona w JSON notatki
+public record CategorySummary(Long id, String name) {
+}
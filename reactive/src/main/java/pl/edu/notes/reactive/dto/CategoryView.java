@@ -0,0 +1,15 @@
+package pl.edu.notes.reactive.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Kategoria z lista notatek - ten sam ksztalt JSON co encja Category wersji MVC
+public record CategoryView(Long id, String name, List<NoteItem> notes) {
+
+    // notatka na liscie kategorii - bez pola category
+    public record NoteItem(@JsonIgnore Long categoryId, Long id, String title, String content, boolean largeContent,
+                           LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
+    }
+}
@@ -0,0 +1,25 @@
+package pl.edu.notes.reactive.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+// Cialo POST/PUT /api/notes - pola, ktore klient moze ustawic w encji Note wersji MVC
+// id, daty i wersja nadawane sa przez serwer (w JSON ignorowane)
+public record NoteInput(
+        @NotBlank(message = "Tytuł nie może być pusty")
+        @Size(max = 100, message = "Tytuł może mieć maksymalnie 100 znaków")
+        String title,
+        @Size(max = MAX_CONTENT_LENGTH, message = "Treść może mieć maksymalnie 1000000 znaków")
+        String content,
+        CategoryRef category) {
+
+    public static final int MAX_CONTENT_LENGTH = 1_000_000;
+
+    public Long categoryId() {
+        return category != null ? category.id() : null;
+    }
+
+    // kategoria wskazana przez id, np. {"category": {"id": 1}}
+    public record CategoryRef(Long id) {
+    }
+}
@@ -0,0 +1,9 @@
+package pl.edu.notes.reactive.dto;
+
+import java.time.LocalDateTime;
+
+// Notatka w pliku eksportu (NDJSON albo CSV) - ten sam format co eksport wersji MVC,
+// plik mozna wczytac przez POST /api/notes/import wersji MVC
+public record NoteRecord(Long id, String category, String title, String content,
+                         LocalDateTime createdAt, LocalDateTime updatedAt) {
+}
@@ -0,0 +1,9 @@
+package pl.edu.notes.reactive.dto;
+
+import java.time.LocalDateTime;
+
+// Notatka w odpowiedzi - ten sam ksztalt JSON co encja Note i NoteView wersji MVC
+// na listach przy dlugiej tresci (largeContent) content to tylko jej poczatek, GET /api/notes/{id} zwraca calosc
+public record NoteView(Long id, CategorySummary category, String title, String content, boolean largeContent,
+                       LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
+}
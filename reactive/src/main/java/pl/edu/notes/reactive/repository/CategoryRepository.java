@@ -0,0 +1,122 @@
+package pl.edu.notes.reactive.repository;
+
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import pl.edu.notes.reactive.dto.CategoryStats;
+import pl.edu.notes.reactive.dto.CategorySummary;
+import pl.edu.notes.reactive.dto.CategoryView;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// kategorie i notatki oznaczone jako usuniete przez wersje MVC (deleted_at / deleted, migracja V4) sa pomijane
+@Repository
+public class CategoryRepository {
+
+    private static final String NOTE_ITEM = "SELECT category_id, id, title, content, body_id, created_at, "
+            + "updated_at, version FROM notes WHERE deleted = FALSE ";
+
+    private final DatabaseClient db;
+
+    public CategoryRepository(DatabaseClient db) {
+        this.db = db;
+    }
+
+    public Flux<CategorySummary> findAllSummaries() {
+        return db.sql("SELECT id, name FROM categories WHERE deleted_at IS NULL ORDER BY id")
+                .map(row -> new CategorySummary(row.get("id", Long.class), row.get("name", String.class)))
+                .all();
+    }
+
+    public Mono<CategorySummary> findById(Long id) {
+        return db.sql("SELECT id, name FROM categories WHERE id = :id AND deleted_at IS NULL")
+                .bind("id", id)
+                .map(row -> new CategorySummary(row.get("id", Long.class), row.get("name", String.class)))
+                .one();
+    }
+
+    public Mono<Boolean> existsById(Long id) {
+        return findById(id).hasElement();
+    }
+
+    // notatki wszystkich kategorii jednym zapytaniem - do zlozenia CategoryView
+    public Flux<CategoryView.NoteItem> findAllNoteItems() {
+        return db.sql(NOTE_ITEM + "AND category_id IS NOT NULL ORDER BY id")
+                .map(CategoryRepository::toNoteItem)
+                .all();
+    }
+
+    public Flux<CategoryView.NoteItem> findNoteItems(Long categoryId) {
+        return db.sql(NOTE_ITEM + "AND category_id = :categoryId ORDER BY id")
+                .bind("categoryId", categoryId)
+                .map(CategoryRepository::toNoteItem)
+                .all();
+    }
+
+    // liczby notatek policzone w bazie (indeks idx_notes_category_id)
+    public Flux<CategoryStats> stats() {
+        return db.sql("SELECT c.id, c.name, COUNT(n.id) AS note_count FROM categories c "
+                        + "LEFT JOIN notes n ON n.category_id = c.id AND n.deleted = FALSE "
+                        + "WHERE c.deleted_at IS NULL GROUP BY c.id, c.name ORDER BY c.id")
+                .map(row -> new CategoryStats(row.get("id", Long.class), row.get("name", String.class),
+                        row.get("note_count", Long.class)))
+                .all();
+    }
+
+    public Mono<Long> insert(String name) {
+        return db.sql("INSERT INTO categories (name) VALUES (:name)")
+                .bind("name", name)
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Long.class))
+                .one();
+    }
+
+    // kategoria usuwa swoje notatki (jak kaskada w wersji JPA) - kazda dostaje nagrobek, dlugie tresci znikaja
+    // po notatkach (klucz obcy notes.body_id); notatki juz oznaczone jako usuniete maja nagrobek i tez znikaja
+    @Transactional
+    public Mono<Boolean> delete(Long id) {
+        LocalDateTime now = NoteRepository.now();
+        return findById(id)
+                .flatMap(category -> db.sql("MERGE INTO note_tombstones (note_id, category_id, deleted_at) "
+                                + "KEY (note_id) SELECT id, category_id, :now FROM notes "
+                                + "WHERE category_id = :id AND deleted = FALSE")
+                        .bind("id", id)
+                        .bind("now", now)
+                        .fetch().rowsUpdated()
+                        .then(db.sql("SELECT body_id FROM notes WHERE category_id = :id AND body_id IS NOT NULL")
+                                .bind("id", id)
+                                .map(row -> row.get("body_id", Long.class))
+                                .all()
+                                .collectList())
+                        .flatMap(bodyIds -> db.sql("DELETE FROM notes WHERE category_id = :id")
+                                .bind("id", id)
+                                .fetch().rowsUpdated()
+                                .then(deleteBodies(bodyIds)))
+                        .then(db.sql("DELETE FROM categories WHERE id = :id").bind("id", id).fetch().rowsUpdated())
+                        .thenReturn(true))
+                .defaultIfEmpty(false);
+    }
+
+    private Mono<Void> deleteBodies(List<Long> bodyIds) {
+        if (bodyIds.isEmpty()) {
+            return Mono.empty();
+        }
+        return db.sql("DELETE FROM note_bodies WHERE id IN (:ids)").bind("ids", bodyIds).fetch().rowsUpdated().then();
+    }
+
+    private static CategoryView.NoteItem toNoteItem(Readable row) {
+        return new CategoryView.NoteItem(
+                row.get("category_id", Long.class),
+                row.get("id", Long.class),
+                row.get("title", String.class),
+                CompressedText.decode(row.get("content", byte[].class)),
+                row.get("body_id", Long.class) != null,
+                row.get("created_at", LocalDateTime.class),
+                row.get("updated_at", LocalDateTime.class),
+                row.get("version", Long.class));
+    }
+}
@@ -0,0 +1,70 @@
+package pl.edu.notes.reactive.repository;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Format kolumn notes.content i note_bodies.content - ten sam co CompressedTextConverter wersji JPA:
+// - krotki tekst albo tekst, ktory po kompresji nie jest mniejszy: zwykle bajty UTF-8
+// - pozostale: bajt COMPRESSED (0xFF, nie wystepuje w UTF-8) + strumien DEFLATE
+final class CompressedText {
+
+    private static final byte COMPRESSED = (byte) 0xFF;
+    private static final int MIN_COMPRESSED_SIZE = 128;
+
+    private CompressedText() {}
+
+    static byte[] encode(String text) {
+        if (text == null) {
+            return null;
+        }
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        if (raw.length < MIN_COMPRESSED_SIZE) {
+            return raw;
+        }
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            byte[] out = new byte[raw.length];
+            out[0] = COMPRESSED;
+            int length = 1;
+            while (!deflater.finished() && length < out.length) {
+                length += deflater.deflate(out, length, out.length - length);
+            }
+            return deflater.finished() && length < out.length ? Arrays.copyOf(out, length) : raw;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    static String decode(byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (data.length == 0 || data[0] != COMPRESSED) {
+            return new String(data, StandardCharsets.UTF_8);
+        }
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(data, 1, data.length - 1);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int length = inflater.inflate(buffer);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Uszkodzona skompresowana treść");
+                }
+                out.write(buffer, 0, length);
+            }
+            return out.toString(StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Uszkodzona skompresowana treść", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package pl.edu.notes.reactive.repository;
+
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import pl.edu.notes.reactive.dto.CategorySummary;
+import pl.edu.notes.reactive.dto.NoteRecord;
+import pl.edu.notes.reactive.dto.NoteView;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+// Notatki przez R2DBC (DatabaseClient) - SQL zamiast encji, wiersze mapowane od razu na rekordy odpowiedzi
+// notatki oznaczone jako usuniete przez wersje MVC (deleted, migracja V4) sa pomijane jak w @SQLRestriction na Note
+// Flux z zapytania jest leniwy i respektuje backpressure: kolejne wiersze sa pobierane dopiero,
+// gdy odbiorca (zapis odpowiedzi HTTP) zglosi zapotrzebowanie
+@Repository
+public class NoteRepository {
+
+    // tresc do tej dlugosci zapisywana jest w wierszu notatki, dluzsza - w note_bodies (jak Note w wersji JPA)
+    public static final int INLINE_CONTENT_LENGTH = 2000;
+
+    // jedno zlaczenie z kategoria; note_bodies tylko przy odczycie jednej notatki i eksporcie
+    private static final String VIEW = "SELECT n.id, n.category_id, c.name AS category_name, n.title, n.content, "
+            + "n.body_id, n.created_at, n.updated_at, n.version FROM notes n "
+            + "LEFT JOIN categories c ON c.id = n.category_id WHERE n.deleted = FALSE ";
+
+    private final DatabaseClient db;
+
+    public NoteRepository(DatabaseClient db) {
+        this.db = db;
+    }
+
+    public Flux<NoteView> findAll() {
+        return db.sql(VIEW + "ORDER BY n.id").map(NoteRepository::toView).all();
+    }
+
+    // znaki % i _ w zapytaniu uzytkownika traktowane doslownie
+    public Flux<NoteView> searchByTitle(String title) {
+        return db.sql(VIEW + "AND LOWER(n.title) LIKE :pattern ESCAPE '\\' ORDER BY n.id")
+                .bind("pattern", "%" + escapeLike(title.toLowerCase()) + "%")
+                .map(NoteRepository::toView)
+                .all();
+    }
+
+    // cala tresc - takze dluga, z note_bodies; BLOB rzutowany na VARBINARY, bo r2dbc-h2 zwraca BLOB tylko jako
+    // strumien io.r2dbc.spi.Blob - tresc ma najwyzej kilka MB, wiec i tak trafia w calosci do pamieci
+    public Mono<NoteView> findById(Long id) {
+        return db.sql("SELECT n.id, n.category_id, c.name AS category_name, n.title, n.content, n.body_id, "
+                        + "n.created_at, n.updated_at, n.version, CAST(b.content AS VARBINARY) AS body FROM notes n "
+                        + "LEFT JOIN categories c ON c.id = n.category_id "
+                        + "LEFT JOIN note_bodies b ON b.id = n.body_id WHERE n.id = :id AND n.deleted = FALSE")
+                .bind("id", id)
+                .map(row -> {
+                    NoteView note = toView(row);
+                    String body = CompressedText.decode(row.get("body", byte[].class));
+                    return body == null ? note : new NoteView(note.id(), note.category(), note.title(), body,
+                            true, note.createdAt(), note.updatedAt(), note.version());
+                })
+                .one();
+    }
+
+    // eksport - kategoria po nazwie i cala tresc
+    public Flux<NoteRecord> streamRecords() {
+        return db.sql("SELECT n.id, c.name AS category_name, n.title, n.content, CAST(b.content AS VARBINARY) AS body, "
+                        + "n.created_at, n.updated_at FROM notes n "
+                        + "LEFT JOIN categories c ON c.id = n.category_id "
+                        + "LEFT JOIN note_bodies b ON b.id = n.body_id WHERE n.deleted = FALSE ORDER BY n.id")
+                .map(row -> {
+                    String body = CompressedText.decode(row.get("body", byte[].class));
+                    return new NoteRecord(row.get("id", Long.class), row.get("category_name", String.class),
+                            row.get("title", String.class),
+                            body != null ? body : CompressedText.decode(row.get("content", byte[].class)),
+                            row.get("created_at", LocalDateTime.class), row.get("updated_at", LocalDateTime.class));
+                })
+                .all();
+    }
+
+    // id z sekwencji notes_seq (krok 50 - pula Hibernate w wersji JPA); tutaj jedno NEXT VALUE na notatke,
+    // wiec id nie koliduja z notatkami zapisanymi przez wersje JPA na tej samej bazie
+    @Transactional
+    public Mono<Long> insert(String title, String content, Long categoryId) {
+        LocalDateTime now = now();
+        return insertBody(content)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .zipWith(db.sql("SELECT NEXT VALUE FOR notes_seq").map(row -> row.get(0, Long.class)).one())
+                .flatMap(bodyAndId -> {
+                    Long id = bodyAndId.getT2();
+                    GenericExecuteSpec insert = db.sql("INSERT INTO notes (id, category_id, title, content, "
+                                    + "body_id, created_at, updated_at, version) "
+                                    + "VALUES (:id, :categoryId, :title, :content, :bodyId, :now, :now, 0)")
+                            .bind("id", id)
+                            .bind("title", title)
+                            .bind("now", now);
+                    insert = bindNullable(insert, "categoryId", categoryId, Long.class);
+                    insert = bindNullable(insert, "content", CompressedText.encode(preview(content)), byte[].class);
+                    insert = bindNullable(insert, "bodyId", bodyAndId.getT1().orElse(null), Long.class);
+                    return insert.fetch().rowsUpdated().thenReturn(id);
+                });
+    }
+
+    // zmiana zawsze zwieksza wersje i updatedAt; stara dluga tresc usuwana po przepieciu body_id
+    // pusty wynik - notatki nie ma
+    @Transactional
+    public Mono<Long> update(Long id, String title, String content, Long categoryId) {
+        return db.sql("SELECT body_id FROM notes WHERE id = :id AND deleted = FALSE FOR UPDATE")
+                .bind("id", id)
+                .map(row -> Optional.ofNullable(row.get("body_id", Long.class)))
+                .one()
+                .flatMap(oldBody -> insertBody(content)
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        .flatMap(newBody -> {
+                            GenericExecuteSpec update = db.sql("UPDATE notes SET title = :title, "
+                                            + "content = :content, category_id = :categoryId, body_id = :bodyId, "
+                                            + "updated_at = :now, version = version + 1 WHERE id = :id")
+                                    .bind("id", id)
+                                    .bind("title", title)
+                                    .bind("now", now());
+                            update = bindNullable(update, "categoryId", categoryId, Long.class);
+                            update = bindNullable(update, "content", CompressedText.encode(preview(content)),
+                                    byte[].class);
+                            update = bindNullable(update, "bodyId", newBody.orElse(null), Long.class);
+                            return update.fetch().rowsUpdated();
+                        })
+                        .then(deleteBody(oldBody.orElse(null)))
+                        .thenReturn(id));
+    }
+
+    // nagrobek dla feedu zmian wersji MVC (/api/notes/changes) w tej samej transakcji co DELETE
+    // wiersz usuwany od razu - bez oznaczania deleted, bo ta wersja nie ma czyszczenia w tle (NotePurgeService)
+    @Transactional
+    public Mono<Boolean> delete(Long id) {
+        return db.sql("SELECT category_id, body_id FROM notes WHERE id = :id AND deleted = FALSE FOR UPDATE")
+                .bind("id", id)
+                .map(row -> new Long[]{row.get("category_id", Long.class), row.get("body_id", Long.class)})
+                .one()
+                .flatMap(note -> bindNullable(db.sql("MERGE INTO note_tombstones (note_id, category_id, deleted_at) "
+                                + "KEY (note_id) VALUES (:id, :categoryId, :now)")
+                                .bind("id", id)
+                                .bind("now", now()), "categoryId", note[0], Long.class)
+                        .fetch().rowsUpdated()
+                        .then(db.sql("DELETE FROM notes WHERE id = :id").bind("id", id).fetch().rowsUpdated())
+                        .then(deleteBody(note[1]))
+                        .thenReturn(true))
+                .defaultIfEmpty(false);
+    }
+
+    private Mono<Long> insertBody(String content) {
+        if (content == null || content.length() <= INLINE_CONTENT_LENGTH) {
+            return Mono.empty();
+        }
+        return db.sql("INSERT INTO note_bodies (content) VALUES (:content)")
+                .bind("content", CompressedText.encode(content))
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Long.class))
+                .one();
+    }
+
+    private Mono<Void> deleteBody(Long bodyId) {
+        if (bodyId == null) {
+            return Mono.empty();
+        }
+        return db.sql("DELETE FROM note_bodies WHERE id = :id").bind("id", bodyId).fetch().rowsUpdated().then();
+    }
+
+    static NoteView toView(Readable row) {
+        Long categoryId = row.get("category_id", Long.class);
+        return new NoteView(
+                row.get("id", Long.class),
+                categoryId != null ? new CategorySummary(categoryId, row.get("category_name", String.class)) : null,
+                row.get("title", String.class),
+                CompressedText.decode(row.get("content", byte[].class)),
+                row.get("body_id", Long.class) != null,
+                row.get("created_at", LocalDateTime.class),
+                row.get("updated_at", LocalDateTime.class),
+                row.get("version", Long.class));
+    }
+
+    static GenericExecuteSpec bindNullable(GenericExecuteSpec spec, String name, Object value, Class<?> type) {
+        return value != null ? spec.bind(name, value) : spec.bindNull(name, type);
+    }
+
+    // poczatek dlugiej tresci zapisany w wierszu notatki - bez rozcinania pary surogatow na granicy
+    private static String preview(String content) {
+        if (content == null || content.length() <= INLINE_CONTENT_LENGTH) {
+            return content;
+        }
+        int end = INLINE_CONTENT_LENGTH;
+        if (Character.isHighSurrogate(content.charAt(end - 1))) {
+            end--;
+        }
+        return content.substring(0, end);
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    // baza przechowuje czas z dokladnoscia do mikrosekund
+    static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+}
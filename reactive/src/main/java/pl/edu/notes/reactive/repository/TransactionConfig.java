@@ -0,0 +1,33 @@
+package pl.edu.notes.reactive.repository;
+
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Option;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+// Menedzer transakcji R2DBC bez opcji readOnly w definicji transakcji
+// Spring przekazuje ja przy kazdym begin (takze false), a r2dbc-h2 jej nie obsluguje i loguje WARN przy kazdym
+// wywolaniu @Transactional; H2 ustawia tryb tylko do odczytu w adresie bazy, wiec opcja i tak nic nie zmienia
+@Configuration
+public class TransactionConfig {
+
+    @Bean
+    public R2dbcTransactionManager transactionManager(ConnectionFactory connectionFactory) {
+        return new R2dbcTransactionManager(connectionFactory) {
+            @Override
+            protected io.r2dbc.spi.TransactionDefinition createTransactionDefinition(TransactionDefinition definition) {
+                io.r2dbc.spi.TransactionDefinition full = super.createTransactionDefinition(definition);
+                return new io.r2dbc.spi.TransactionDefinition() {
+                    @Override
+                    public <T> T getAttribute(Option<T> option) {
+                        return io.r2dbc.spi.TransactionDefinition.READ_ONLY.equals(option)
+                                ? null
+                                : full.getAttribute(option);
+                    }
+                };
+            }
+        };
+    }
+}
@@ -0,0 +1,57 @@
+package pl.edu.notes.reactive.service;
+
+import org.springframework.stereotype.Service;
+import pl.edu.notes.reactive.dto.NoteRecord;
+import pl.edu.notes.reactive.repository.NoteRepository;
+import reactor.core.publisher.Flux;
+
+// Eksport wszystkich notatek (GET /api/notes/export) - format NDJSON koduje WebFlux (Jackson, rekord po rekordzie),
+// tutaj wiersze CSV wg RFC 4180, te same kolumny co w wersji MVC
+// wiersze powstaja w tempie odbierania odpowiedzi przez klienta - wolny klient spowalnia odczyt z bazy,
+// zamiast zapelniac pamiec buforem
+@Service
+public class NoteExportService {
+
+    static final String CSV_HEADER = "id,category,title,content,createdAt,updatedAt\r\n";
+
+    private final NoteRepository noteRepository;
+
+    public NoteExportService(NoteRepository noteRepository) {
+        this.noteRepository = noteRepository;
+    }
+
+    public Flux<NoteRecord> records() {
+        return noteRepository.streamRecords();
+    }
+
+    public Flux<String> csv() {
+        return Flux.concat(Flux.just(CSV_HEADER), noteRepository.streamRecords().map(NoteExportService::csvRow));
+    }
+
+    static String csvRow(NoteRecord record) {
+        StringBuilder row = new StringBuilder(128);
+        Object[] values = {record.id(), record.category(), record.title(), record.content(),
+                record.createdAt(), record.updatedAt()};
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                row.append(',');
+            }
+            if (values[i] != null) {
+                appendField(row, values[i].toString());
+            }
+        }
+        return row.append("\r\n").toString();
+    }
+
+    // pole z przecinkiem, cudzyslowem albo znakiem nowej linii ujmowane w cudzyslow ("" wewnatrz = ")
+    private static void appendField(StringBuilder row, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                row.append('"').append(value.replace("\"", "\"\"")).append('"');
+                return;
+            }
+        }
+        row.append(value);
+    }
+}
@@ -0,0 +1,188 @@
+package pl.edu.notes.reactive;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import pl.edu.notes.reactive.dto.NoteView;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.Map;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Kontrakt /api/notes i /api/categories wersji reaktywnej - te same odpowiedzi co w testach wersji MVC
+@SpringBootTest
+@AutoConfigureWebTestClient
+class NotesReactiveApplicationTest {
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private DatabaseClient db;
+
+    @Test
+    void createReadUpdateAndDeleteNote() {
+        Long id = createNote(Map.of("title", "Reaktywna", "content", "pierwsza wersja"));
+
+        client.get().uri("/api/notes/{id}", id).exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"" + id + "-0\"")
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Reaktywna")
+                .jsonPath("$.content").isEqualTo("pierwsza wersja")
+                .jsonPath("$.largeContent").isEqualTo(false)
+                .jsonPath("$.category").doesNotExist();
+
+        client.put().uri("/api/notes/{id}", id)
+                .bodyValue(Map.of("title", "Zmieniona", "content", "druga wersja", "category", Map.of("id", 1)))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.version").isEqualTo(1)
+                .jsonPath("$.category.name").isEqualTo("Osobiste");
+
+        client.delete().uri("/api/notes/{id}", id).exchange().expectStatus().isNoContent();
+        client.get().uri("/api/notes/{id}", id).exchange().expectStatus().isNotFound();
+        client.delete().uri("/api/notes/{id}", id).exchange().expectStatus().isNotFound();
+    }
+
+    @Test
+    void invalidNotesAreRejected() {
+        client.post().uri("/api/notes").bodyValue(Map.of("title", "", "content", "pusty tytul")).exchange()
+                .expectStatus().isBadRequest();
+        client.post().uri("/api/notes")
+                .bodyValue(Map.of("title", "Zla kategoria", "category", Map.of("id", 9999)))
+                .exchange()
+                .expectStatus().isBadRequest();
+        client.put().uri("/api/notes/999999").bodyValue(Map.of("title", "Brak")).exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void largeContentIsStoredInNoteBodies() {
+        String content = "Treść w kolumnie BLOB. ".repeat(200);
+        Long id = createNote(Map.of("title", "Długa reaktywna", "content", content));
+
+        // Test: odczyt zwraca cala tresc, lista tylko poczatek zapisany w wierszu notatki
+        client.get().uri("/api/notes/{id}", id).exchange()
+                .expectBody()
+                .jsonPath("$.content").isEqualTo(content)
+                .jsonPath("$.largeContent").isEqualTo(true);
+        client.get().uri(uri -> uri.path("/api/notes/search").queryParam("title", "długa reaktywna").build())
+                .exchange()
+                .expectBody()
+                .jsonPath("$[0].content").isEqualTo(content.substring(0, 2000))
+                .jsonPath("$[0].largeContent").isEqualTo(true);
+    }
+
+    @Test
+    void notesAreStreamedAsNdjson() {
+        createNote(Map.of("title", "Strumieniowana", "content", "ndjson"));
+
+        // Test: kazda notatka to osobny element strumienia, odbierany bez czekania na cala odpowiedz
+        Flux<NoteView> notes = client.get().uri("/api/notes")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(NoteView.class)
+                .getResponseBody();
+        StepVerifier.create(notes.filter(note -> note.title().equals("Strumieniowana")))
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    @Test
+    void exportWritesCsvWithHeader() {
+        createNote(Map.of("title", "Do eksportu, z przecinkiem", "content", "linia 1\nlinia 2"));
+
+        client.get().uri("/api/notes/export?format=csv").exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("Content-Disposition", "attachment; filename=\"notes.csv\"")
+                .expectBody(String.class)
+                .value(startsWith("id,category,title,content,createdAt,updatedAt\r\n"))
+                .value(containsString(",\"Do eksportu, z przecinkiem\",\"linia 1\nlinia 2\","));
+        client.get().uri("/api/notes/export?format=xml").exchange().expectStatus().isBadRequest();
+    }
+
+    @Test
+    void categoriesWithNotesStatsAndCascadingDelete() {
+        Long categoryId = client.post().uri("/api/categories").bodyValue(Map.of("name", "Reaktywna kategoria"))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Map.class)
+                .returnResult()
+                .getResponseBody()
+                .get("id") instanceof Number number ? number.longValue() : null;
+        Long noteId = createNote(Map.of("title", "W kategorii", "category", Map.of("id", categoryId)));
+
+        client.get().uri("/api/categories/{id}", categoryId).exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.notes[0].title").isEqualTo("W kategorii")
+                .jsonPath("$.notes[0].category").doesNotExist();
+        client.get().uri("/api/categories").exchange()
+                .expectBody()
+                .jsonPath("$[?(@.id == " + categoryId + ")].notes[0].id").isEqualTo(noteId.intValue());
+        client.get().uri("/api/categories/stats").exchange()
+                .expectBody()
+                .jsonPath("$[?(@.id == " + categoryId + ")].noteCount").isEqualTo(1);
+
+        // Test: usuniecie kategorii usuwa jej notatki
+        client.delete().uri("/api/categories/{id}", categoryId).exchange().expectStatus().isNoContent();
+        client.get().uri("/api/notes/{id}", noteId).exchange().expectStatus().isNotFound();
+        client.get().uri("/api/categories/{id}", categoryId).exchange().expectStatus().isNotFound();
+    }
+
+    @Test
+    void rowsSoftDeletedByMvcVersionAreHidden() {
+        Long categoryId = createCategory("Usunięta w MVC");
+        Long noteId = createNote(Map.of("title", "Usunięta w MVC", "category", Map.of("id", categoryId)));
+        // usuniecie przez wersje MVC (NoteDeletionService) - tylko oznaczenie wierszy, czyszczenie pozniej
+        db.sql("UPDATE notes SET deleted = TRUE, deleted_at = CURRENT_TIMESTAMP WHERE id = :id")
+                .bind("id", noteId).fetch().rowsUpdated().block();
+        db.sql("UPDATE categories SET deleted_at = CURRENT_TIMESTAMP WHERE id = :id")
+                .bind("id", categoryId).fetch().rowsUpdated().block();
+
+        // Test: oznaczone wiersze sa niewidoczne dla odczytow i zmian, jak w wersji MVC
+        client.get().uri("/api/notes/{id}", noteId).exchange().expectStatus().isNotFound();
+        client.put().uri("/api/notes/{id}", noteId).bodyValue(Map.of("title", "Przywrócona")).exchange()
+                .expectStatus().isNotFound();
+        client.delete().uri("/api/notes/{id}", noteId).exchange().expectStatus().isNotFound();
+        client.get().uri("/api/categories/{id}", categoryId).exchange().expectStatus().isNotFound();
+        client.get().uri("/api/categories/stats").exchange()
+                .expectBody()
+                .jsonPath("$[?(@.id == " + categoryId + ")]").isEmpty();
+        client.post().uri("/api/notes")
+                .bodyValue(Map.of("title", "Do usuniętej", "category", Map.of("id", categoryId)))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private Long createCategory(String name) {
+        Map<?, ?> created = client.post().uri("/api/categories").bodyValue(Map.of("name", name)).exchange()
+                .expectStatus().isCreated()
+                .expectBody(Map.class)
+                .returnResult()
+                .getResponseBody();
+        return ((Number) created.get("id")).longValue();
+    }
+
+    private Long createNote(Map<String, Object> note) {
+        Map<?, ?> created = client.post().uri("/api/notes").bodyValue(note).exchange()
+                .expectStatus().isCreated()
+                .expectBody(Map.class)
+                .returnResult()
+                .getResponseBody();
+        assertEquals(note.get("title"), created.get("title"));
+        return ((Number) created.get("id")).longValue();
+    }
+}
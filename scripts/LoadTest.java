@@ -0,0 +1,100 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Prosty generator obciazenia bez zewnetrznych narzedzi (uruchamiany jako plik zrodlowy, JDK 11+)
+// java scripts/LoadTest.java <baseUrl> <get|post|search> <liczba klientow> <czas w sekundach>
+// kazdy klient wysyla zadania jedno po drugim (zamknieta petla), na koniec wypisywana jest
+// przepustowosc oraz percentyle czasu odpowiedzi w jednej linii, zeby latwo je porownac
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        String mode = args.length > 1 ? args[1] : "get";
+        int clients = args.length > 2 ? Integer.parseInt(args[2]) : 400;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 30;
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(8))
+                .build();
+        long noteId = createNote(client, baseUrl);
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        AtomicLong errors = new AtomicLong();
+        ExecutorService workers = Executors.newFixedThreadPool(clients);
+        List<Future<long[]>> results = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            results.add(workers.submit(() -> {
+                long[] latencies = new long[1024];
+                int count = 0;
+                while (System.nanoTime() < deadline) {
+                    HttpRequest request = switch (mode) {
+                        case "post" -> jsonPost(baseUrl + "/api/notes", "{\"title\":\"Obciazenie\",\"content\":\"test\"}");
+                        case "search" -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/notes/search?title=Cel")).GET().build();
+                        default -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/notes/" + noteId)).GET().build();
+                    };
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = System.nanoTime() - start;
+                }
+                return Arrays.copyOf(latencies, count);
+            }));
+        }
+
+        long[] all = new long[0];
+        for (Future<long[]> result : results) {
+            long[] latencies = result.get();
+            int offset = all.length;
+            all = Arrays.copyOf(all, offset + latencies.length);
+            System.arraycopy(latencies, 0, all, offset, latencies.length);
+        }
+        workers.shutdown();
+        Arrays.sort(all);
+
+        System.out.printf("mode=%s clients=%d requests=%d errors=%d throughput=%.0f req/s p50=%.2f ms p99=%.2f ms p999=%.2f ms%n",
+                mode, clients, all.length, errors.get(), all.length / (double) seconds,
+                percentile(all, 0.50), percentile(all, 0.99), percentile(all, 0.999));
+        System.exit(0);
+    }
+
+    private static long createNote(HttpClient client, String baseUrl) throws Exception {
+        String body = client.send(jsonPost(baseUrl + "/api/notes", "{\"title\":\"Cel testu\",\"content\":\"test\"}"),
+                HttpResponse.BodyHandlers.ofString()).body();
+        return Long.parseLong(body.split("\"id\":")[1].split("[,}]")[0]);
+    }
+
+    private static HttpRequest jsonPost(String url, String json) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+}
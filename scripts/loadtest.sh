@@ -0,0 +1,37 @@
+#!/usr/bin/env bash
+# Porownanie przepustowosci i p99 dla GET /api/notes/{id} oraz POST /api/notes:
+# domyslna pula watkow Tomcata vs tryb watkow wirtualnych (profil "virtual")
+#
+# Wymaga JDK 21 (JAVA_HOME) - ten sam jar jest uruchamiany w obu trybach.
+# Uzycie: scripts/loadtest.sh [liczba klientow] [czas w sekundach]
+set -euo pipefail
+
+CLIENTS="${1:-400}"
+SECONDS_PER_RUN="${2:-30}"
+PORT=18080
+BASE_URL="http://localhost:${PORT}"
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+JAR="${ROOT}/target/notes-api-1.0.0.jar"
+
+mvn -B -q -f "${ROOT}/pom.xml" -Pjava21 -DskipTests package
+
+run_mode() {
+    local label="$1" profiles="$2"
+    java -jar "${JAR}" --server.port="${PORT}" --spring.profiles.active="${profiles}" \
+        --spring.jpa.show-sql=false > "${ROOT}/target/loadtest-${label}.log" 2>&1 &
+    local pid=$!
+    until curl -sf "${BASE_URL}/api/notes/page?size=1" > /dev/null; do sleep 0.5; done
+
+    for endpoint in get post; do
+        # krotka rozgrzewka JIT, wynik pomijany
+        java "${ROOT}/scripts/LoadTest.java" "${BASE_URL}" "${endpoint}" "${CLIENTS}" 5 > /dev/null
+        printf '%-9s ' "${label}"
+        java "${ROOT}/scripts/LoadTest.java" "${BASE_URL}" "${endpoint}" "${CLIENTS}" "${SECONDS_PER_RUN}"
+    done
+
+    kill "${pid}"
+    wait "${pid}" 2> /dev/null || true
+}
+
+run_mode platform default
+run_mode virtual virtual
@@ -0,0 +1,40 @@
+#!/usr/bin/env bash
+# Porownanie wersji MVC (JPA, pula watkow Tomcata) i reaktywnej (WebFlux + R2DBC, modul reactive/) przy duzej
+# liczbie rownoczesnych klientow: przepustowosc i p99 dla GET /api/notes/{id}, GET /api/notes/search i
+# POST /api/notes, a po kazdym pomiarze szczytowe RSS i liczba watkow procesu z /proc/<pid>/status.
+# Obie wersje dzialaja na H2 w pamieci z danymi z data.sql; limity zadan w wersji MVC sa wylaczone.
+#
+# Uzycie: scripts/reactive-loadtest.sh [liczba klientow] [czas w sekundach]
+set -euo pipefail
+
+CLIENTS="${1:-1000}"
+SECONDS_PER_RUN="${2:-30}"
+PORT=18082
+BASE_URL="http://localhost:${PORT}"
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+
+mvn -B -q -f "${ROOT}/pom.xml" -DskipTests package
+mvn -B -q -f "${ROOT}/reactive/pom.xml" -DskipTests package
+
+run_mode() {
+    local label="$1"
+    shift
+    java -Xmx512m -jar "$@" --server.port="${PORT}" > "${ROOT}/target/loadtest-${label}.log" 2>&1 &
+    local pid=$!
+    until curl -sf "${BASE_URL}/api/categories" > /dev/null; do sleep 0.5; done
+
+    for endpoint in get search post; do
+        # krotka rozgrzewka JIT, wynik pomijany
+        java "${ROOT}/scripts/LoadTest.java" "${BASE_URL}" "${endpoint}" "${CLIENTS}" 5 > /dev/null
+        printf '%-9s ' "${label}"
+        java "${ROOT}/scripts/LoadTest.java" "${BASE_URL}" "${endpoint}" "${CLIENTS}" "${SECONDS_PER_RUN}" | tr -d '\n'
+        awk '/VmHWM/ {rss = $2} /Threads/ {threads = $2} END {printf " rss=%d MB threads=%d\n", rss / 1024, threads}' \
+            "/proc/${pid}/status"
+    done
+
+    kill "${pid}"
+    wait "${pid}" 2> /dev/null || true
+}
+
+run_mode mvc "${ROOT}/target/notes-api-1.0.0.jar" --notes.rate-limit.enabled=false --spring.jpa.show-sql=false
+run_mode reactive "${ROOT}/reactive/target/notes-api-reactive-1.0.0.jar"
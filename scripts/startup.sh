@@ -0,0 +1,91 @@
+#!/usr/bin/env bash
+# Czas od uruchomienia JVM do pierwszej odpowiedzi i RSS procesu zaraz po niej, profil "prod" na bazie H2
+# w pliku z podana liczba notatek. Pierwsza odpowiedz jak przy skalowaniu w Kubernetes: najpierw
+# /actuator/health/readiness zwraca 200 (instancja dostaje ruch), potem GET /api/notes/1.
+# - jar: jar wykonywalny (mvn package), --spring.profiles.active=prod
+# - fast: jar + lib/ z mvn -Pfast-start package, profile prod,fast (leniwa inicjalizacja, indeksy w tle)
+# - fast+aot: jak fast, z kodem Spring AOT (-Dspring.aot.enabled=true)
+# - fast+aot+cds: jak fast+aot, z archiwum AppCDS (-XX:SharedArchiveFile)
+#
+# Uzycie: scripts/startup.sh [liczba notatek] [liczba startow na tryb]
+set -euo pipefail
+
+NOTES="${1:-1000000}"
+RUNS="${2:-5}"
+PORT=18081
+BASE_URL="http://localhost:${PORT}"
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+WORK="${ROOT}/target/startup"
+FAST="${ROOT}/target/fast-start"
+
+mvn -B -q -f "${ROOT}/pom.xml" -DskipTests package
+mkdir -p "${WORK}"
+cp "${ROOT}/target/notes-api-1.0.0.jar" "${WORK}/notes-api.jar"
+mvn -B -q -f "${ROOT}/pom.xml" -Pfast-start -DskipTests package
+
+DB="${WORK}/notes-${NOTES}"
+DB_URL="jdbc:h2:file:${DB};CACHE_SIZE=65536;WRITE_DELAY=500;DB_CLOSE_ON_EXIT=FALSE"
+
+# baza wzorcowa: schemat z migracji Flyway (jeden start aplikacji), dane jednym INSERT ... SELECT w H2
+if [ ! -f "${DB}.mv.db" ]; then
+    java -Dspring.context.exit=onRefresh -jar "${WORK}/notes-api.jar" --spring.profiles.active=prod \
+        --spring.datasource.url="${DB_URL}" --server.port=0 --logging.level.root=WARN
+    cat > "${WORK}/populate.sql" <<SQL
+INSERT INTO categories (name) SELECT 'Kategoria ' || X FROM SYSTEM_RANGE(1, 50);
+INSERT INTO notes (id, category_id, title, content, created_at, updated_at, version)
+SELECT X, MOD(X, 50) + 1, 'Notatka ' || X || ' - plan projektu',
+       STRINGTOUTF8(REPEAT('Treść notatki numer ' || X || '. ', 10)),
+       DATEADD(MINUTE, -X, TIMESTAMP '2026-01-01 12:00:00'), DATEADD(MINUTE, -X, TIMESTAMP '2026-01-01 12:00:00'), 0
+FROM SYSTEM_RANGE(1, ${NOTES});
+ALTER SEQUENCE notes_seq RESTART WITH $((NOTES + 1));
+SHUTDOWN COMPACT;
+SQL
+    java -cp "$(ls "${FAST}"/lib/h2-*.jar)" org.h2.tools.RunScript -url "${DB_URL}" -user sa \
+        -script "${WORK}/populate.sql"
+fi
+
+# jeden start: kopia bazy wzorcowej, pomiar do pierwszej odpowiedzi 200, RSS z /proc, zatrzymanie procesu
+measure() {
+    local label="$1"
+    shift
+    local total_ms=0 total_rss=0 min_ms=""
+    for run in $(seq 1 "${RUNS}"); do
+        cp "${DB}.mv.db" "${WORK}/run.mv.db"
+        local start end pid
+        start=$(date +%s%N)
+        java -Xmx1g "$@" --server.port="${PORT}" \
+            --spring.datasource.url="jdbc:h2:file:${WORK}/run;CACHE_SIZE=65536;WRITE_DELAY=500;DB_CLOSE_ON_EXIT=FALSE" \
+            > "${WORK}/${label}.log" 2>&1 &
+        pid=$!
+        until curl -sf -o /dev/null "${BASE_URL}/actuator/health/readiness"; do
+            if ! kill -0 "${pid}" 2> /dev/null; then
+                echo "${label}: proces zakonczyl sie przed pierwsza odpowiedzia (${WORK}/${label}.log)" >&2
+                exit 1
+            fi
+            sleep 0.01
+        done
+        curl -sf -o /dev/null "${BASE_URL}/api/notes/1"
+        end=$(date +%s%N)
+        local rss ms
+        rss=$(awk '/VmRSS/ {print $2}' "/proc/${pid}/status")
+        ms=$(((end - start) / 1000000))
+        total_ms=$((total_ms + ms))
+        total_rss=$((total_rss + rss))
+        if [ -z "${min_ms}" ] || [ "${ms}" -lt "${min_ms}" ]; then min_ms="${ms}"; fi
+        kill "${pid}"
+        wait "${pid}" 2> /dev/null || true
+    done
+    printf '%-14s %8d ms %8d ms %8d MB\n' "${label}" "$((total_ms / RUNS))" "${min_ms}" "$((total_rss / RUNS / 1024))"
+}
+
+printf '%-14s %11s %11s %11s\n' "tryb" "sredni" "min" "RSS"
+measure jar -jar "${WORK}/notes-api.jar" --spring.profiles.active=prod
+(
+    # AppCDS sprawdza sciezki classpath z czasu budowania archiwum - start z katalogu target/fast-start
+    cd "${FAST}"
+    measure fast -jar notes-api-1.0.0.jar --spring.profiles.active=prod,fast
+    measure fast+aot -Dspring.aot.enabled=true -jar notes-api-1.0.0.jar --spring.profiles.active=prod,fast
+    measure fast+aot+cds -XX:SharedArchiveFile=notes-api.jsa -Dspring.aot.enabled=true \
+        -jar notes-api-1.0.0.jar --spring.profiles.active=prod,fast
+)
+rm -f "${WORK}/run.mv.db"
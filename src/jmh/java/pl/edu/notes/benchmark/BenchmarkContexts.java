@@ -0,0 +1,40 @@
+package pl.edu.notes.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import pl.edu.notes.NotesApplication;
+import pl.edu.notes.search.NoteSearchIndexer;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+// Uruchamia aplikacje na osobnej bazie H2 in-memory i wypelnia ja przez NotesDataGenerator
+// kazdy rozmiar danych dostaje wlasna baze, zeby wyniki dla 10k/100k/1M sie nie mieszaly
+final class BenchmarkContexts {
+
+    private BenchmarkContexts() {}
+
+    // extraArgs - dodatkowe ustawienia benchmarku, np. "--notes.read-replica.enabled=true"
+    static ConfigurableApplicationContext start(int notes, WebApplicationType webType, String... extraArgs) {
+        // ustawienia jako argumenty wiersza polecen - properties() ustawia tylko wartosci domyslne,
+        // ktore application.properties by nadpisal
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + notes + "-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1",
+                "--spring.sql.init.mode=never",
+                "--spring.jpa.show-sql=false",
+                "--server.port=0",
+                // benchmarki wysylaja miliony zadan z jednego adresu - limity zadan mierzy RateLimiterBenchmark
+                "--notes.rate-limit.enabled=false",
+                "--logging.level.root=WARN"));
+        args.addAll(List.of(extraArgs));
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(NotesApplication.class)
+                .web(webType)
+                .run(args.toArray(String[]::new));
+        NotesDataGenerator.populate(context.getBean(DataSource.class), notes);
+        // indeks pelnotekstowy zbudowal sie przy starcie na pustej bazie - przebudowa po zaladowaniu danych
+        context.getBean(NoteSearchIndexer.class).rebuild();
+        return context;
+    }
+}
@@ -0,0 +1,54 @@
+package pl.edu.notes.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.edu.notes.dto.NoteView;
+import pl.edu.notes.model.Note;
+import pl.edu.notes.repository.NoteRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Pobranie wszystkich notatek razem z kategoriami
+// - entities: findAll() - encje Note, kategoria EAGER dociagana osobnymi zapytaniami
+// - views: findAllViews() - projekcje NoteView z jednym LEFT JOIN
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class FindAllBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int notes;
+
+    private ConfigurableApplicationContext context;
+    private NoteRepository noteRepository;
+    private TransactionTemplate transaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start(notes, WebApplicationType.NONE);
+        noteRepository = context.getBean(NoteRepository.class);
+        transaction = context.getBean(TransactionTemplate.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // transakcja na wywolanie - kazda iteracja zaczyna z pustym kontekstem persystencji
+    @Benchmark
+    public List<Note> entities() {
+        return transaction.execute(status -> noteRepository.findAll());
+    }
+
+    @Benchmark
+    public List<NoteView> views() {
+        return transaction.execute(status -> noteRepository.findAllViews());
+    }
+}
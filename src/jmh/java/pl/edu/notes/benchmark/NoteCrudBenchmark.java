@@ -0,0 +1,67 @@
+package pl.edu.notes.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+// Pojedyncze operacje CRUD przez warstwe kontrolera (MockMvc: DispatcherServlet, walidacja, Jackson)
+// na bazie z 10 000 notatek - mierzy narzut calej sciezki zadania bez sieci
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NoteCrudBenchmark {
+
+    private static final String NOTE_JSON = "{\"title\":\"Benchmark\",\"content\":\"Treść notatki z benchmarku\"}";
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start(10_000, WebApplicationType.SERVLET);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MvcResult getNote() throws Exception {
+        return mockMvc.perform(get("/api/notes/1")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult createNote() throws Exception {
+        return mockMvc.perform(post("/api/notes").contentType(MediaType.APPLICATION_JSON).content(NOTE_JSON))
+                .andReturn();
+    }
+
+    @Benchmark
+    public MvcResult updateNote() throws Exception {
+        return mockMvc.perform(put("/api/notes/51").contentType(MediaType.APPLICATION_JSON).content(NOTE_JSON))
+                .andReturn();
+    }
+
+    // tworzenie i usuniecie w jednym wywolaniu - liczba notatek w bazie pozostaje stala
+    @Benchmark
+    public MvcResult createAndDeleteNote() throws Exception {
+        String response = mockMvc.perform(post("/api/notes").contentType(MediaType.APPLICATION_JSON).content(NOTE_JSON))
+                .andReturn().getResponse().getContentAsString();
+        String id = response.split("\"id\":")[1].split("[,}]")[0];
+        return mockMvc.perform(delete("/api/notes/" + id)).andReturn();
+    }
+}
@@ -0,0 +1,127 @@
+package pl.edu.notes.benchmark;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Powtarzalny generator danych do benchmarkow
+// 1. wykonuje data.sql - te same kategorie i notatki startowe co aplikacja
+// 2. doklada kategorie i notatki losowane ze stalym ziarnem (SEED) - kazde uruchomienie daje identyczne dane
+// notatki wstawiane sa batchami JDBC, id pochodzi z sekwencji notes_seq jak w data.sql
+//
+// uzycie samodzielne (schemat musi juz istniec):
+// java -cp <classpath> pl.edu.notes.benchmark.NotesDataGenerator <jdbcUrl> <user> <haslo> <liczba notatek>
+public final class NotesDataGenerator {
+
+    public static final long SEED = 42;
+
+    // slowo wystepujace w ok. 5% tytulow i 2% tresci - do benchmarkow wyszukiwania
+    public static final String SEARCH_TERM = "projekt";
+
+    // najczestsze slowo slownika - wystepuje w prawie kazdej notatce
+    public static final String COMMON_TERM = "notatka";
+
+    private static final int EXTRA_CATEGORIES = 47;
+    private static final int BATCH_SIZE = 1000;
+    private static final int VOCABULARY_SIZE = 5000;
+
+    private static final String[] WORDS = {
+            "notatka", "zakupy", "uczelnia", "praca", "spotkanie", "kolokwium", "egzamin",
+            "wykład", "ćwiczenia", "raport", "faktura", "urlop", "podróż", "książka", "przepis",
+            "lista", "plan", "termin", "zadanie", "pomysł", "bazy", "danych", "java", "spring",
+            "hibernate", "zapytanie", "indeks", "tabela", "klient", "serwer", "żółty", "łódź",
+            "źródło", "pieśń", "mleko", "chleb", "jajka", "kawa", "herbata", "rower", "biegi",
+            "trening", "lekarz", "rachunek", "prezent", "urodziny", "kino", "muzyka", "ogród"
+    };
+
+    // slownik: polskie slowa na poczatku (najczestsze) + slowa syntetyczne do VOCABULARY_SIZE
+    private static final String[] VOCABULARY = buildVocabulary();
+
+    private NotesDataGenerator() {}
+
+    public static void populate(DataSource dataSource, int notes) {
+        new ResourceDatabasePopulator(new ClassPathResource("data.sql")).execute(dataSource);
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        List<Object[]> categories = new ArrayList<>();
+        for (int i = 1; i <= EXTRA_CATEGORIES; i++) {
+            categories.add(new Object[]{"Kategoria " + i});
+        }
+        jdbc.batchUpdate("INSERT INTO categories (name) VALUES (?)", categories);
+        List<Long> categoryIds = jdbc.queryForList("SELECT id FROM categories ORDER BY id", Long.class);
+
+        Random random = new Random(SEED);
+        LocalDateTime now = LocalDateTime.of(2026, 1, 1, 12, 0);
+        String sql = "INSERT INTO notes (id, title, content, category_id, created_at, updated_at, version) "
+                + "VALUES (NEXT VALUE FOR notes_seq, ?, ?, ?, ?, ?, 0)";
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < notes; i++) {
+            LocalDateTime createdAt = now.minusMinutes(random.nextInt(365 * 24 * 60));
+            LocalDateTime updatedAt = createdAt.plusMinutes(random.nextInt(30 * 24 * 60));
+            // ok. 10% notatek bez kategorii
+            Long categoryId = random.nextInt(10) == 0 ? null : categoryIds.get(random.nextInt(categoryIds.size()));
+            batch.add(new Object[]{
+                    sentence(random, 2 + random.nextInt(5), 100, 0.05),
+                    sentence(random, 10 + random.nextInt(60), 2000, 0.02),
+                    categoryId,
+                    Timestamp.valueOf(createdAt),
+                    Timestamp.valueOf(updatedAt)});
+            if (batch.size() == BATCH_SIZE) {
+                jdbc.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbc.batchUpdate(sql, batch);
+        }
+    }
+
+    // searchTermProbability - szansa ze tekst zawiera SEARCH_TERM
+    private static String sentence(Random random, int words, int maxLength, double searchTermProbability) {
+        int searchTermPosition = random.nextDouble() < searchTermProbability ? random.nextInt(words) : -1;
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            String word = i == searchTermPosition ? SEARCH_TERM : pickWord(random);
+            if (text.length() + word.length() + 1 > maxLength) {
+                break;
+            }
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(i == 0 ? Character.toUpperCase(word.charAt(0)) + word.substring(1) : word);
+        }
+        return text.toString();
+    }
+
+    // rozklad mocno skosny (jak w prawdziwych tekstach) - slowa z poczatku slownika wystepuja najczesciej
+    private static String pickWord(Random random) {
+        return VOCABULARY[(int) (VOCABULARY.length * Math.pow(random.nextDouble(), 4))];
+    }
+
+    private static String[] buildVocabulary() {
+        String[] vocabulary = new String[VOCABULARY_SIZE];
+        for (int i = 0; i < VOCABULARY_SIZE; i++) {
+            vocabulary[i] = i < WORDS.length ? WORDS[i] : WORDS[i % WORDS.length] + i;
+        }
+        return vocabulary;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 4) {
+            System.err.println("Uzycie: NotesDataGenerator <jdbcUrl> <user> <haslo> <liczba notatek>");
+            System.exit(1);
+        }
+        DataSource dataSource = new DriverManagerDataSource(args[0], args[1], args[2]);
+        long start = System.nanoTime();
+        populate(dataSource, Integer.parseInt(args[3]));
+        System.out.printf("Wygenerowano %s notatek w %d ms%n", args[3], (System.nanoTime() - start) / 1_000_000);
+    }
+}
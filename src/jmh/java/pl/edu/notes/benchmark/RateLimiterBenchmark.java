@@ -0,0 +1,100 @@
+package pl.edu.notes.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import pl.edu.notes.ratelimit.EndpointClass;
+import pl.edu.notes.ratelimit.RateLimit;
+import pl.edu.notes.ratelimit.RateLimitInterceptor;
+import pl.edu.notes.ratelimit.RateLimiter;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Narzut kontroli dostepu na jedno zadanie - bez Springa i bez bazy
+// tokeny uzupelniaja sie praktycznie natychmiast, wiec kazde zadanie jest przyjmowane (mierzymy sciezke przyjecia)
+// - readOneClient: kubelek jednego klienta, klasa bez limitu wspolbieznosci
+// - searchOneClient: jak wyzej + semafor limitu wspolbieznosci (tryAcquire/release)
+// - readManyClients: 10k roznych adresow - odczyt z ConcurrentHashMap przy rozproszonych kluczach
+// - *Contended: 8 watkow na tym samym kubelku i semaforze - najgorszy przypadek dla CAS
+// - interceptor: caly RateLimitInterceptor (preHandle + afterCompletion) dla metody z @RateLimit
+// dla porownania: GET /api/notes/{id} przez MockMvc (NoteCrudBenchmark) to dziesiatki mikrosekund
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    private static final int CLIENTS = 10_000;
+
+    private RateLimiter rateLimiter;
+    private String[] addresses;
+    private RateLimitInterceptor interceptor;
+    private HandlerMethod handler;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        rateLimiter = new RateLimiter(new SimpleMeterRegistry(), 200, 1_000_000_000, 100_000, 0, 1_000_000, 0);
+        addresses = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            addresses[i] = "10.0." + (i / 256) + "." + (i % 256);
+        }
+        interceptor = new RateLimitInterceptor(rateLimiter);
+        handler = new HandlerMethod(new SearchEndpoint(), SearchEndpoint.class.getMethod("search"));
+        request = new MockHttpServletRequest("GET", "/api/notes/search");
+        request.setRemoteAddr("10.0.0.1");
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public long readOneClient() {
+        return rateLimiter.tryAdmit("10.0.0.1", EndpointClass.READ);
+    }
+
+    @Benchmark
+    public long searchOneClient() {
+        long wait = rateLimiter.tryAdmit("10.0.0.1", EndpointClass.SEARCH);
+        rateLimiter.release(EndpointClass.SEARCH);
+        return wait;
+    }
+
+    @Benchmark
+    public long readManyClients() {
+        return rateLimiter.tryAdmit(addresses[ThreadLocalRandom.current().nextInt(CLIENTS)], EndpointClass.READ);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long readOneClientContended() {
+        return rateLimiter.tryAdmit("10.0.0.1", EndpointClass.READ);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long searchOneClientContended() {
+        long wait = rateLimiter.tryAdmit("10.0.0.1", EndpointClass.SEARCH);
+        rateLimiter.release(EndpointClass.SEARCH);
+        return wait;
+    }
+
+    @Benchmark
+    public boolean interceptor() throws Exception {
+        boolean admitted = interceptor.preHandle(request, response, handler);
+        interceptor.afterCompletion(request, response, handler, null);
+        return admitted;
+    }
+
+    public static class SearchEndpoint {
+
+        @RateLimit(EndpointClass.SEARCH)
+        public String search() {
+            return "";
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package pl.edu.notes.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.edu.notes.dto.NoteSummary;
+import pl.edu.notes.model.Note;
+import pl.edu.notes.replica.NoteReadReplica;
+import pl.edu.notes.replica.NoteReadReplicaLoader;
+import pl.edu.notes.repository.CategoryRepository;
+import pl.edu.notes.repository.NoteRepository;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Odczyty GET /api/notes/recent i /count: replika kolumnowa w pamieci (NoteReadReplica) kontra JPA
+// - entitiesInCategory: dotychczasowa droga klienta - encja Category z lista notatek (hydracja wszystkich encji
+//   Note kategorii), sortowanie po updatedAt i pierwsze RECENT_LIMIT
+// - jpa*: projekcje NoteSummary z bazy (odpowiedz endpointow przy wylaczonej replice)
+// - replica*: te same odpowiedzi z repliki
+// alokacje na wywolanie (gc.alloc.rate.norm): -Djmh.args="ReadReplicaBenchmark -prof gc"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ReadReplicaBenchmark {
+
+    private static final int RECENT_LIMIT = 20;
+    // kategoria z data.sql - ok. 2% notatek z NotesDataGenerator
+    private static final Long CATEGORY_ID = 2L;
+
+    @Param({"10000", "100000", "1000000"})
+    public int notes;
+
+    private ConfigurableApplicationContext context;
+    private NoteRepository noteRepository;
+    private CategoryRepository categoryRepository;
+    private NoteReadReplica replica;
+    private TransactionTemplate transaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start(notes, WebApplicationType.NONE, "--notes.read-replica.enabled=true");
+        // replika zaladowala sie przy starcie z pustej bazy - ponowne ladowanie po wygenerowaniu danych
+        context.getBean(NoteReadReplicaLoader.class).rebuild();
+        noteRepository = context.getBean(NoteRepository.class);
+        categoryRepository = context.getBean(CategoryRepository.class);
+        replica = context.getBean(NoteReadReplica.class);
+        transaction = context.getBean(TransactionTemplate.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // transakcja na wywolanie - kazda iteracja zaczyna z pustym kontekstem persystencji
+    @Benchmark
+    public List<Long> entitiesInCategory() {
+        return transaction.execute(status -> categoryRepository.findById(CATEGORY_ID).orElseThrow().getNotes().stream()
+                .sorted(Comparator.comparing(Note::getUpdatedAt).thenComparing(Note::getId).reversed())
+                .limit(RECENT_LIMIT)
+                .map(Note::getId)
+                .toList());
+    }
+
+    @Benchmark
+    public List<NoteSummary> jpaRecent() {
+        return noteRepository.findRecentSummaries(Limit.of(RECENT_LIMIT));
+    }
+
+    @Benchmark
+    public List<NoteSummary> replicaRecent() {
+        return replica.recent(null, RECENT_LIMIT);
+    }
+
+    @Benchmark
+    public List<NoteSummary> jpaRecentInCategory() {
+        return noteRepository.findRecentSummariesByCategory(CATEGORY_ID, Limit.of(RECENT_LIMIT));
+    }
+
+    @Benchmark
+    public List<NoteSummary> replicaRecentInCategory() {
+        return replica.recent(CATEGORY_ID, RECENT_LIMIT);
+    }
+
+    @Benchmark
+    public long jpaCountInCategory() {
+        return noteRepository.countByCategoryId(CATEGORY_ID);
+    }
+
+    @Benchmark
+    public long replicaCountInCategory() {
+        return replica.count(CATEGORY_ID);
+    }
+}
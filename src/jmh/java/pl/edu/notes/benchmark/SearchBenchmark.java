@@ -0,0 +1,89 @@
+package pl.edu.notes.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import pl.edu.notes.dto.NoteView;
+import pl.edu.notes.dto.TitleSuggestion;
+import pl.edu.notes.model.Note;
+import pl.edu.notes.repository.NoteRepository;
+import pl.edu.notes.search.NoteSearchIndex;
+import pl.edu.notes.search.TitleSuggestIndex;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Wyszukiwanie po tytule: LIKE '%...%' (pelny skan tabeli) kontra indeks odwrocony w pamieci
+// - likeEntities: findByTitleContainingIgnoreCase, encje + kategorie
+// - likeViews: ten sam LIKE zwracajacy projekcje NoteView
+// - fullText: NoteSearchIndex - pierwsza strona 20 wynikow BM25 (tytul i tresc)
+// - fullTextCommonTerm: najgorszy przypadek indeksu - slowo wystepujace w prawie kazdej notatce
+// - suggest*: podpowiedzi tytulow z TitleSuggestIndex (w mikrosekundach) - krotki prefiks pasujacy do wielu
+//   tytulow, prefiks pasujacy do kilku procent tytulow i dlugi prefiks konczacy sie w kubelku
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SearchBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int notes;
+
+    private ConfigurableApplicationContext context;
+    private NoteRepository noteRepository;
+    private NoteSearchIndex searchIndex;
+    private TitleSuggestIndex suggestIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start(notes, WebApplicationType.NONE);
+        noteRepository = context.getBean(NoteRepository.class);
+        searchIndex = context.getBean(NoteSearchIndex.class);
+        suggestIndex = context.getBean(TitleSuggestIndex.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Note> likeEntities() {
+        return noteRepository.findByTitleContainingIgnoreCase(NotesDataGenerator.SEARCH_TERM);
+    }
+
+    @Benchmark
+    public List<NoteView> likeViews() {
+        return noteRepository.searchViewsByTitle(NotesDataGenerator.SEARCH_TERM);
+    }
+
+    @Benchmark
+    public NoteSearchIndex.SearchHits fullText() {
+        return searchIndex.search(NotesDataGenerator.SEARCH_TERM, 0, 20);
+    }
+
+    @Benchmark
+    public NoteSearchIndex.SearchHits fullTextCommonTerm() {
+        return searchIndex.search(NotesDataGenerator.COMMON_TERM, 0, 20);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<TitleSuggestion> suggestShortPrefix() {
+        return suggestIndex.suggest("n", TitleSuggestIndex.MAX_SUGGESTIONS);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<TitleSuggestion> suggestWord() {
+        return suggestIndex.suggest(NotesDataGenerator.SEARCH_TERM, TitleSuggestIndex.MAX_SUGGESTIONS);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<TitleSuggestion> suggestLongPrefix() {
+        return suggestIndex.suggest("notatka zakupy", TitleSuggestIndex.MAX_SUGGESTIONS);
+    }
+}
@@ -0,0 +1,111 @@
+package pl.edu.notes.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import pl.edu.notes.dto.CategorySummary;
+import pl.edu.notes.dto.NoteView;
+import pl.edu.notes.json.NoteJsonModule;
+import pl.edu.notes.model.Category;
+import pl.edu.notes.model.Note;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Koszt serializacji Jacksona: encje Note/Category (z adnotacjami @JsonIgnoreProperties) i projekcje NoteView
+// ObjectMapper z Jackson2ObjectMapperBuilder i daty jako tekst - ta sama konfiguracja co w aplikacji Spring Boot
+// - reflective: BeanSerializer Jacksona z adnotacji
+// - dedicated: z NoteJsonModule (serializery pisane recznie, daty przez JsonTimestamps)
+// *Streamed - zapis prosto do strumienia, tak jak odpowiedz HTTP (bez tablicy bajtow z wynikiem);
+// alokacje na notatke: gc.alloc.rate.norm / NOTES, -Djmh.args="SerializationBenchmark -prof gc"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private static final int NOTES = 100;
+    private static final int CATEGORIES = 5;
+
+    @Param({"reflective", "dedicated"})
+    public String serializers;
+
+    private ObjectMapper objectMapper;
+    private Note note;
+    private List<Note> notes;
+    private Category category;
+    private List<NoteView> views;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        if (serializers.equals("dedicated")) {
+            objectMapper.registerModule(new NoteJsonModule());
+        }
+        LocalDateTime now = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+        List<Category> categories = new ArrayList<>();
+        for (long c = 1; c <= CATEGORIES; c++) {
+            Category cat = new Category("Kategoria " + c);
+            cat.setId(c);
+            cat.setNotes(new ArrayList<>());
+            categories.add(cat);
+        }
+
+        notes = new ArrayList<>();
+        views = new ArrayList<>();
+        for (long i = 1; i <= NOTES; i++) {
+            Category cat = categories.get((int) (i % CATEGORIES));
+            Note n = new Note("Notatka " + i, "Treść notatki numer " + i + " - mleko, chleb, jajka, projekt z baz danych");
+            n.setId(i);
+            n.setCategory(cat);
+            n.setCreatedAt(now.minusDays(i));
+            n.setUpdatedAt(now.minusHours(i));
+            n.setVersion(0L);
+            cat.getNotes().add(n);
+            notes.add(n);
+            views.add(new NoteView(n.getId(), new CategorySummary(cat.getId(), cat.getName()), n.getTitle(),
+                    n.getContent(), n.isLargeContent(), n.getCreatedAt(), n.getUpdatedAt(), n.getVersion()));
+        }
+        note = notes.get(0);
+        category = categories.get(0);
+    }
+
+    @Benchmark
+    public byte[] singleNote() throws Exception {
+        return objectMapper.writeValueAsBytes(note);
+    }
+
+    @Benchmark
+    public byte[] noteList() throws Exception {
+        return objectMapper.writeValueAsBytes(notes);
+    }
+
+    @Benchmark
+    public byte[] noteViewList() throws Exception {
+        return objectMapper.writeValueAsBytes(views);
+    }
+
+    @Benchmark
+    public void noteListStreamed() throws Exception {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), notes);
+    }
+
+    @Benchmark
+    public void noteViewListStreamed() throws Exception {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), views);
+    }
+
+    @Benchmark
+    public byte[] categoryWithNotes() throws Exception {
+        return objectMapper.writeValueAsBytes(category);
+    }
+}
@@ -0,0 +1,63 @@
+package pl.edu.notes.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// Lista notatek przez warstwe kontrolera (MockMvc) - pelne NoteView kontra wybrane pola (fields=)
+// - full: GET /api/notes
+// - summary: GET /api/notes?fields=summary (id, category, title, updatedAt - bez content)
+// - titles: GET /api/notes?fields=title (bez LEFT JOIN do kategorii)
+// rozmiar odpowiedzi kazdego wariantu wypisywany jest raz, przy starcie
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SparseFieldsBenchmark {
+
+    @Param({"10000", "100000"})
+    public int notes;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkContexts.start(notes, WebApplicationType.SERVLET);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+        System.out.printf("%nRozmiar odpowiedzi (%d notatek): full=%d B, summary=%d B, titles=%d B%n", notes,
+                full().getResponse().getContentAsByteArray().length,
+                summary().getResponse().getContentAsByteArray().length,
+                titles().getResponse().getContentAsByteArray().length);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MvcResult full() throws Exception {
+        return mockMvc.perform(get("/api/notes")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult summary() throws Exception {
+        return mockMvc.perform(get("/api/notes").param("fields", "summary")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult titles() throws Exception {
+        return mockMvc.perform(get("/api/notes").param("fields", "title")).andReturn();
+    }
+}
@@ -0,0 +1,131 @@
+package pl.edu.notes.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import pl.edu.notes.NotesApplication;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+// Start aplikacji w profilu "prod" na bazie H2 w pliku (do ApplicationReadyEvent, razem z Flyway,
+// walidacja schematu, Tomcatem i przebudowa indeksu pelnotekstowego)
+// - clean: baza zamknieta poprawnie
+// - crash: proces piszacy do bazy przerwany Runtime.halt() w trakcie duzej aktualizacji,
+//   H2 przy otwarciu odtwarza ostatni spojny stan pliku (recovery)
+// baza wzorcowa z 1M notatek powstaje raz w target/benchmark-db i jest kopiowana przed kazdym startem
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class StartupBenchmark {
+
+    // te same ustawienia MVStore co w application-prod.properties
+    private static final String DB_OPTIONS = ";CACHE_SIZE=65536;WRITE_DELAY=500;DB_CLOSE_ON_EXIT=FALSE";
+    private static final Path DB_DIR = Path.of("target", "benchmark-db").toAbsolutePath();
+
+    @Param({"1000000"})
+    public int notes;
+
+    @Param({"clean", "crash"})
+    public String shutdown;
+
+    private Path template;
+    private Path workDir;
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void createTemplate() throws IOException {
+        template = DB_DIR.resolve("notes-" + notes + ".mv.db");
+        if (Files.exists(template)) {
+            return;
+        }
+        Files.createDirectories(DB_DIR);
+        String url = url(DB_DIR.resolve("notes-" + notes));
+        // schemat z migracji Flyway, dane przez jedno zwykle polaczenie JDBC (pula w profilu prod ma auto-commit=false)
+        start(url).close();
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(url, "sa", "", true);
+        try {
+            NotesDataGenerator.populate(dataSource, notes);
+            // zamkniecie bazy z kompaktowaniem pliku - baza wzorcowa bez luk po wstawianiu
+            new JdbcTemplate(dataSource).execute("SHUTDOWN COMPACT");
+        } finally {
+            dataSource.destroy();
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void prepareDatabase() throws Exception {
+        workDir = Files.createTempDirectory(DB_DIR, "run-");
+        Files.copy(template, workDir.resolve("notesdb.mv.db"), StandardCopyOption.REPLACE_EXISTING);
+        if (shutdown.equals("crash")) {
+            Process crasher = new ProcessBuilder(
+                    ProcessHandle.current().info().command().orElse("java"),
+                    "-cp", System.getProperty("java.class.path"),
+                    Crasher.class.getName(), url(workDir.resolve("notesdb")))
+                    .inheritIO()
+                    .start();
+            crasher.waitFor();
+        }
+    }
+
+    @Benchmark
+    public ConfigurableApplicationContext start() {
+        context = start(url(workDir.resolve("notesdb")));
+        return context;
+    }
+
+    @TearDown(Level.Iteration)
+    public void stop() throws IOException {
+        if (context != null) {
+            context.close();
+            context = null;
+        }
+        try (var files = Files.list(workDir)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(workDir);
+    }
+
+    private static ConfigurableApplicationContext start(String url) {
+        return new SpringApplicationBuilder(NotesApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run(
+                        "--spring.profiles.active=prod",
+                        "--spring.datasource.url=" + url,
+                        "--server.port=0",
+                        "--logging.level.root=WARN");
+    }
+
+    private static String url(Path file) {
+        return "jdbc:h2:file:" + file + DB_OPTIONS;
+    }
+
+    // Osobny proces: aktualizuje co dziesiata notatke i konczy sie bez zamkniecia bazy
+    public static final class Crasher {
+
+        public static void main(String[] args) throws SQLException {
+            Connection connection = DriverManager.getConnection(args[0], "sa", "");
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("UPDATE notes SET content = CONCAT(content, ' *'), version = version + 1 "
+                        + "WHERE MOD(id, 10) = 0");
+            }
+            // bez close() i bez hookow zamykajacych - jak po kill -9
+            Runtime.getRuntime().halt(1);
+        }
+    }
+}
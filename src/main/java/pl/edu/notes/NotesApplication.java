@@ -2,8 +2,11 @@ package pl.edu.notes;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+// @Scheduled - okresowe przeliczenie licznikow kategorii (CategoryStatsService)
+@EnableScheduling
 public class NotesApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,14 @@
+package pl.edu.notes.cache;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Wlacza cache Springa - sam CacheManager (Caffeine) konfiguruje Spring Boot
+// na podstawie spring.cache.* w application.properties
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String NOTES = "notes";
+    public static final String CATEGORIES = "categories";
+}
@@ -0,0 +1,69 @@
+package pl.edu.notes.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import pl.edu.notes.event.NoteChangedEvent;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Usuwa z cache wpisy, ktore przestaly byc aktualne po zapisie
+// notatki - przez NoteChangedEvent (po commicie), takze przy kaskadowym usuwaniu z kategoria
+// kategorie - przez NoteChangedEvent (obecna i poprzednia kategoria notatki, bo wpis trzyma liste notatek)
+//   i bezposrednio z CategoryController po jej usunieciu
+// kazde uniewaznienie podnosi licznik (generation) klucza - odczyt z bazy, ktory zaczal sie przed zapisem
+// i skonczyl po uniewaznieniu, nie zostawia w cache starej wartosci (putIfCurrent)
+@Component
+public class CacheInvalidator {
+
+    // liczniki dla id mod STRIPES - wspolny licznik kilku kluczy najwyzej powoduje zbedne chybienie
+    private static final int STRIPES = 1024;
+
+    private final Cache notesCache;
+    private final Cache categoriesCache;
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+
+    public CacheInvalidator(CacheManager cacheManager) {
+        this.notesCache = cacheManager.getCache(CacheConfig.NOTES);
+        this.categoriesCache = cacheManager.getCache(CacheConfig.CATEGORIES);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNoteChanged(NoteChangedEvent event) {
+        evict(notesCache, event.noteId());
+        if (event.categoryId() != null) {
+            evict(categoriesCache, event.categoryId());
+        }
+        if (event.previousCategoryId() != null && !event.previousCategoryId().equals(event.categoryId())) {
+            evict(categoriesCache, event.previousCategoryId());
+        }
+    }
+
+    public void evictCategory(Long categoryId) {
+        evict(categoriesCache, categoryId);
+    }
+
+    // odczytac przed siegnieciem do bazy po wartosc dla putIfCurrent
+    long generation(Long id) {
+        return generations.get(stripe(id));
+    }
+
+    // najpierw put, potem sprawdzenie licznika: uniewaznienie w trakcie odczytu z bazy zostaje wykryte tutaj,
+    // a uniewaznienie po sprawdzeniu usuwa juz zapisany wpis samo
+    void putIfCurrent(Cache cache, Long id, Object value, long generation) {
+        cache.put(id, value);
+        if (generations.get(stripe(id)) != generation) {
+            cache.evict(id);
+        }
+    }
+
+    private void evict(Cache cache, Long id) {
+        generations.incrementAndGet(stripe(id));
+        cache.evict(id);
+    }
+
+    private static int stripe(Long id) {
+        return Math.floorMod(id.hashCode(), STRIPES);
+    }
+}
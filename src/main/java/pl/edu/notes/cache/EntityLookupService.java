@@ -0,0 +1,82 @@
+package pl.edu.notes.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.edu.notes.model.Category;
+import pl.edu.notes.model.Note;
+import pl.edu.notes.repository.CategoryRepository;
+import pl.edu.notes.repository.NoteRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+// Odczyt pojedynczych encji przez cache (read-through):
+// trafienie w cache nie dotyka bazy, chybienie czyta z repozytorium i zapisuje wynik w cache
+// uzywane tylko przez endpointy GET - sciezki zapisu czytaja encje prosto z repozytorium,
+// zeby nigdy nie modyfikowac obiektu wspoldzielonego przez cache
+// zapis do cache przez CacheInvalidator.putIfCurrent - wynik odczytu, ktory minal sie z zapisem, nie trafia do cache
+// brak encji nie jest cache'owany
+@Service
+public class EntityLookupService {
+
+    private final NoteRepository noteRepository;
+    private final CategoryRepository categoryRepository;
+    private final CacheInvalidator cacheInvalidator;
+    private final Cache notesCache;
+    private final Cache categoriesCache;
+    // transakcja tylko przy chybieniu - trafienie nie pobiera polaczenia z puli
+    private final TransactionTemplate readOnlyTransaction;
+
+    public EntityLookupService(NoteRepository noteRepository, CategoryRepository categoryRepository,
+                               CacheInvalidator cacheInvalidator, CacheManager cacheManager,
+                               PlatformTransactionManager transactionManager) {
+        this.noteRepository = noteRepository;
+        this.categoryRepository = categoryRepository;
+        this.cacheInvalidator = cacheInvalidator;
+        this.notesCache = cacheManager.getCache(CacheConfig.NOTES);
+        this.categoriesCache = cacheManager.getCache(CacheConfig.CATEGORIES);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // dluga tresc (NoteBody) jest LAZY - ladujemy ja tutaj, w transakcji,
+    // bo serializacja obiektu z cache odbywa sie juz poza sesja Hibernate
+    public Optional<Note> findNote(Long id) {
+        Note cached = notesCache.get(id, Note.class);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long generation = cacheInvalidator.generation(id);
+        Optional<Note> note = readOnlyTransaction.execute(status -> {
+            Optional<Note> found = noteRepository.findById(id);
+            found.ifPresent(Note::getContent);
+            return found;
+        });
+        note.ifPresent(n -> cacheInvalidator.putIfCurrent(notesCache, id, n, generation));
+        return note;
+    }
+
+    // w cache kategoria razem z notatkami - zmiana notatki usuwa jej kategorie z cache (CacheInvalidator)
+    // chybienie: jedno zapytanie po idx_notes_category_id, dlugie tresci paczkami (@BatchSize)
+    public Optional<Category> findCategory(Long id) {
+        Category cached = categoriesCache.get(id, Category.class);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long generation = cacheInvalidator.generation(id);
+        Optional<Category> category = readOnlyTransaction.execute(status -> categoryRepository.findById(id)
+                .map(found -> {
+                    List<Note> notes = noteRepository.findByCategoryIdOrderById(id);
+                    notes.forEach(Note::getContent);
+                    Category assembled = new Category(found.getName());
+                    assembled.setId(found.getId());
+                    assembled.setNotes(notes);
+                    return assembled;
+                }));
+        category.ifPresent(c -> cacheInvalidator.putIfCurrent(categoriesCache, id, c, generation));
+        return category;
+    }
+}
@@ -0,0 +1,43 @@
+package pl.edu.notes.controller;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/cache")
+public class CacheController {
+
+    private final CacheManager cacheManager;
+
+    public CacheController(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    // GET /api/cache/stats - liczniki trafien, chybien i usuniec dla kazdego cache
+    @GetMapping("/stats")
+    public Map<String, CacheStatsView> getStats() {
+        Map<String, CacheStatsView> stats = new LinkedHashMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            if (cacheManager.getCache(name) instanceof CaffeineCache cache) {
+                CacheStats cacheStats = cache.getNativeCache().stats();
+                stats.put(name, new CacheStatsView(
+                        cache.getNativeCache().estimatedSize(),
+                        cacheStats.hitCount(),
+                        cacheStats.missCount(),
+                        cacheStats.hitRate(),
+                        cacheStats.evictionCount()));
+            }
+        }
+        return stats;
+    }
+
+    public record CacheStatsView(long size, long hits, long misses, double hitRate, long evictions) {
+    }
+}
@@ -1,49 +1,121 @@
 package pl.edu.notes.controller;
 
 import jakarta.validation.Valid;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import pl.edu.notes.cache.CacheInvalidator;
+import pl.edu.notes.cache.EntityLookupService;
+import pl.edu.notes.dto.CategoryStats;
+import pl.edu.notes.dto.CategoryView;
 import pl.edu.notes.model.Category;
+import pl.edu.notes.model.Note;
+import pl.edu.notes.ratelimit.EndpointClass;
+import pl.edu.notes.ratelimit.RateLimit;
 import pl.edu.notes.repository.CategoryRepository;
+import pl.edu.notes.repository.NoteRepository;
+import pl.edu.notes.service.CategoryStatsService;
+import pl.edu.notes.service.NoteDeletionService;
+import pl.edu.notes.service.NoteWriteBehindService;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/categories")
 public class CategoryController {
 
     private final CategoryRepository categoryRepository;
+    private final NoteRepository noteRepository;
+    private final EntityLookupService entityLookupService;
+    private final CacheInvalidator cacheInvalidator;
+    private final NoteDeletionService noteDeletionService;
+    private final CategoryStatsService categoryStatsService;
+    private final Optional<NoteWriteBehindService> writeBehind;
 
-    public CategoryController(CategoryRepository categoryRepository) {
+    public CategoryController(CategoryRepository categoryRepository, NoteRepository noteRepository,
+                              EntityLookupService entityLookupService, CacheInvalidator cacheInvalidator,
+                              NoteDeletionService noteDeletionService, CategoryStatsService categoryStatsService,
+                              Optional<NoteWriteBehindService> writeBehind) {
         this.categoryRepository = categoryRepository;
+        this.noteRepository = noteRepository;
+        this.entityLookupService = entityLookupService;
+        this.cacheInvalidator = cacheInvalidator;
+        this.noteDeletionService = noteDeletionService;
+        this.categoryStatsService = categoryStatsService;
+        this.writeBehind = writeBehind;
     }
 
+    // dwa zapytania niezaleznie od liczby kategorii: kategorie + notatki wszystkich kategorii
+    // (zamiast osobnego SELECT listy notatek dla kazdej kategorii podczas serializacji)
+    // ETag ze skrotu kategorii oraz id i wersji ich notatek - niezmieniona lista daje 304 bez tresci
+    @RateLimit(EndpointClass.LIST)
     @GetMapping
-    public List<Category> getAllCategories() {
-        return categoryRepository.findAll();
+    public ResponseEntity<List<CategoryView>> getAllCategories() {
+        Map<Long, List<CategoryView.NoteItem>> notesByCategory = noteRepository.findAllCategoryItems().stream()
+                .collect(Collectors.groupingBy(CategoryView.NoteItem::categoryId));
+        List<CategoryView> categories = categoryRepository.findAllSummaries().stream()
+                .map(c -> new CategoryView(c.id(), c.name(), notesByCategory.getOrDefault(c.id(), List.of())))
+                .toList();
+
+        ETags.Fingerprint fingerprint = ETags.fingerprint();
+        for (CategoryView category : categories) {
+            fingerprint.add(category.id(), category.name());
+            for (CategoryView.NoteItem note : category.notes()) {
+                fingerprint.add(note.id(), note.version());
+            }
+        }
+        return ResponseEntity.ok().eTag(fingerprint.toETag()).body(categories);
+    }
+
+    // GET /api/categories/stats - liczba notatek w kazdej kategorii z licznikow w pamieci
+    // jedno zapytanie o kategorie, bez czytania notatek
+    @GetMapping("/stats")
+    public List<CategoryStats> getCategoryStats() {
+        return categoryStatsService.stats();
     }
 
+    // odczyt przez cache - usuniecie kategorii uniewaznia wpis ponizej w deleteCategory
     @GetMapping("/{id}")
     public ResponseEntity<Category> getCategoryById(@PathVariable Long id) {
-        return categoryRepository.findById(id)
-                .map(ResponseEntity::ok)
+        return entityLookupService.findCategory(id)
+                .map(category -> ResponseEntity.ok().eTag(categoryETag(category)).body(category))
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // nazwa usunietej kategorii jest zajeta, dopoki NotePurgeService jej nie wyczysci
     @PostMapping
     public ResponseEntity<Category> createCategory(@Valid @RequestBody Category category) {
-        Category saved = categoryRepository.save(category);
-        return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+        try {
+            Category saved = categoryRepository.save(category);
+            return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+        } catch (DataIntegrityViolationException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Kategoria o tej nazwie już istnieje");
+        }
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteCategory(@PathVariable Long id) {
-        return categoryRepository.findById(id)
-                .map(category -> {
-                    categoryRepository.delete(category);
-                    return ResponseEntity.noContent().<Void>build();
-                })
-                .orElse(ResponseEntity.notFound().build());
+        // notatki czekajace w buforze write-behind musza trafic do bazy przed oznaczeniem notatek kategorii
+        writeBehind.ifPresent(NoteWriteBehindService::flush);
+        // kategoria i jej notatki oznaczone jako usuniete dwoma UPDATE, wiersze usuwa w tle NotePurgeService
+        // notatki kategorii znikaja z cache przez NoteChangedEvent i dostaja nagrobki dla feedu zmian
+        if (!noteDeletionService.deleteCategory(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        cacheInvalidator.evictCategory(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    private static String categoryETag(Category category) {
+        ETags.Fingerprint fingerprint = ETags.fingerprint().add(category.getId(), category.getName());
+        for (Note note : category.getNotes()) {
+            fingerprint.add(note.getId(), note.getVersion());
+        }
+        return fingerprint.toETag();
     }
 }
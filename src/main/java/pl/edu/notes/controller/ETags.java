@@ -0,0 +1,87 @@
+package pl.edu.notes.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.HexFormat;
+
+// ETagi dla odpowiedzi API
+// - pojedyncza notatka: silny "id-wersja" - kolumna @Version zmienia sie przy kazdym zapisie notatki,
+//   If-Match (PUT) wymaga silnego ETagu
+// - listy i kategorie: slaby W/"..." ze skrotu SHA-256 z id i wersji kazdej notatki (plus pola samej listy),
+//   liczony z danych pobranych z bazy, wiec przy 304 odpowiedz nie jest serializowana do JSON
+//   slaby, bo Tomcat nie kompresuje odpowiedzi z silnym ETagiem (server.compression), a If-None-Match
+//   porownuje ETagi slabo, wiec 304 dziala tak samo
+final class ETags {
+
+    private ETags() {}
+
+    static String forNote(Long id, Long version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    // Last-Modified - updatedAt jest zapisywany w strefie czasowej serwera
+    static ZonedDateTime lastModified(LocalDateTime updatedAt) {
+        return updatedAt.atZone(ZoneId.systemDefault());
+    }
+
+    // If-Match: "*" albo lista ETagow oddzielonych przecinkami; slabe ETagi (W/"...") nigdy nie pasuja
+    static boolean matches(String ifMatch, String etag) {
+        for (String candidate : ifMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // wersja z pierwszego ETagu notatki ("id-wersja") w If-Match; -1 - zaden ETag nie dotyczy tej notatki
+    static long versionFor(String ifMatch, Long id) {
+        String prefix = "\"" + id + "-";
+        for (String candidate : ifMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith(prefix) && value.endsWith("\"") && value.length() > prefix.length() + 1) {
+                try {
+                    return Long.parseLong(value.substring(prefix.length(), value.length() - 1));
+                } catch (NumberFormatException e) {
+                    // nie nasz ETag - sprawdzamy kolejny
+                }
+            }
+        }
+        return -1;
+    }
+
+    static Fingerprint fingerprint() {
+        return new Fingerprint();
+    }
+
+    static final class Fingerprint {
+
+        private final MessageDigest digest;
+
+        private Fingerprint() {
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        Fingerprint add(Object... values) {
+            for (Object value : values) {
+                digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+                // separator - zeby ("1", "23") i ("12", "3") dawaly rozne skroty
+                digest.update((byte) 0);
+            }
+            return this;
+        }
+
+        String toETag() {
+            return "W/\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+        }
+    }
+}
@@ -1,88 +1,531 @@
 package pl.edu.notes.controller;
 
 import jakarta.validation.Valid;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import pl.edu.notes.cache.EntityLookupService;
+import pl.edu.notes.dto.BatchResult;
+import pl.edu.notes.dto.CategoryCount;
+import pl.edu.notes.dto.ChangePage;
+import pl.edu.notes.dto.ImportProgress;
+import pl.edu.notes.dto.ImportResult;
+import pl.edu.notes.dto.NoteCursor;
+import pl.edu.notes.dto.NoteField;
+import pl.edu.notes.dto.NoteFields;
+import pl.edu.notes.dto.NotePage;
+import pl.edu.notes.dto.NotePatch;
+import pl.edu.notes.dto.NoteQuery;
+import pl.edu.notes.dto.NoteSort;
+import pl.edu.notes.dto.NoteSummary;
+import pl.edu.notes.dto.NoteView;
+import pl.edu.notes.dto.SearchResultPage;
+import pl.edu.notes.dto.TitleSuggestion;
 import pl.edu.notes.model.Category;
 import pl.edu.notes.model.Note;
+import pl.edu.notes.ratelimit.EndpointClass;
+import pl.edu.notes.ratelimit.RateLimit;
+import pl.edu.notes.replica.NoteReadReplica;
 import pl.edu.notes.repository.CategoryRepository;
 import pl.edu.notes.repository.NoteRepository;
+import pl.edu.notes.search.NoteSearchIndex;
+import pl.edu.notes.search.TitleSuggestIndex;
+import pl.edu.notes.service.NoteBatchService;
+import pl.edu.notes.service.NoteDeletionService;
+import pl.edu.notes.service.NoteExportService;
+import pl.edu.notes.service.NoteImportService;
+import pl.edu.notes.service.NotePatchService;
+import pl.edu.notes.service.NoteStreamingService;
+import pl.edu.notes.service.NoteSyncService;
+import pl.edu.notes.service.NoteWriteBehindService;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/notes")
 public class NoteController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
     private final NoteRepository noteRepository;
     private final CategoryRepository categoryRepository;
+    private final NoteStreamingService noteStreamingService;
+    private final NoteSearchIndex searchIndex;
+    private final TitleSuggestIndex suggestIndex;
+    private final EntityLookupService entityLookupService;
+    private final NoteBatchService noteBatchService;
+    private final NoteDeletionService noteDeletionService;
+    private final NoteSyncService noteSyncService;
+    private final NoteExportService noteExportService;
+    private final NoteImportService noteImportService;
+    private final NotePatchService notePatchService;
+    // obecny tylko przy notes.write-behind.enabled=true
+    private final Optional<NoteWriteBehindService> writeBehind;
+    // obecna tylko przy notes.read-replica.enabled=true
+    private final Optional<NoteReadReplica> readReplica;
 
-    public NoteController(NoteRepository noteRepository, CategoryRepository categoryRepository) {
+    public NoteController(NoteRepository noteRepository, CategoryRepository categoryRepository,
+                          NoteStreamingService noteStreamingService,
+                          NoteSearchIndex searchIndex, TitleSuggestIndex suggestIndex,
+                          EntityLookupService entityLookupService, NoteBatchService noteBatchService,
+                          NoteDeletionService noteDeletionService, NoteSyncService noteSyncService,
+                          NoteExportService noteExportService, NoteImportService noteImportService,
+                          NotePatchService notePatchService, Optional<NoteWriteBehindService> writeBehind,
+                          Optional<NoteReadReplica> readReplica) {
         this.noteRepository = noteRepository;
         this.categoryRepository = categoryRepository;
+        this.noteStreamingService = noteStreamingService;
+        this.searchIndex = searchIndex;
+        this.suggestIndex = suggestIndex;
+        this.entityLookupService = entityLookupService;
+        this.noteBatchService = noteBatchService;
+        this.noteDeletionService = noteDeletionService;
+        this.noteSyncService = noteSyncService;
+        this.noteExportService = noteExportService;
+        this.noteImportService = noteImportService;
+        this.notePatchService = notePatchService;
+        this.writeBehind = writeBehind;
+        this.readReplica = readReplica;
     }
 
+    // projekcje NoteView - jedno zapytanie SQL niezaleznie od liczby kategorii
+    // ETag z id i wersji notatek - przy If-None-Match zgodnym z aktualna lista Spring zwraca 304 bez tresci
+    @RateLimit(EndpointClass.LIST)
     @GetMapping
-    public List<Note> getAllNotes() {
-        return noteRepository.findAll();
+    public ResponseEntity<List<NoteView>> getAllNotes() {
+        List<NoteView> notes = noteRepository.findAllViews();
+        return ResponseEntity.ok().eTag(listETag(notes).toETag()).body(notes);
+    }
+
+    // GET /api/notes?fields=title,category,updatedAt (albo fields=summary) - tylko wybrane pola notatki
+    // w SELECT trafiaja tylko wybrane kolumny - lista bez content nie czyta ani nie przesyla tresci
+    @RateLimit(EndpointClass.LIST)
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<NoteFields>> getAllNotesFields(@RequestParam String fields) {
+        Set<NoteField> selected = parseFields(fields);
+        List<NoteFields> notes = noteRepository.findAllFields(selected);
+        return ResponseEntity.ok().eTag(fieldsETag(selected, notes).toETag()).body(notes);
+    }
+
+    // GET /api/notes z naglowkiem Accept: application/x-ndjson - strumieniowanie wszystkich notatek
+    // wiersze trafiaja do odpowiedzi na biezaco, zuzycie pamieci nie zalezy od rozmiaru tabeli
+    @RateLimit(EndpointClass.BULK)
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllNotes() {
+        StreamingResponseBody body = noteStreamingService::writeNdjson;
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    // GET /api/notes/export?format=ndjson|csv - wszystkie notatki do pliku, z kategoria po nazwie i cala trescia
+    // plik mozna wczytac przez POST /api/notes/import, takze w innej instancji
+    @RateLimit(EndpointClass.BULK)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportNotes(@RequestParam(defaultValue = "ndjson") String format) {
+        flushPendingWrites();
+        return switch (format) {
+            case "ndjson" -> exportResponse(MediaType.APPLICATION_NDJSON, "notes.ndjson",
+                    noteExportService::writeNdjson);
+            case "csv" -> exportResponse(TEXT_CSV, "notes.csv", noteExportService::writeCsv);
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Nieznany format: " + format);
+        };
+    }
+
+    // POST /api/notes/import z Content-Type application/x-ndjson albo text/csv - plik czytany strumieniowo
+    // 200 - caly plik przeczytany (bledne rekordy w errors), 400 - import przerwany bledem skladni pliku
+    @RateLimit(EndpointClass.BULK)
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ImportResult> importNdjson(InputStream body) throws IOException {
+        return importResponse(noteImportService.importNdjson(body));
+    }
+
+    @RateLimit(EndpointClass.BULK)
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ImportResult> importCsv(InputStream body) throws IOException {
+        return importResponse(noteImportService.importCsv(body));
+    }
+
+    // GET /api/notes/import - postep importow w toku
+    @GetMapping("/import")
+    public List<ImportProgress> getImports() {
+        return noteImportService.progress();
+    }
+
+    // GET /api/notes/page?size=20&cursor=... - paginacja keyset, domyslnie od ostatnio zmienionych notatek
+    // filtry (opcjonalne): categoryId, createdFrom/createdTo, updatedFrom/updatedTo - ISO-8601, zakres [from, to)
+    // sort=updatedAt,desc (domyslnie) | updatedAt,asc | createdAt,desc | createdAt,asc
+    // cursor pochodzi z pola nextCursor poprzedniej strony i dziala z tymi samymi filtrami i sortowaniem
+    // (kursor z innego zapytania - 400),
+    // rozmiar strony ograniczony do MAX_PAGE_SIZE
+    @RateLimit(EndpointClass.LIST)
+    @GetMapping("/page")
+    public ResponseEntity<NotePage<NoteView>> getNotesPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedTo,
+            @RequestParam(defaultValue = NoteSort.DEFAULT) String sort) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        NoteQuery query = new NoteQuery(categoryId, createdFrom, createdTo, updatedFrom, updatedTo, parseSort(sort));
+        NoteCursor after = cursor != null ? decodeCursor(cursor, query.cursorScope()) : null;
+        // pobieramy jeden wiersz wiecej - w ten sposob wiadomo czy istnieje kolejna strona
+        List<NoteView> notes = noteRepository.findPage(query, after, pageSize + 1);
+
+        NotePage<NoteView> page;
+        if (notes.size() <= pageSize) {
+            page = new NotePage<>(notes, null);
+        } else {
+            List<NoteView> items = notes.subList(0, pageSize);
+            NoteView last = items.get(pageSize - 1);
+            page = new NotePage<>(items, new NoteCursor(query.sort().positionOf(last), last.id(), query.cursorScope()).encode());
+        }
+        String etag = listETag(page.items()).add(page.nextCursor()).toETag();
+        return ResponseEntity.ok().eTag(etag).body(page);
+    }
+
+    // GET /api/notes/recent?categoryId=3&limit=20 - ostatnio zmienione notatki (bez tresci), wszystkie albo z kategorii
+    // przy notes.read-replica.enabled=true odpowiedz z repliki w pamieci (NoteReadReplica), bez JPA i bez bazy
+    // ETag z id i updatedAt - replika nie trzyma wersji, a updatedAt zmienia sie przy kazdym zapisie notatki
+    @RateLimit(EndpointClass.LIST)
+    @GetMapping("/recent")
+    public ResponseEntity<List<NoteSummary>> getRecentNotes(@RequestParam(required = false) Long categoryId,
+                                                            @RequestParam(defaultValue = "20") int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<NoteSummary> notes = readReplica.map(replica -> replica.recent(categoryId, size))
+                .orElseGet(() -> categoryId == null
+                        ? noteRepository.findRecentSummaries(Limit.of(size))
+                        : noteRepository.findRecentSummariesByCategory(categoryId, Limit.of(size)));
+        ETags.Fingerprint fingerprint = ETags.fingerprint();
+        for (NoteSummary note : notes) {
+            fingerprint.add(note.id(), note.updatedAt());
+        }
+        return ResponseEntity.ok().eTag(fingerprint.toETag()).body(notes);
     }
 
+    // GET /api/notes/count?categoryId=3 - liczba notatek, wszystkich albo w kategorii (z repliki, jesli wlaczona)
+    @GetMapping("/count")
+    public CategoryCount countNotes(@RequestParam(required = false) Long categoryId) {
+        long count = readReplica.map(replica -> replica.count(categoryId))
+                .orElseGet(() -> categoryId == null ? noteRepository.count() : noteRepository.countByCategoryId(categoryId));
+        return new CategoryCount(categoryId, count);
+    }
+
+    // GET /api/notes/changes?cursor=...&size=100 - feed zmian do synchronizacji klientow
+    // zwraca notatki utworzone / zmienione (UPSERT) i usuniete (DELETE) po kursorze, od najstarszych
+    // bez kursora: od poczatku albo od czasu "since" (ISO-8601, np. 2026-01-01T12:00:00)
+    @RateLimit(EndpointClass.LIST)
+    @GetMapping("/changes")
+    public ChangePage getChanges(@RequestParam(required = false) String cursor,
+                                 @RequestParam(required = false)
+                                 @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+                                 @RequestParam(defaultValue = "100") int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        NoteCursor after;
+        if (cursor != null) {
+            after = decodeCursor(cursor, null);
+        } else if (since != null) {
+            after = new NoteCursor(since, 0L);
+        } else {
+            after = NoteSyncService.START;
+        }
+        return noteSyncService.changesAfter(after, pageSize);
+    }
+
+    // odczyt przez cache - zapisy i usuniecia uniewaznia CacheInvalidator
+    // ETag "id-wersja" i Last-Modified z updatedAt - przy If-None-Match / If-Modified-Since
+    // zgodnym z aktualna wersja Spring zwraca 304 bez serializacji notatki
+    // w trybie write-behind najpierw stan czekajacy na zapis - klient widzi swoja zmiane od razu
     @GetMapping("/{id}")
     public ResponseEntity<Note> getNoteById(@PathVariable Long id) {
-        return noteRepository.findById(id)
-                .map(ResponseEntity::ok)
+        return writeBehind.flatMap(service -> service.findPending(id))
+                .or(() -> entityLookupService.findNote(id))
+                .map(note -> ResponseEntity.ok()
+                        .eTag(ETags.forNote(note.getId(), note.getVersion()))
+                        .lastModified(ETags.lastModified(note.getUpdatedAt()))
+                        .body(note))
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // w trybie write-behind 202 Accepted - notatka ma juz id, do bazy trafi przy najblizszym zrzucie bufora
+    // (poza notatkami z dluga trescia - te zapisujemy od razu)
     @PostMapping
     public ResponseEntity<Note> createNote(@Valid @RequestBody Note note) {
+        if (writeBehind.isPresent() && !note.isLargeContent()) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(writeBehind.get().create(note));
+        }
+        note.setCategory(resolveCategory(note.getCategory()));
         Note savedNote = noteRepository.save(note);
         return ResponseEntity.status(HttpStatus.CREATED).body(savedNote);
     }
 
+    // naglowek If-Match (opcjonalny) - ETag notatki z poprzedniego odczytu
+    // jesli notatka zmienila sie w miedzyczasie, zwracamy 412 zamiast nadpisywac cudza zmiane
+    // w trybie write-behind zmiana bez If-Match trafia do bufora (202), z If-Match albo z dluga trescia -
+    // synchronicznie po zrzucie bufora
     @PutMapping("/{id}")
-    public ResponseEntity<Note> updateNote(@PathVariable Long id, @Valid @RequestBody Note noteDetails) {
+    public ResponseEntity<Note> updateNote(@PathVariable Long id, @Valid @RequestBody Note noteDetails,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (writeBehind.isPresent() && ifMatch == null && !noteDetails.isLargeContent()) {
+            return writeBehind.get().update(id, noteDetails)
+                    .map(note -> ResponseEntity.status(HttpStatus.ACCEPTED)
+                            .eTag(ETags.forNote(note.getId(), note.getVersion()))
+                            .body(note))
+                    .orElse(ResponseEntity.notFound().build());
+        }
+        flushPendingWrites();
+        Category category = resolveCategory(noteDetails.getCategory());
         return noteRepository.findById(id)
                 .map(note -> {
+                    if (ifMatch != null && !ETags.matches(ifMatch, ETags.forNote(note.getId(), note.getVersion()))) {
+                        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).<Note>build();
+                    }
                     note.setTitle(noteDetails.getTitle());
                     note.setContent(noteDetails.getContent());
-                    note.setCategory(noteDetails.getCategory());
+                    note.setCategory(category);
                     Note updatedNote = noteRepository.save(note);
-                    return ResponseEntity.ok(updatedNote);
+                    return ResponseEntity.ok()
+                            .eTag(ETags.forNote(updatedNote.getId(), updatedNote.getVersion()))
+                            .body(updatedNote);
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // PATCH /api/notes/{id} - zmienia tylko pola podane w JSON (title, content, categoryId)
+    // jedna instrukcja UPDATE z warunkiem na wersji (NotePatchService), bez odczytu notatki przed zapisem
+    // wersja z naglowka If-Match (ETag notatki) albo z pola "version"; bez wersji - 428,
+    // notatka zmieniona w miedzyczasie - 409; w odpowiedzi notatka po zmianie (jak na listach) i nowy ETag
+    @PatchMapping("/{id}")
+    public ResponseEntity<NoteView> patchNote(@PathVariable Long id, @Valid @RequestBody NotePatch patch,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (patch.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Brak pól do zmiany");
+        }
+        Long expectedVersion = patch.getVersion();
+        if (ifMatch != null) {
+            // "*" - dowolna wersja istniejacej notatki
+            if (ifMatch.trim().equals("*")) {
+                expectedVersion = null;
+            } else {
+                long version = ETags.versionFor(ifMatch, id);
+                if (version < 0) {
+                    return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+                }
+                expectedVersion = version;
+            }
+        } else if (expectedVersion == null) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_REQUIRED,
+                    "Podaj wersję notatki: nagłówek If-Match albo pole version");
+        }
+        flushPendingWrites();
+        try {
+            return notePatchService.patch(id, expectedVersion, patch)
+                    .map(note -> ResponseEntity.ok()
+                            .eTag(ETags.forNote(note.id(), note.version()))
+                            .body(note))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (DataIntegrityViolationException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Kategoria nie istnieje");
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteNote(@PathVariable Long id) {
-        return noteRepository.findById(id)
-                .map(note -> {
-                    noteRepository.delete(note);
-                    return ResponseEntity.noContent().<Void>build();
-                })
-                .orElse(ResponseEntity.notFound().build());
+        flushPendingWrites();
+        // jeden UPDATE oznaczajacy notatke jako usunieta, bez odczytu notatki - wiersz usuwa w tle NotePurgeService
+        return noteDeletionService.deleteNote(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    // POST /api/notes/batch - tworzy wiele notatek naraz, kazda pozycja ma wlasny wynik
+    @RateLimit(EndpointClass.BULK)
+    @PostMapping("/batch")
+    public BatchResult createNotes(@RequestBody List<Note> notes) {
+        checkBatchSize(notes);
+        flushPendingWrites();
+        return BatchResult.of(noteBatchService.createAll(notes));
+    }
+
+    // PUT /api/notes/batch - aktualizuje wiele notatek naraz, kazda notatka musi miec id
+    @RateLimit(EndpointClass.BULK)
+    @PutMapping("/batch")
+    public BatchResult updateNotes(@RequestBody List<Note> notes) {
+        checkBatchSize(notes);
+        flushPendingWrites();
+        return BatchResult.of(noteBatchService.updateAll(notes));
+    }
+
+    // DELETE /api/notes/batch - usuwa notatki o podanych id, w ciele zadania lista id
+    @RateLimit(EndpointClass.BULK)
+    @DeleteMapping("/batch")
+    public BatchResult deleteNotes(@RequestBody List<Long> ids) {
+        checkBatchSize(ids);
+        flushPendingWrites();
+        return BatchResult.of(noteBatchService.deleteAll(ids));
     }
 
     // PUT /api/notes/{noteId}/category/{categoryId} - przypisuje kategorie do notatki
+    // jedna instrukcja UPDATE (NotePatchService) zamiast odczytu notatki i kategorii przed zapisem;
+    // brak kategorii wykrywa klucz obcy
+    // w odpowiedzi cala notatka (jak przy GET /{id}, z pelna dluga trescia) - odczytana po zmianie
     @PutMapping("/{noteId}/category/{categoryId}")
     public ResponseEntity<Note> assignCategory(@PathVariable Long noteId, @PathVariable Long categoryId) {
-        return noteRepository.findById(noteId)
-                .map(note -> {
-                    Category category = categoryRepository.findById(categoryId)
-                            .orElse(null);
-                    if (category == null) {
-                        return ResponseEntity.notFound().<Note>build();
-                    }
-                    note.setCategory(category);
-                    Note updated = noteRepository.save(note);
-                    return ResponseEntity.ok(updated);
-                })
-                .orElse(ResponseEntity.notFound().build());
+        flushPendingWrites();
+        try {
+            return notePatchService.patch(noteId, null, NotePatch.category(categoryId))
+                    .flatMap(patched -> noteRepository.findById(noteId))
+                    .map(note -> ResponseEntity.ok()
+                            .eTag(ETags.forNote(note.getId(), note.getVersion()))
+                            .body(note))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.notFound().build();
+        }
     }
 
+    @RateLimit(EndpointClass.SEARCH)
     @GetMapping("/search")
-    public List<Note> searchNotes(@RequestParam String title) {
-        return noteRepository.findByTitleContainingIgnoreCase(title);
+    public List<NoteView> searchNotes(@RequestParam String title) {
+        return noteRepository.searchViewsByTitle(title);
+    }
+
+    // GET /api/notes/search?title=...&fields=... - jak wyzej, tylko z wybranymi polami
+    @RateLimit(EndpointClass.SEARCH)
+    @GetMapping(value = "/search", params = "fields")
+    public List<NoteFields> searchNotesFields(@RequestParam String title, @RequestParam String fields) {
+        return noteRepository.searchFieldsByTitle(title, parseFields(fields));
+    }
+
+    // GET /api/notes/search/text?q=...&page=0&size=20 - wyszukiwanie pelnotekstowe w tytule i tresci
+    // ranking BM25 liczony w pamieci przez NoteSearchIndex, z bazy pobierane sa tylko notatki z danej strony
+    @RateLimit(EndpointClass.SEARCH)
+    @GetMapping("/search/text")
+    public SearchResultPage<NoteView> searchNotesFullText(@RequestParam String q,
+                                                      @RequestParam(defaultValue = "0") int page,
+                                                      @RequestParam(defaultValue = "20") int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+        NoteSearchIndex.SearchHits hits = searchIndex.search(q, pageNumber, pageSize);
+
+        // zapytanie IN nie zachowuje kolejnosci - ukladamy notatki z powrotem wedlug rankingu
+        Map<Long, Integer> rank = new HashMap<>();
+        for (int i = 0; i < hits.noteIds().size(); i++) {
+            rank.put(hits.noteIds().get(i), i);
+        }
+        List<NoteView> notes = hits.noteIds().isEmpty()
+                ? List.of()
+                : noteRepository.findViewsByIdIn(hits.noteIds()).stream()
+                        .sorted(Comparator.comparing(note -> rank.get(note.id())))
+                        .toList();
+        return new SearchResultPage<>(hits.total(), pageNumber, pageSize, notes);
+    }
+
+    // GET /api/notes/suggest?prefix=...&limit=10 - podpowiedzi tytulow do pola wyszukiwania
+    // odpowiedz w calosci z pamieci (TitleSuggestIndex), bez zapytania do bazy; najwyzej 10 wynikow
+    @GetMapping("/suggest")
+    public List<TitleSuggestion> suggestTitles(@RequestParam(defaultValue = "") String prefix,
+                                               @RequestParam(defaultValue = "10") int limit) {
+        return suggestIndex.suggest(prefix, limit);
+    }
+
+    // zapis notatki zmienionej rownolegle przez inne zadanie - @Version w klauzuli WHERE nie pasuje
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleConcurrentUpdate(OptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("Notatka została zmieniona przez inne żądanie");
+    }
+
+    // kategoria z bazy zamiast tej z JSON - usunieta (jeszcze nie wyczyszczona) kategoria to dla klienta brak kategorii
+    private Category resolveCategory(Category category) {
+        if (category == null || category.getId() == null) {
+            return null;
+        }
+        return categoryRepository.findById(category.getId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Kategoria nie istnieje"));
+    }
+
+    private static ETags.Fingerprint listETag(List<NoteView> notes) {
+        ETags.Fingerprint fingerprint = ETags.fingerprint();
+        for (NoteView note : notes) {
+            fingerprint.add(note.id(), note.version());
+        }
+        return fingerprint;
+    }
+
+    private static ResponseEntity<StreamingResponseBody> exportResponse(MediaType type, String fileName,
+                                                                        StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(type)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+
+    private static ResponseEntity<ImportResult> importResponse(ImportResult result) {
+        HttpStatus status = result.completed() ? HttpStatus.OK : HttpStatus.BAD_REQUEST;
+        return ResponseEntity.status(status).body(result);
+    }
+
+    // sciezki synchroniczne nie moga dzialac na stanie starszym niz potwierdzony juz klientowi
+    private void flushPendingWrites() {
+        writeBehind.ifPresent(NoteWriteBehindService::flush);
+    }
+
+    // ta sama lista notatek z innym zestawem pol to inna reprezentacja - inny ETag
+    private static ETags.Fingerprint fieldsETag(Set<NoteField> fields, List<NoteFields> notes) {
+        ETags.Fingerprint fingerprint = ETags.fingerprint().add(fields);
+        for (NoteFields note : notes) {
+            fingerprint.add(note.id(), note.version());
+        }
+        return fingerprint;
+    }
+
+    private static NoteSort parseSort(String sort) {
+        try {
+            return NoteSort.parse(sort);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private static Set<NoteField> parseFields(String fields) {
+        try {
+            return NoteField.parse(fields);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private void checkBatchSize(List<?> items) {
+        if (items.size() > NoteBatchService.MAX_BATCH_SIZE) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Maksymalnie " + NoteBatchService.MAX_BATCH_SIZE + " pozycji w jednym żądaniu");
+        }
+    }
+
+    private NoteCursor decodeCursor(String cursor, String scope) {
+        try {
+            return NoteCursor.decode(cursor, scope);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 }
@@ -0,0 +1,20 @@
+package pl.edu.notes.dto;
+
+import java.util.List;
+
+// Wynik jednej pozycji z operacji wsadowej
+// index - pozycja w liscie z zadania, status - kod HTTP jaki dostalaby pojedyncza operacja
+public record BatchItemResult(int index, Long id, int status, List<String> errors) {
+
+    public static BatchItemResult success(int index, Long id, int status) {
+        return new BatchItemResult(index, id, status, List.of());
+    }
+
+    public static BatchItemResult failure(int index, Long id, int status, List<String> errors) {
+        return new BatchItemResult(index, id, status, errors);
+    }
+
+    public boolean succeeded() {
+        return status < 400;
+    }
+}
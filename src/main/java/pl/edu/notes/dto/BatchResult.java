@@ -0,0 +1,12 @@
+package pl.edu.notes.dto;
+
+import java.util.List;
+
+// Odpowiedz operacji wsadowej - podsumowanie i wynik dla kazdej pozycji osobno
+public record BatchResult(int succeeded, int failed, List<BatchItemResult> items) {
+
+    public static BatchResult of(List<BatchItemResult> items) {
+        int succeeded = (int) items.stream().filter(BatchItemResult::succeeded).count();
+        return new BatchResult(succeeded, items.size() - succeeded, items);
+    }
+}
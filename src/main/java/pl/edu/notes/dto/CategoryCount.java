@@ -0,0 +1,6 @@
+package pl.edu.notes.dto;
+
+// Liczba notatek w kategorii - wynik zapytania GROUP BY category_id (przeliczenie licznikow kategorii)
+// i odpowiedz GET /api/notes/count (categoryId null - wszystkie notatki)
+public record CategoryCount(Long categoryId, long count) {
+}
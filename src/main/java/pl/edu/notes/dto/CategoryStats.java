@@ -0,0 +1,5 @@
+package pl.edu.notes.dto;
+
+// Liczba notatek w kategorii - GET /api/categories/stats
+public record CategoryStats(Long id, String name, long noteCount) {
+}
@@ -0,0 +1,22 @@
+package pl.edu.notes.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Kategoria z lista notatek do odczytu - ten sam ksztalt JSON co encja Category
+// skladana z dwoch zapytan (kategorie + notatki) zamiast leniwego ladowania listy kazdej kategorii
+public record CategoryView(Long id, String name, List<NoteItem> notes) {
+
+    // notatka na liscie kategorii - bez pola category, tak jak przy @JsonIgnoreProperties("category")
+    // przy dlugiej tresci content to jej poczatek, jak w NoteView
+    public record NoteItem(@JsonIgnore Long categoryId, Long id, String title, String content, boolean largeContent,
+                           LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
+
+        public NoteItem(Long categoryId, Long id, String title, String content, Long bodyId,
+                        LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
+            this(categoryId, id, title, content, bodyId != null, createdAt, updatedAt, version);
+        }
+    }
+}
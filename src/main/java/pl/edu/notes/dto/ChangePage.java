@@ -0,0 +1,9 @@
+package pl.edu.notes.dto;
+
+import java.util.List;
+
+// Strona feedu zmian - zmiany od najstarszych
+// nextCursor jest zawsze ustawiony: klient zapamietuje go i przy kolejnym odpytaniu dostaje tylko nowsze zmiany
+// hasMore == true - kolejna strona jest juz dostepna, mozna pytac od razu
+public record ChangePage(List<NoteChange> changes, String nextCursor, boolean hasMore) {
+}
@@ -0,0 +1,8 @@
+package pl.edu.notes.dto;
+
+import java.time.LocalDateTime;
+
+// Postep trwajacego importu - GET /api/notes/import
+public record ImportProgress(long id, String format, LocalDateTime startedAt,
+                             long processed, long imported, long failed) {
+}
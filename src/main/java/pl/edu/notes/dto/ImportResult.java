@@ -0,0 +1,16 @@
+package pl.edu.notes.dto;
+
+import java.util.List;
+
+// Wynik importu notatek - liczniki i bledy pierwszych odrzuconych rekordow
+// error - powod przerwania importu (np. blad skladni pliku); rekordy sprzed bledu zostaja zapisane
+public record ImportResult(long imported, long failed, List<RecordError> errors, String error) {
+
+    // record - numer rekordu w pliku liczony od 1 (w CSV bez wiersza naglowka)
+    public record RecordError(long record, List<String> errors) {
+    }
+
+    public boolean completed() {
+        return error == null;
+    }
+}
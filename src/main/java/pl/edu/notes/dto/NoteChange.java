@@ -0,0 +1,21 @@
+package pl.edu.notes.dto;
+
+import java.time.LocalDateTime;
+
+// Jedna pozycja feedu zmian
+// UPSERT - notatka utworzona lub zmieniona, note zawiera jej aktualny stan
+// DELETE - notatka usunieta, note == null
+public record NoteChange(Type type, Long id, LocalDateTime changedAt, NoteView note) {
+
+    public enum Type {
+        UPSERT, DELETE
+    }
+
+    public static NoteChange upsert(NoteView note) {
+        return new NoteChange(Type.UPSERT, note.id(), note.updatedAt(), note);
+    }
+
+    public static NoteChange delete(Long id, LocalDateTime deletedAt) {
+        return new NoteChange(Type.DELETE, id, deletedAt, null);
+    }
+}
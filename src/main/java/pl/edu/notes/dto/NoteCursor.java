@@ -0,0 +1,46 @@
+package pl.edu.notes.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Objects;
+
+// Kursor do paginacji keyset - pozycja ostatniej zwroconej notatki: wartosc kolumny sortowania i id
+// (updatedAt albo createdAt dla GET /api/notes/page, czas zmiany dla feedu zmian)
+// scope - zapytanie, dla ktorego wydano kursor (NoteQuery.cursorScope); feed zmian go nie ma (null)
+// klient dostaje go jako nieprzezroczysty napis Base64 i odsyla bez zmian po kolejna strone
+public record NoteCursor(LocalDateTime position, Long id, String scope) {
+
+    private static final String SEPARATOR = "|";
+
+    public NoteCursor(LocalDateTime position, Long id) {
+        this(position, id, null);
+    }
+
+    public String encode() {
+        String raw = position + SEPARATOR + id + (scope != null ? SEPARATOR + scope : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // zwraca IllegalArgumentException gdy kursor zostal zmieniony lub uciety po stronie klienta
+    // albo pochodzi z innego zapytania (inne sortowanie lub filtry) niz expectedScope
+    public static NoteCursor decode(String cursor, String expectedScope) {
+        NoteCursor decoded;
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split("\\" + SEPARATOR, 3);
+            if (parts.length < 2) {
+                throw new IllegalArgumentException("Nieprawidłowy kursor");
+            }
+            decoded = new NoteCursor(LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]),
+                    parts.length > 2 ? parts[2] : null);
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Nieprawidłowy kursor", e);
+        }
+        if (!Objects.equals(decoded.scope(), expectedScope)) {
+            throw new IllegalArgumentException("Kursor pochodzi z innego zapytania - użyj tych samych filtrów i sortowania");
+        }
+        return decoded;
+    }
+}
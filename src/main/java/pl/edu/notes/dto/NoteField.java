@@ -0,0 +1,59 @@
+package pl.edu.notes.dto;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+// Pola notatki, ktore klient moze wybrac parametrem fields= (sparse fieldset)
+// nazwy jak w JSON notatki; id jest zwracane zawsze
+// "summary" - skrot dla widoku listy: id, category, title, updatedAt
+public enum NoteField {
+
+    ID("id"),
+    CATEGORY("category"),
+    TITLE("title"),
+    CONTENT("content"),
+    LARGE_CONTENT("largeContent"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt"),
+    VERSION("version");
+
+    public static final String SUMMARY_ALIAS = "summary";
+    public static final Set<NoteField> SUMMARY = EnumSet.of(ID, CATEGORY, TITLE, UPDATED_AT);
+
+    private final String jsonName;
+
+    NoteField(String jsonName) {
+        this.jsonName = jsonName;
+    }
+
+    public String jsonName() {
+        return jsonName;
+    }
+
+    // "title,category,updatedAt" -> {ID, CATEGORY, TITLE, UPDATED_AT}
+    // zwraca IllegalArgumentException dla nieznanego pola
+    public static Set<NoteField> parse(String fields) {
+        Set<NoteField> result = EnumSet.of(ID);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (trimmed.equals(SUMMARY_ALIAS)) {
+                result.addAll(SUMMARY);
+                continue;
+            }
+            result.add(byJsonName(trimmed));
+        }
+        return result;
+    }
+
+    private static NoteField byJsonName(String name) {
+        for (NoteField field : values()) {
+            if (field.jsonName.equals(name)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Nieznane pole: " + name);
+    }
+}
@@ -0,0 +1,10 @@
+package pl.edu.notes.dto;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Map;
+
+// Notatka z wybranymi polami (fields=) - w JSON tylko mapa values, w kolejnosci pol NoteField
+// id i version sa zawsze pobierane z bazy (ETag listy), ale version trafia do JSON tylko na zadanie
+public record NoteFields(Long id, Long version, @JsonValue Map<String, Object> values) {
+}
@@ -0,0 +1,8 @@
+package pl.edu.notes.dto;
+
+import java.util.List;
+
+// Jedna strona wynikow paginacji keyset
+// nextCursor == null oznacza ze to ostatnia strona
+public record NotePage<T>(List<T> items, String nextCursor) {
+}
@@ -0,0 +1,70 @@
+package pl.edu.notes.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import pl.edu.notes.model.Note;
+
+import java.util.Optional;
+
+// Czesciowa zmiana notatki (PATCH /api/notes/{id}) - zmieniane sa tylko pola obecne w JSON:
+// - pole nieobecne - null (bez zmiany)
+// - pole z wartoscia null - Optional.empty() (usuniecie tresci / kategorii; tytul jest wymagany)
+// klasa z setterami, a nie rekord - dla parametrow konstruktora Jackson nie odroznia braku pola od null
+// version - wersja notatki z poprzedniego odczytu (zamiast naglowka If-Match)
+public class NotePatch {
+
+    private Optional<@NotBlank(message = "Tytuł nie może być pusty")
+                     @Size(max = 100, message = "Tytuł może mieć maksymalnie 100 znaków") String> title;
+
+    private Optional<@Size(max = Note.MAX_CONTENT_LENGTH, message = "Treść może mieć maksymalnie 1000000 znaków")
+                     String> content;
+
+    private Optional<Long> categoryId;
+
+    private Long version;
+
+    public NotePatch() {}
+
+    // przypisanie kategorii (PUT /api/notes/{noteId}/category/{categoryId})
+    public static NotePatch category(Long categoryId) {
+        NotePatch patch = new NotePatch();
+        patch.setCategoryId(Optional.of(categoryId));
+        return patch;
+    }
+
+    public boolean isEmpty() {
+        return title == null && content == null && categoryId == null;
+    }
+
+    public Optional<String> getTitle() {
+        return title;
+    }
+
+    public void setTitle(Optional<String> title) {
+        this.title = title;
+    }
+
+    public Optional<String> getContent() {
+        return content;
+    }
+
+    public void setContent(Optional<String> content) {
+        this.content = content;
+    }
+
+    public Optional<Long> getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Optional<Long> categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,22 @@
+package pl.edu.notes.dto;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// Filtr i sortowanie listy notatek (GET /api/notes/page) - null oznacza brak danego warunku
+// zakresy dat polotwarte: from <= czas < to, wiec sasiednie przedzialy sie nie nakladaja
+public record NoteQuery(Long categoryId, LocalDateTime createdFrom, LocalDateTime createdTo,
+                        LocalDateTime updatedFrom, LocalDateTime updatedTo, NoteSort sort) {
+
+    // bez filtrow, od ostatnio zmienionych
+    public static NoteQuery all() {
+        return new NoteQuery(null, null, null, null, null, NoteSort.UPDATED_AT_DESC);
+    }
+
+    // zapisywany w kursorze strony: sortowanie i skrot filtrow - kursor z innego zapytania jest odrzucany,
+    // bo jego pozycja nie pasuje do innej kolumny sortowania ani innego zbioru notatek
+    public String cursorScope() {
+        return sort.name() + ":" + Integer.toHexString(
+                Objects.hash(categoryId, createdFrom, createdTo, updatedFrom, updatedTo));
+    }
+}
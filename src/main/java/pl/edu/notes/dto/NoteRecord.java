@@ -0,0 +1,16 @@
+package pl.edu.notes.dto;
+
+import java.time.LocalDateTime;
+
+// Notatka w pliku eksportu / importu (NDJSON albo CSV) - kategoria po nazwie, nie po id,
+// wiec plik da sie wczytac do innej bazy; przy imporcie liczy sie tylko category, title i content
+// content to cala tresc, takze dluga (z note_bodies)
+public record NoteRecord(Long id, String category, String title, String content,
+                         LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+    // konstruktor dla wyrazen "select new" - body to dluga tresc z note_bodies (null dla krotkiej)
+    public NoteRecord(Long id, String category, String title, String content, String body,
+                      LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, category, title, body != null ? body : content, createdAt, updatedAt);
+    }
+}
@@ -0,0 +1,55 @@
+package pl.edu.notes.dto;
+
+import java.time.LocalDateTime;
+
+// Sortowanie listy notatek parametrem sort= (GET /api/notes/page), np. "updatedAt,desc" albo "createdAt"
+// remisy rozstrzyga id w tym samym kierunku - kolejnosc jest jednoznaczna, wiec nadaje sie do paginacji keyset
+// kazdy wariant ma indeks (kolumna, id) i (category_id, kolumna, id) na tabeli notes
+public enum NoteSort {
+
+    UPDATED_AT_DESC("updatedAt", true),
+    UPDATED_AT_ASC("updatedAt", false),
+    CREATED_AT_DESC("createdAt", true),
+    CREATED_AT_ASC("createdAt", false);
+
+    public static final String DEFAULT = "updatedAt,desc";
+
+    private final String field;
+    private final boolean descending;
+
+    NoteSort(String field, boolean descending) {
+        this.field = field;
+        this.descending = descending;
+    }
+
+    // nazwa pola w JSON i w encji Note
+    public String field() {
+        return field;
+    }
+
+    public boolean descending() {
+        return descending;
+    }
+
+    // wartosc kolumny sortowania - pierwsza czesc kursora kolejnej strony
+    public LocalDateTime positionOf(NoteView note) {
+        return field.equals("createdAt") ? note.createdAt() : note.updatedAt();
+    }
+
+    // "createdAt,desc" -> CREATED_AT_DESC, bez kierunku rosnaco
+    // zwraca IllegalArgumentException dla nieznanego pola albo kierunku
+    public static NoteSort parse(String sort) {
+        String[] parts = sort.split(",", 2);
+        String field = parts[0].trim();
+        String direction = parts.length > 1 ? parts[1].trim().toLowerCase() : "asc";
+        if (!direction.equals("asc") && !direction.equals("desc")) {
+            throw new IllegalArgumentException("Nieznane sortowanie: " + sort);
+        }
+        for (NoteSort value : values()) {
+            if (value.field.equals(field) && value.descending == direction.equals("desc")) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Nieznane sortowanie: " + sort);
+    }
+}
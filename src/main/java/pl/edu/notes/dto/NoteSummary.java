@@ -0,0 +1,8 @@
+package pl.edu.notes.dto;
+
+import java.time.LocalDateTime;
+
+// Notatka na liscie ostatnio zmienionych (GET /api/notes/recent) - bez tresci i bez nazwy kategorii
+// dokladnie te kolumny, ktore trzyma NoteReadReplica, wiec odpowiedz z repliki i z bazy ma ten sam ksztalt
+public record NoteSummary(Long id, Long categoryId, String title, LocalDateTime createdAt, LocalDateTime updatedAt) {
+}
@@ -0,0 +1,30 @@
+package pl.edu.notes.dto;
+
+import pl.edu.notes.model.Note;
+
+import java.time.LocalDateTime;
+
+// Notatka do odczytu (projekcja) - budowana bezposrednio z wyniku zapytania JPQL "select new ..."
+// z jednym LEFT JOIN do kategorii, bez encji, proxy Hibernate i dodatkowych zapytan o kategorie
+// ksztalt JSON jest taki sam jak dla encji Note
+// przy dlugiej tresci (largeContent) content to tylko jej poczatek - calosc zwraca GET /api/notes/{id}
+public record NoteView(Long id, CategorySummary category, String title, String content, boolean largeContent,
+                       LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
+
+    // konstruktor dla wyrazen "select new" - kolumny kategorii przychodza osobno (null dla notatki bez kategorii)
+    // bodyId - klucz obcy note.body_id, bez zlaczenia z note_bodies
+    public NoteView(Long id, Long categoryId, String categoryName, String title, String content, Long bodyId,
+                    LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
+        this(id, categoryId != null ? new CategorySummary(categoryId, categoryName) : null,
+                title, content, bodyId != null, createdAt, updatedAt, version);
+    }
+
+    // notatka po zapisie przez encje - ten sam podglad dlugiej tresci co w zapytaniach
+    public static NoteView of(Note note) {
+        CategorySummary category = note.getCategory() != null
+                ? new CategorySummary(note.getCategory().getId(), note.getCategory().getName())
+                : null;
+        return new NoteView(note.getId(), category, note.getTitle(), note.getContentPreview(), note.isLargeContent(),
+                note.getCreatedAt(), note.getUpdatedAt(), note.getVersion());
+    }
+}
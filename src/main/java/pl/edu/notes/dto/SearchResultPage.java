@@ -0,0 +1,8 @@
+package pl.edu.notes.dto;
+
+import java.util.List;
+
+// Strona wynikow wyszukiwania pelnotekstowego, wyniki posortowane wedlug trafnosci
+// total - liczba wszystkich pasujacych notatek, page - numer strony liczony od 0
+public record SearchResultPage<T>(long total, int page, int size, List<T> items) {
+}
@@ -0,0 +1,5 @@
+package pl.edu.notes.dto;
+
+// Podpowiedz tytulu - GET /api/notes/suggest
+public record TitleSuggestion(Long id, String title) {
+}
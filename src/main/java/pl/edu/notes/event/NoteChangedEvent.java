@@ -0,0 +1,35 @@
+package pl.edu.notes.event;
+
+import pl.edu.notes.model.Note;
+
+import java.time.LocalDateTime;
+
+// Zdarzenie publikowane po kazdej zmianie notatki (utworzenie, edycja, usuniecie)
+// niesie kopie stanu notatki - odbiorcy nie musza siegac do encji ani do bazy
+// content to cala tresc notatki; gdy dluga tresc nie byla zaladowana (LAZY, zmiana jej nie dotyczyla),
+// content to tylko jej poczatek, a bodyId wskazuje NoteBody do doczytania - poza tym bodyId jest null
+// previousCategoryId - kategoria przed zmiana (null dla nowej notatki), rozna od categoryId przy przeniesieniu
+// usuniecie kategorii publikuje DELETED dla kazdej jej notatki
+// odbiorcy: @TransactionalEventListener(fallbackExecution = true) - po commicie, a zdarzenie opublikowane
+// poza transakcja (np. zapis przez JDBC bez @Transactional) od razu
+public record NoteChangedEvent(ChangeType type, Long noteId, Long categoryId, Long previousCategoryId,
+                               String title, String content, LocalDateTime createdAt, LocalDateTime updatedAt,
+                               Long bodyId) {
+
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+
+    // notatka zarzadzana przez Hibernate - poprzednia kategoria z chwili odczytu
+    public static NoteChangedEvent of(ChangeType type, Note note) {
+        return of(type, note, note.getPersistedCategoryId());
+    }
+
+    public static NoteChangedEvent of(ChangeType type, Note note, Long previousCategoryId) {
+        Long categoryId = note.getCategory() != null ? note.getCategory().getId() : null;
+        boolean loaded = note.isContentLoaded();
+        return new NoteChangedEvent(type, note.getId(), categoryId, previousCategoryId, note.getTitle(),
+                loaded ? note.getContent() : note.getContentPreview(), note.getCreatedAt(), note.getUpdatedAt(),
+                loaded ? null : note.getBodyId());
+    }
+}
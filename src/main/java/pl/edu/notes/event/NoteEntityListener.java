@@ -0,0 +1,37 @@
+package pl.edu.notes.event;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import pl.edu.notes.model.Note;
+
+// Listener JPA podpiety do encji Note przez @EntityListeners
+// zamienia callbacki Hibernate na zdarzenia Springa (NoteChangedEvent)
+// dzieki temu widzi tez notatki usuwane kaskadowo razem z kategoria
+// odbiorcy powinni uzywac @TransactionalEventListener - dostana zdarzenie dopiero po commicie
+@Component
+public class NoteEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public NoteEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    void afterPersist(Note note) {
+        eventPublisher.publishEvent(NoteChangedEvent.of(NoteChangedEvent.ChangeType.CREATED, note));
+    }
+
+    @PostUpdate
+    void afterUpdate(Note note) {
+        eventPublisher.publishEvent(NoteChangedEvent.of(NoteChangedEvent.ChangeType.UPDATED, note));
+    }
+
+    @PostRemove
+    void afterRemove(Note note) {
+        eventPublisher.publishEvent(NoteChangedEvent.of(NoteChangedEvent.ChangeType.DELETED, note));
+    }
+}
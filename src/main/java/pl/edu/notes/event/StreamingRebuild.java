@@ -0,0 +1,66 @@
+package pl.edu.notes.event;
+
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// Przebudowa struktury w pamieci (indeksy wyszukiwania, replika) jednym strumieniowym przejsciem po notatkach,
+// gdy aplikacja juz przyjmuje zadania i NoteChangedEvent aktualizuje te sama strukture rownolegle
+// - notatki zmienione w trakcie przebudowy sa pomijane w strumieniu - moze zwrocic ich starsza wersje,
+//   a zmiana jest juz w strukturze
+// - przebudowa i zmiany wykonuja sie pod monitorem wlasciciela (lock) - struktura nie musi byc watkowo bezpieczna
+public class StreamingRebuild {
+
+    private final Object lock;
+    private final TransactionTemplate readOnlyTransaction;
+
+    // id notatek zmienionych od poczatku przebudowy; null poza przebudowa, dostep tylko pod lock
+    private Set<Long> changedDuringRebuild;
+
+    public StreamingRebuild(Object lock, TransactionTemplate readOnlyTransaction) {
+        this.lock = lock;
+        this.readOnlyTransaction = readOnlyTransaction;
+    }
+
+    // clear - oproznia strukture; rows - strumien z repozytorium (otwarty i zamkniety w transakcji tylko do odczytu)
+    public <T> void rebuild(Runnable clear, Supplier<Stream<T>> rows, Function<T, Long> noteId, Consumer<T> load) {
+        synchronized (lock) {
+            clear.run();
+            changedDuringRebuild = new HashSet<>();
+        }
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<T> stream = rows.get()) {
+                    stream.forEach(row -> loadStreamed(noteId.apply(row), () -> load.accept(row)));
+                }
+            });
+        } finally {
+            synchronized (lock) {
+                changedDuringRebuild = null;
+            }
+        }
+    }
+
+    // zmiana z NoteChangedEvent - stosowana zawsze, w trakcie przebudowy zapamietywana
+    public void applyChange(Long noteId, Runnable apply) {
+        synchronized (lock) {
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.add(noteId);
+            }
+            apply.run();
+        }
+    }
+
+    private void loadStreamed(Long noteId, Runnable load) {
+        synchronized (lock) {
+            if (!changedDuringRebuild.contains(noteId)) {
+                load.run();
+            }
+        }
+    }
+}
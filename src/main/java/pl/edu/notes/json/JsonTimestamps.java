@@ -0,0 +1,81 @@
+package pl.edu.notes.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+// Zapis LocalDateTime w JSON bez tworzenia obiektow - ten sam tekst co LocalDateTimeSerializer Jacksona
+// (DateTimeFormatter.ISO_LOCAL_DATE_TIME: zawsze sekundy, ulamek bez koncowych zer, brak ulamka przy 0 ns)
+// znaki skladane w buforze watku i przekazywane do generatora bez posredniego Stringa;
+// bufor pamieta ostatnio zapisana date - na liscie posortowanej po dacie kolejne notatki zwykle maja ten sam dzien,
+// wtedy przepisywana jest tylko godzina
+final class JsonTimestamps {
+
+    // "yyyy-MM-ddTHH:mm:ss.nnnnnnnnn"
+    private static final int MAX_LENGTH = 29;
+    private static final int TIME_START = 11;
+
+    private static final ThreadLocal<Buffer> BUFFER = ThreadLocal.withInitial(Buffer::new);
+
+    private JsonTimestamps() {
+    }
+
+    static void write(LocalDateTime value, JsonGenerator gen) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+            return;
+        }
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            // lata spoza 4 cyfr ze znakiem (+10000) - rzadkie, zostawione formatowi
+            gen.writeString(value.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            return;
+        }
+        Buffer buffer = BUFFER.get();
+        char[] chars = buffer.chars;
+        int date = (year << 9) | (value.getMonthValue() << 5) | value.getDayOfMonth();
+        if (date != buffer.date) {
+            digits(chars, 0, year, 4);
+            chars[4] = '-';
+            digits(chars, 5, value.getMonthValue(), 2);
+            chars[7] = '-';
+            digits(chars, 8, value.getDayOfMonth(), 2);
+            chars[10] = 'T';
+            buffer.date = date;
+        }
+        digits(chars, TIME_START, value.getHour(), 2);
+        chars[13] = ':';
+        digits(chars, 14, value.getMinute(), 2);
+        chars[16] = ':';
+        digits(chars, 17, value.getSecond(), 2);
+        int length = 19;
+        int nano = value.getNano();
+        if (nano != 0) {
+            chars[length++] = '.';
+            int digits = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                digits--;
+            }
+            digits(chars, length, nano, digits);
+            length += digits;
+        }
+        gen.writeString(chars, 0, length);
+    }
+
+    // liczba dopelniona zerami z lewej do podanej liczby cyfr
+    private static void digits(char[] chars, int offset, int value, int count) {
+        for (int i = offset + count - 1; i >= offset; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static final class Buffer {
+        private final char[] chars = new char[MAX_LENGTH];
+        // rok/miesiac/dzien w chars[0..10]; -1 - jeszcze nic nie zapisano
+        private int date = -1;
+    }
+}
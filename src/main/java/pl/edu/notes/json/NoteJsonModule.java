@@ -0,0 +1,229 @@
+package pl.edu.notes.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.stereotype.Component;
+import pl.edu.notes.dto.CategorySummary;
+import pl.edu.notes.dto.CategoryView;
+import pl.edu.notes.dto.NoteView;
+import pl.edu.notes.model.Category;
+import pl.edu.notes.model.Note;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Serializery JSON notatek i kategorii pisane recznie - zamiast refleksyjnego BeanSerializer Jacksona
+// (introspekcja encji JPA, proxy Hibernate, @JsonIgnoreProperties przy kazdej zagniezdzonej wartosci):
+// - nazwy pol to gotowe SerializedString - generator kopiuje zakodowane juz bajty UTF-8
+// - daty przez JsonTimestamps, bez DateTimeFormatter i Stringa na kazda date
+// - wszystko pisane od razu do JsonGenerator, czyli do bufora odpowiedzi HTTP (albo strumienia NDJSON)
+// JSON jest identyczny jak z adnotacji na encjach i rekordach (kolejnosc pol, null-e) - sprawdza to NoteJsonModuleTest
+// Spring Boot rejestruje kazdy bean Module w ObjectMapperze aplikacji
+@Component
+public class NoteJsonModule extends SimpleModule {
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString NOTES = new SerializedString("notes");
+    private static final SerializedString CATEGORY = new SerializedString("category");
+    private static final SerializedString TITLE = new SerializedString("title");
+    private static final SerializedString CONTENT = new SerializedString("content");
+    private static final SerializedString LARGE_CONTENT = new SerializedString("largeContent");
+    private static final SerializedString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializedString UPDATED_AT = new SerializedString("updatedAt");
+    private static final SerializedString VERSION = new SerializedString("version");
+
+    public NoteJsonModule() {
+        super("NoteJsonModule");
+        // dopasowanie po klasie obejmuje tez podklasy - proxy Hibernate dla Note i Category
+        addSerializer(Note.class, new NoteSerializer());
+        addSerializer(Category.class, new CategorySerializer());
+        addSerializer(NoteView.class, new NoteViewSerializer());
+        addSerializer(CategorySummary.class, new CategorySummarySerializer());
+        addSerializer(CategoryView.class, new CategoryViewSerializer());
+    }
+
+    // encja Note: pola w kolejnosci deklaracji, potem largeContent (getter bez pola)
+    private static final class NoteSerializer extends StdSerializer<Note> {
+
+        private NoteSerializer() {
+            super(Note.class);
+        }
+
+        @Override
+        public void serialize(Note note, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(note);
+            writeNumber(gen, ID, note.getId());
+            // kategoria bez listy notatek - @JsonIgnoreProperties("notes") na Note.category
+            gen.writeFieldName(CATEGORY);
+            Category category = note.getCategory();
+            if (category == null) {
+                gen.writeNull();
+            } else {
+                gen.writeStartObject(category);
+                writeNumber(gen, ID, category.getId());
+                writeString(gen, NAME, category.getName());
+                gen.writeEndObject();
+            }
+            writeNoteFields(note, gen, provider);
+            gen.writeEndObject();
+        }
+    }
+
+    // encja Category z notatkami - notatki bez pola category (@JsonIgnoreProperties("category") na Category.notes)
+    private static final class CategorySerializer extends StdSerializer<Category> {
+
+        private CategorySerializer() {
+            super(Category.class);
+        }
+
+        @Override
+        public void serialize(Category category, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(category);
+            writeNumber(gen, ID, category.getId());
+            writeString(gen, NAME, category.getName());
+            gen.writeFieldName(NOTES);
+            List<Note> notes = category.getNotes();
+            if (notes == null) {
+                gen.writeNull();
+            } else {
+                gen.writeStartArray(notes, notes.size());
+                for (Note note : notes) {
+                    gen.writeStartObject(note);
+                    writeNumber(gen, ID, note.getId());
+                    writeNoteFields(note, gen, provider);
+                    gen.writeEndObject();
+                }
+                gen.writeEndArray();
+            }
+            gen.writeEndObject();
+        }
+    }
+
+    // projekcja NoteView: pola w kolejnosci komponentow rekordu
+    private static final class NoteViewSerializer extends StdSerializer<NoteView> {
+
+        private NoteViewSerializer() {
+            super(NoteView.class);
+        }
+
+        @Override
+        public void serialize(NoteView note, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(note);
+            writeNumber(gen, ID, note.id());
+            gen.writeFieldName(CATEGORY);
+            writeCategorySummary(note.category(), gen);
+            writeString(gen, TITLE, note.title());
+            writeString(gen, CONTENT, note.content());
+            gen.writeFieldName(LARGE_CONTENT);
+            gen.writeBoolean(note.largeContent());
+            writeTimestamp(gen, provider, CREATED_AT, note.createdAt());
+            writeTimestamp(gen, provider, UPDATED_AT, note.updatedAt());
+            writeNumber(gen, VERSION, note.version());
+            gen.writeEndObject();
+        }
+    }
+
+    private static final class CategorySummarySerializer extends StdSerializer<CategorySummary> {
+
+        private CategorySummarySerializer() {
+            super(CategorySummary.class);
+        }
+
+        @Override
+        public void serialize(CategorySummary category, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            writeCategorySummary(category, gen);
+        }
+    }
+
+    // CategoryView: notatki NoteItem bez categoryId (@JsonIgnore)
+    private static final class CategoryViewSerializer extends StdSerializer<CategoryView> {
+
+        private CategoryViewSerializer() {
+            super(CategoryView.class);
+        }
+
+        @Override
+        public void serialize(CategoryView category, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            gen.writeStartObject(category);
+            writeNumber(gen, ID, category.id());
+            writeString(gen, NAME, category.name());
+            gen.writeFieldName(NOTES);
+            List<CategoryView.NoteItem> notes = category.notes();
+            if (notes == null) {
+                gen.writeNull();
+            } else {
+                gen.writeStartArray(notes, notes.size());
+                for (CategoryView.NoteItem note : notes) {
+                    gen.writeStartObject(note);
+                    writeNumber(gen, ID, note.id());
+                    writeString(gen, TITLE, note.title());
+                    writeString(gen, CONTENT, note.content());
+                    gen.writeFieldName(LARGE_CONTENT);
+                    gen.writeBoolean(note.largeContent());
+                    writeTimestamp(gen, provider, CREATED_AT, note.createdAt());
+                    writeTimestamp(gen, provider, UPDATED_AT, note.updatedAt());
+                    writeNumber(gen, VERSION, note.version());
+                    gen.writeEndObject();
+                }
+                gen.writeEndArray();
+            }
+            gen.writeEndObject();
+        }
+    }
+
+    // pola encji Note po id i kategorii - wspolne dla notatki i notatki na liscie kategorii
+    private static void writeNoteFields(Note note, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        writeString(gen, TITLE, note.getTitle());
+        writeString(gen, CONTENT, note.getContent());
+        writeTimestamp(gen, provider, CREATED_AT, note.getCreatedAt());
+        writeTimestamp(gen, provider, UPDATED_AT, note.getUpdatedAt());
+        writeNumber(gen, VERSION, note.getVersion());
+        gen.writeFieldName(LARGE_CONTENT);
+        gen.writeBoolean(note.isLargeContent());
+    }
+
+    private static void writeCategorySummary(CategorySummary category, JsonGenerator gen) throws IOException {
+        if (category == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartObject(category);
+        writeNumber(gen, ID, category.id());
+        writeString(gen, NAME, category.name());
+        gen.writeEndObject();
+    }
+
+    private static void writeNumber(JsonGenerator gen, SerializedString name, Long value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value.longValue());
+        }
+    }
+
+    private static void writeString(JsonGenerator gen, SerializedString name, String value) throws IOException {
+        gen.writeFieldName(name);
+        gen.writeString(value);
+    }
+
+    // daty jako tekst ISO (w Spring Boot domyslnie write-dates-as-timestamps=false);
+    // przy wlaczonym WRITE_DATES_AS_TIMESTAMPS - standardowy serializer Jacksona (tablica liczb)
+    private static void writeTimestamp(JsonGenerator gen, SerializerProvider provider, SerializedString name,
+                                       LocalDateTime value) throws IOException {
+        gen.writeFieldName(name);
+        if (provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+            provider.defaultSerializeValue(value, gen);
+        } else {
+            JsonTimestamps.write(value, gen);
+        }
+    }
+}
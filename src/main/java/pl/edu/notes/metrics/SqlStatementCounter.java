@@ -0,0 +1,20 @@
+package pl.edu.notes.metrics;
+
+// Liczy instrukcje SQL przygotowane w biezacym watku (CountingDataSource)
+// watek obslugujacy zadanie HTTP zeruje licznik na poczatku i odczytuje go na koncu (SqlStatementMetricsInterceptor)
+public class SqlStatementCounter {
+
+    private final ThreadLocal<int[]> count = ThreadLocal.withInitial(() -> new int[1]);
+
+    void increment() {
+        count.get()[0]++;
+    }
+
+    void reset() {
+        count.get()[0] = 0;
+    }
+
+    int current() {
+        return count.get()[0];
+    }
+}
@@ -0,0 +1,43 @@
+package pl.edu.notes.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+// Po kazdym zadaniu zapisuje liczbe instrukcji SQL do metryki notes.http.sql.statements
+// tagi method i uri (wzorzec, np. /api/notes/{id}) - jak w http.server.requests, wiec oba wykresy da sie zestawic
+// endpoint ktory nagle wykonuje wiecej zapytan (N+1 po zmianie mapowania) widac bez profilera
+public class SqlStatementMetricsInterceptor implements HandlerInterceptor {
+
+    static final String METRIC = "notes.http.sql.statements";
+
+    private final SqlStatementCounter counter;
+    private final MeterRegistry registry;
+
+    public SqlStatementMetricsInterceptor(SqlStatementCounter counter, MeterRegistry registry) {
+        this.counter = counter;
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        counter.reset();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder(METRIC)
+                .description("Liczba instrukcji SQL wykonanych podczas obslugi zadania")
+                .baseUnit("statements")
+                .tag("method", request.getMethod())
+                .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry)
+                .record(counter.current());
+    }
+}
@@ -3,11 +3,17 @@ package pl.edu.notes.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import org.hibernate.annotations.SQLRestriction;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
 @Table(name = "categories")
+// usunieta kategoria ma ustawione deleted_at, dopoki NotePurgeService nie usunie jej notatek i jej samej
+// (do tego czasu nazwa pozostaje zajeta - ograniczenie unikalnosci); kategorii jest malo, kolumna nie ma indeksu
+@SQLRestriction("deleted_at is null")
 public class Category {
 
     @Id
@@ -23,10 +29,16 @@ public class Category {
     // mappedBy = "category" - wskazuje pole w klasie Note ktore jest wlascicielem relacji
     // cascade = CascadeType.ALL - operacje na kategorii propaguja sie na notatki (np. usun kategorie = usun jej notatki)
     // orphanRemoval = true - notatka bez kategorii zostanie usunieta
+    // usuniecie kategorii przez API nie idzie przez kaskade - NoteDeletionService oznacza notatki jednym UPDATE
     @OneToMany(mappedBy = "category", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonIgnoreProperties("category") // zapobiega nieskonczonej petli JSON
     private List<Note> notes;
 
+    // czas usuniecia - ustawiany tylko przez SQL (NoteDeletionService)
+    @Column(name = "deleted_at", insertable = false, updatable = false)
+    @JsonIgnore
+    private LocalDateTime deletedAt;
+
     public Category() {}
 
     public Category(String name) {
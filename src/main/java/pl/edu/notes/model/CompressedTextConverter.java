@@ -0,0 +1,88 @@
+package pl.edu.notes.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Tekst zapisywany w kolumnie binarnej - skompresowany tylko wtedy, gdy to sie oplaca
+// - krotki tekst albo tekst, ktory po kompresji nie jest mniejszy: zwykle bajty UTF-8
+// - pozostale: bajt COMPRESSED + strumien DEFLATE
+// bajt 0xFF nie wystepuje w poprawnym UTF-8, wiec oba formaty da sie odroznic po pierwszym bajcie,
+// a wiersze zapisane zwyklym SQL (data.sql, generator danych) sa poprawne bez konwersji
+@Converter
+public class CompressedTextConverter implements AttributeConverter<String, byte[]> {
+
+    private static final byte COMPRESSED = (byte) 0xFF;
+
+    // ponizej tego rozmiaru naglowki DEFLATE zjadaja zysk z kompresji
+    private static final int MIN_COMPRESSED_SIZE = 128;
+
+    @Override
+    public byte[] convertToDatabaseColumn(String text) {
+        return encode(text);
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] data) {
+        return decode(data);
+    }
+
+    // statyczne wersje dla zapisow przez JDBC z pominieciem encji (NoteWriteBehindService)
+    public static byte[] encode(String text) {
+        if (text == null) {
+            return null;
+        }
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        if (raw.length < MIN_COMPRESSED_SIZE) {
+            return raw;
+        }
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            // wynik musi byc krotszy od tekstu - inaczej przerywamy i zapisujemy tekst bez kompresji
+            byte[] out = new byte[raw.length];
+            out[0] = COMPRESSED;
+            int length = 1;
+            while (!deflater.finished() && length < out.length) {
+                length += deflater.deflate(out, length, out.length - length);
+            }
+            return deflater.finished() && length < out.length ? Arrays.copyOf(out, length) : raw;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    public static String decode(byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (data.length == 0 || data[0] != COMPRESSED) {
+            return new String(data, StandardCharsets.UTF_8);
+        }
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(data, 1, data.length - 1);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int length = inflater.inflate(buffer);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Uszkodzona skompresowana treść");
+                }
+                out.write(buffer, 0, length);
+            }
+            return out.toString(StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Uszkodzona skompresowana treść", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
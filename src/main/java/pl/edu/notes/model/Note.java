@@ -3,15 +3,42 @@ package pl.edu.notes.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.SQLRestriction;
+import pl.edu.notes.event.NoteEntityListener;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 @Entity
-@Table(name = "notes")
+// indeksy sortowania i paginacji keyset (malejaco - H2 nie czyta indeksu od konca); te same tworza migracje V1, V3 i V4
+@Table(name = "notes", indexes = {
+        @Index(name = "idx_notes_updated_at_id", columnList = "updated_at desc, id desc"),
+        @Index(name = "idx_notes_created_at_id", columnList = "created_at desc, id desc"),
+        @Index(name = "idx_notes_category_updated_at_id", columnList = "category_id, updated_at desc, id desc"),
+        @Index(name = "idx_notes_category_created_at_id", columnList = "category_id, created_at desc, id desc"),
+        @Index(name = "idx_notes_category_id", columnList = "category_id"),
+        @Index(name = "idx_notes_title", columnList = "title"),
+        @Index(name = "idx_notes_deleted_at", columnList = "deleted_at")
+})
+// usuniete notatki (NoteDeletionService) niewidoczne dla odczytow; deleted bez indeksu - nie odbiera planu indeksom sortowania
+@SQLRestriction("deleted = false")
+// NoteEntityListener - publikuje NoteChangedEvent po zapisie/usunieciu notatki
+@EntityListeners(NoteEntityListener.class)
 public class Note {
 
+    // tresc do tej dlugosci zapisywana jest w wierszu notatki, dluzsza - w note_bodies (NoteBody)
+    public static final int INLINE_CONTENT_LENGTH = 2000;
+    public static final int MAX_CONTENT_LENGTH = 1_000_000;
+
+    // sekwencja z optymalizatorem pooled - Hibernate rezerwuje 50 id jednym zapytaniem
+    // w przeciwienstwie do IDENTITY nie musi wykonywac INSERT od razu, wiec moze laczyc je w batche JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notes_seq")
+    @SequenceGenerator(name = "notes_seq", sequenceName = "notes_seq", allocationSize = 50)
     private Long id;
 
     // @ManyToOne - wiele notatek moze nalezec do jednej kategorii
@@ -26,32 +53,77 @@ public class Note {
     @Column(nullable = false, length = 100)
     private String title;
 
-    @Size(max = 2000, message = "Treść może mieć maksymalnie 2000 znaków")
-    @Column(length = 2000)
+    // kolumna binarna: tekst UTF-8 albo skompresowany DEFLATE (CompressedTextConverter)
+    // 6001 bajtow = INLINE_CONTENT_LENGTH znakow po maks. 3 bajty UTF-8 + bajt naglowka
+    // przy dlugiej tresci kolumna trzyma jej poczatek - podglad zwracany przez listy (NoteView)
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(name = "content", length = 6001)
     private String content;
 
+    // dluga tresc (LAZY) - ladowana dopiero przy odczycie getContent()
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
+    @JoinColumn(name = "body_id")
+    @JsonIgnore
+    private NoteBody body;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // @Version - blokowanie optymistyczne: Hibernate zwieksza wersje przy kazdym UPDATE
+    // i dodaje "where version = ?", wiec rownolegla zmiana tej samej notatki konczy sie wyjatkiem
+    // wersja jest tez czescia ETag notatki; klient nie moze jej ustawic w JSON
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
+    // znacznik i czas usuniecia - ustawiane tylko przez SQL (NoteDeletionService), usunieta encja nie jest odczytywana
+    // domyslna wartosc w bazie - INSERT-y przez JDBC (write-behind, import) nie podaja tej kolumny
+    @ColumnDefault("false")
+    @Column(name = "deleted", nullable = false, insertable = false, updatable = false)
+    @JsonIgnore
+    private boolean deleted;
+
+    @Column(name = "deleted_at", insertable = false, updatable = false)
+    @JsonIgnore
+    private LocalDateTime deletedAt;
+
+    // kategoria zapisana w bazie (po odczycie lub zapisie) - przy zmianie notatki NoteEntityListener
+    // podaje ja w NoteChangedEvent jako poprzednia; listener encji wywolywany jest przed @PostUpdate ponizej
+    @Transient
+    private Long persistedCategoryId;
+
     public Note() {}
 
     public Note(String title, String content) {
         this.title = title;
-        this.content = content;
+        setContent(content);
     }
 
     @PrePersist
     protected void onCreate() {
-        this.createdAt = LocalDateTime.now();
-        this.updatedAt = LocalDateTime.now();
+        this.createdAt = now();
+        this.updatedAt = this.createdAt;
     }
 
     @PreUpdate
     protected void onUpdate() {
-        this.updatedAt = LocalDateTime.now();
+        this.updatedAt = now();
+    }
+
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    protected void rememberCategory() {
+        this.persistedCategoryId = category != null ? category.getId() : null;
+    }
+
+    // baza przechowuje czas z dokladnoscia do mikrosekund - obcinamy nanosekundy juz w encji,
+    // zeby kursor zbudowany z encji w pamieci wskazywal dokladnie na zapisany wiersz
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
 
     public Long getId() {
@@ -70,12 +142,58 @@ public class Note {
         this.title = title;
     }
 
+    @Size(max = MAX_CONTENT_LENGTH, message = "Treść może mieć maksymalnie 1000000 znaków")
     public String getContent() {
-        return content;
+        return body != null ? body.getContent() : content;
     }
 
+    // dluga tresc trafia do nowego NoteBody (stary usuwa orphanRemoval) - zmiana body_id oznacza notatke
+    // jako zmieniona, wiec rosnie wersja i updatedAt, nawet gdy podglad w wierszu notatki sie nie zmienil
     public void setContent(String content) {
-        this.content = content;
+        if (content == null || content.length() <= INLINE_CONTENT_LENGTH) {
+            this.content = content;
+            this.body = null;
+        } else if (body == null || !content.equals(body.getContent())) {
+            this.body = new NoteBody(content);
+            this.content = preview(content);
+        }
+    }
+
+    // poczatek tresci zapisany w wierszu notatki - cala tresc, jesli nie jest dluga
+    @JsonIgnore
+    public String getContentPreview() {
+        return content;
+    }
+
+    // cala tresc jest w pamieci - krotka albo dluga juz zaladowana (getContent() nie siegnie do bazy)
+    @JsonIgnore
+    public boolean isContentLoaded() {
+        return body == null || Hibernate.isInitialized(body);
+    }
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public boolean isLargeContent() {
+        return body != null;
+    }
+
+    @JsonIgnore
+    public Long getPersistedCategoryId() {
+        return persistedCategoryId;
+    }
+
+    // id z proxy - bez ladowania tresci
+    @JsonIgnore
+    public Long getBodyId() {
+        return body != null ? body.getId() : null;
+    }
+
+    private static String preview(String content) {
+        int end = INLINE_CONTENT_LENGTH;
+        // nie rozcinamy pary surogatow (np. emoji) na granicy podgladu
+        if (Character.isHighSurrogate(content.charAt(end - 1))) {
+            end--;
+        }
+        return content.substring(0, end);
     }
 
     public LocalDateTime getCreatedAt() {
@@ -94,6 +212,14 @@ public class Note {
         this.updatedAt = updatedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public Category getCategory() {
         return category;
     }
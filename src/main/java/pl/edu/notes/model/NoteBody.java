@@ -0,0 +1,36 @@
+package pl.edu.notes.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+
+// Tresc notatki dluzszej niz Note.INLINE_CONTENT_LENGTH - osobna tabela z kolumna BLOB
+// notatka wskazuje ja przez note.body_id (LAZY), wiec zapytania o notatki nie czytaja dlugich tresci
+// @BatchSize - kilka leniwych tresci (np. notatki jednej kategorii) ladowanych jednym zapytaniem
+@Entity
+@Table(name = "note_bodies")
+@BatchSize(size = 50)
+public class NoteBody {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Lob
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(nullable = false)
+    private String content;
+
+    protected NoteBody() {}
+
+    NoteBody(String content) {
+        this.content = content;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getContent() {
+        return content;
+    }
+}
@@ -0,0 +1,44 @@
+package pl.edu.notes.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Slad po usunietej notatce - dzieki niemu /api/notes/changes moze zglosic klientom usuniecie
+// wiersz notatki znika z odczytow (a po czyszczeniu z tabeli "notes"), wiec bez nagrobka klient nie dowiedzialby sie
+// o usunieciu; zapisuje go NoteDeletionService w tej samej transakcji co oznaczenie notatki
+@Entity
+// indeks (deleted_at, note_id) obsluguje odczyt zmian od kursora w kolejnosci usuwania
+@Table(name = "note_tombstones", indexes = @Index(name = "idx_note_tombstones_deleted_at_id", columnList = "deleted_at, note_id"))
+public class NoteTombstone {
+
+    // id usunietej notatki - sekwencja notes_seq nigdy nie wydaje go ponownie
+    @Id
+    @Column(name = "note_id")
+    private Long noteId;
+
+    @Column(name = "category_id")
+    private Long categoryId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    protected NoteTombstone() {}
+
+    public NoteTombstone(Long noteId, Long categoryId, LocalDateTime deletedAt) {
+        this.noteId = noteId;
+        this.categoryId = categoryId;
+        this.deletedAt = deletedAt;
+    }
+
+    public Long getNoteId() {
+        return noteId;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+}
@@ -0,0 +1,22 @@
+package pl.edu.notes.ratelimit;
+
+// Klasa kosztu endpointu - ile tokenow klienta zuzywa jedno zadanie
+// koszt odpowiada obciazeniu bazy: odczyt po id to jedno zapytanie po kluczu, wyszukiwanie LIKE '%...%'
+// skanuje cala tabele, operacje wsadowe i eksport/import zajmuja polaczenie JDBC na dlugo
+public enum EndpointClass {
+    READ(1),
+    WRITE(2),
+    LIST(5),
+    SEARCH(10),
+    BULK(20);
+
+    private final int cost;
+
+    EndpointClass(int cost) {
+        this.cost = cost;
+    }
+
+    public int cost() {
+        return cost;
+    }
+}
@@ -0,0 +1,15 @@
+package pl.edu.notes.ratelimit;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Klasa kosztu metody kontrolera dla RateLimitInterceptor
+// metody bez adnotacji: GET - READ, pozostale - WRITE
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RateLimit {
+
+    EndpointClass value();
+}
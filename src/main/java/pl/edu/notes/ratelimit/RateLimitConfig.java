@@ -0,0 +1,25 @@
+package pl.edu.notes.ratelimit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Limity zadan tylko dla API notatek i kategorii - actuator i /api/cache nie sa ograniczane
+// notes.rate-limit.enabled=false wylacza cala kontrole (np. w testach)
+@Configuration
+@ConditionalOnProperty(name = "notes.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig implements WebMvcConfigurer {
+
+    private final RateLimiter rateLimiter;
+
+    public RateLimitConfig(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RateLimitInterceptor(rateLimiter))
+                .addPathPatterns("/api/notes", "/api/notes/**", "/api/categories", "/api/categories/**");
+    }
+}
@@ -0,0 +1,77 @@
+package pl.edu.notes.ratelimit;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Przed kazda metoda kontrolera pyta RateLimiter o zgode; odmowa to od razu 429 z naglowkiem Retry-After
+// klient = adres IP (request.getRemoteAddr()) - za proxy trzeba wlaczyc server.forward-headers-strategy,
+// wtedy Tomcat bierze adres z X-Forwarded-For
+// zadania asynchroniczne (NDJSON, eksport) trzymaja miejsce w limicie wspolbieznosci do konca strumieniowania:
+// afterCompletion wywolywane jest dopiero po drugim (ASYNC) przejsciu przez DispatcherServlet
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private static final String ADMITTED = RateLimitInterceptor.class.getName() + ".ADMITTED";
+
+    private final RateLimiter rateLimiter;
+    // adnotacja @RateLimit odczytana raz dla kazdej metody kontrolera
+    private final Map<Method, Optional<EndpointClass>> annotated = new ConcurrentHashMap<>();
+
+    public RateLimitInterceptor(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        // drugie przejscie zadania asynchronicznego - zgoda wydana przy pierwszym
+        if (request.getDispatcherType() == DispatcherType.ASYNC || !(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        EndpointClass endpoint = classify(method, request);
+        long wait = rateLimiter.tryAdmit(request.getRemoteAddr(), endpoint);
+        if (wait == 0) {
+            request.setAttribute(ADMITTED, endpoint);
+            return true;
+        }
+        long seconds = Math.max(1, (wait + 999_999_999) / 1_000_000_000);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write("Zbyt wiele żądań - spróbuj ponownie za " + seconds + " s");
+        return false;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object endpoint = request.getAttribute(ADMITTED);
+        if (endpoint != null) {
+            request.removeAttribute(ADMITTED);
+            rateLimiter.release((EndpointClass) endpoint);
+        }
+    }
+
+    private EndpointClass classify(HandlerMethod method, HttpServletRequest request) {
+        Optional<EndpointClass> declared = annotated.computeIfAbsent(method.getMethod(),
+                key -> Optional.ofNullable(method.getMethodAnnotation(RateLimit.class)).map(RateLimit::value));
+        if (declared.isPresent()) {
+            return declared.get();
+        }
+        String httpMethod = request.getMethod();
+        return HttpMethod.GET.matches(httpMethod) || HttpMethod.HEAD.matches(httpMethod)
+                ? EndpointClass.READ
+                : EndpointClass.WRITE;
+    }
+}
@@ -0,0 +1,128 @@
+package pl.edu.notes.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+// Kontrola dostepu przed kontrolerami (RateLimitInterceptor) - dwa niezalezne limity:
+// - kubelek tokenow dla kazdego klienta: zadanie zuzywa EndpointClass.cost() tokenow, tokeny wracaja
+//   w tempie notes.rate-limit.refill-per-second do notes.rate-limit.capacity
+// - limit rownoczesnych zadan dla drozszych klas endpointow (notes.rate-limit.concurrency.*) - wspolny
+//   dla wszystkich klientow, zeby wyszukiwania i eksporty nie zajely calej puli watkow Tomcata i polaczen JDBC
+// przekroczenie limitu to od razu odmowa (429 + Retry-After), zadanie nie czeka w kolejce
+// sciezka przyjecia zadania bez blokad: odczyt z ConcurrentHashMap, CAS w TokenBucket, tryAcquire semafora
+@Component
+@ConditionalOnProperty(name = "notes.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimiter {
+
+    // przy pelnym limicie wspolbieznosci wolne miejsce zwykle pojawia sie szybko
+    static final long CONCURRENCY_RETRY_NANOS = 1_000_000_000L;
+
+    private final int capacity;
+    private final double refillPerSecond;
+    private final int maxClients;
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    // nowi klienci ponad notes.rate-limit.max-clients dziela jeden kubelek - mapa nie rosnie bez ograniczen
+    private final TokenBucket overflow;
+    // tylko klasy z limitem; mapy nie zmieniaja sie po konstrukcji
+    private final Map<EndpointClass, Semaphore> concurrency = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> rateRejected = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> concurrencyRejected = new EnumMap<>(EndpointClass.class);
+
+    public RateLimiter(MeterRegistry meterRegistry,
+                       @Value("${notes.rate-limit.capacity:200}") int capacity,
+                       @Value("${notes.rate-limit.refill-per-second:100}") double refillPerSecond,
+                       @Value("${notes.rate-limit.max-clients:100000}") int maxClients,
+                       @Value("${notes.rate-limit.concurrency.list:8}") int listConcurrency,
+                       @Value("${notes.rate-limit.concurrency.search:4}") int searchConcurrency,
+                       @Value("${notes.rate-limit.concurrency.bulk:2}") int bulkConcurrency) {
+        if (capacity < EndpointClass.BULK.cost()) {
+            throw new IllegalArgumentException("notes.rate-limit.capacity musi wynosić co najmniej "
+                    + EndpointClass.BULK.cost());
+        }
+        this.capacity = capacity;
+        this.refillPerSecond = refillPerSecond;
+        this.maxClients = maxClients;
+        this.overflow = new TokenBucket(capacity, refillPerSecond, System.nanoTime());
+        limitConcurrency(EndpointClass.LIST, listConcurrency);
+        limitConcurrency(EndpointClass.SEARCH, searchConcurrency);
+        limitConcurrency(EndpointClass.BULK, bulkConcurrency);
+
+        for (EndpointClass endpoint : EndpointClass.values()) {
+            String tag = endpoint.name().toLowerCase();
+            rateRejected.put(endpoint, meterRegistry.counter("notes.ratelimit.rejected",
+                    "class", tag, "reason", "rate"));
+            concurrencyRejected.put(endpoint, meterRegistry.counter("notes.ratelimit.rejected",
+                    "class", tag, "reason", "concurrency"));
+        }
+        Gauge.builder("notes.ratelimit.clients", buckets, Map::size)
+                .description("Liczba klientow z aktywnym kubelkiem tokenow")
+                .register(meterRegistry);
+    }
+
+    // 0 - zadanie przyjete (przy klasie z limitem wspolbieznosci trzeba potem wywolac release);
+    // wartosc dodatnia - odmowa, za ile nanosekund warto sprobowac ponownie
+    public long tryAdmit(String client, EndpointClass endpoint) {
+        Semaphore permits = concurrency.get(endpoint);
+        if (permits != null && !permits.tryAcquire()) {
+            concurrencyRejected.get(endpoint).increment();
+            return CONCURRENCY_RETRY_NANOS;
+        }
+        long now = System.nanoTime();
+        long wait = bucket(client, now).tryConsume(endpoint.cost(), now);
+        if (wait > 0) {
+            if (permits != null) {
+                permits.release();
+            }
+            rateRejected.get(endpoint).increment();
+        }
+        return wait;
+    }
+
+    public void release(EndpointClass endpoint) {
+        Semaphore permits = concurrency.get(endpoint);
+        if (permits != null) {
+            permits.release();
+        }
+    }
+
+    // pelny kubelek niczym sie nie rozni od nowego, wiec usuniecie go nie zmienia limitow klienta
+    // (zadanie przyjete w chwili usuwania moze najwyzej nie zostac policzone)
+    @Scheduled(fixedDelayString = "${notes.rate-limit.cleanup-interval-ms:60000}")
+    public void evictIdleClients() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    int clients() {
+        return buckets.size();
+    }
+
+    private TokenBucket bucket(String client, long now) {
+        TokenBucket bucket = buckets.get(client);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxClients) {
+            return overflow;
+        }
+        return buckets.computeIfAbsent(client, key -> new TokenBucket(capacity, refillPerSecond, now));
+    }
+
+    // 0 albo mniej - bez limitu
+    private void limitConcurrency(EndpointClass endpoint, int limit) {
+        if (limit > 0) {
+            concurrency.put(endpoint, new Semaphore(limit));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package pl.edu.notes.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Kubelek tokenow jednego klienta - bez blokad, caly stan to jedna liczba zmieniana przez compareAndSet
+// zamiast liczby tokenow trzymamy "teoretyczny czas przybycia" (GCRA): chwile, w ktorej kubelek bylby
+// znowu pelny; zadanie o koszcie n przesuwa go o n * nanosPerToken i jest przyjete, jesli nie wybiega
+// dalej niz pojemnosc kubelka w przod - to samo zachowanie co klasyczny kubelek tokenow,
+// ale bez osobnego licznika, znacznika czasu i watku uzupelniajacego tokeny
+public final class TokenBucket {
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    // capacity - maks. liczba tokenow (seria zadan), refillPerSecond - tempo uzupelniania
+    public TokenBucket(int capacity, double refillPerSecond, long now) {
+        this.nanosPerToken = Math.max(1, Math.round(1_000_000_000L / refillPerSecond));
+        this.burstNanos = capacity * nanosPerToken;
+        // nowy kubelek jest pelny
+        this.fullAt = new AtomicLong(now);
+    }
+
+    // 0 - tokeny pobrane; wartosc dodatnia - za ile nanosekund bedzie ich dosc (nic nie jest pobierane)
+    public long tryConsume(int tokens, long now) {
+        long cost = tokens * nanosPerToken;
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + cost;
+            long wait = next - burstNanos - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // pelny kubelek zachowuje sie jak nowy - mozna go usunac bez zmiany limitow klienta
+    public boolean isFull(long now) {
+        return fullAt.get() - now <= 0;
+    }
+}
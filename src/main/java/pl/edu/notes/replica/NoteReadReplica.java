@@ -0,0 +1,354 @@
+package pl.edu.notes.replica;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import pl.edu.notes.dto.NoteSummary;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Kopia tabeli notes w pamieci do najczestszych odczytow (notes.read-replica.enabled=true):
+// lista ostatnio zmienionych notatek, ta sama lista w jednej kategorii i liczba notatek - bez JPA i bez bazy
+//
+// uklad kolumnowy - osobna tablica na kazda kolumne zamiast obiektu na notatke:
+// id, category_id, created_at i updated_at jako long[], tytuly w String[] (jeden obiekt na powtarzajacy sie tytul)
+// wiersze posortowane po (updatedAt, id), jak indeks idx_notes_updated_at_id - lista ostatnio zmienionych to
+// przejscie tablic od konca, zapytanie alokuje tylko swoj wynik
+// zmiana notatki oznacza stary wiersz jako usuniety (id ze znakiem minus) i dopisuje nowy - zwykle na koniec,
+// bo updatedAt = teraz; usuniete wiersze znikaja z tablic przy kompaktowaniu, gdy jest ich wiecej niz zywych
+@Component
+@ConditionalOnProperty(name = "notes.read-replica.enabled", havingValue = "true")
+public class NoteReadReplica {
+
+    // id kategorii w bazie zaczynaja sie od 1
+    private static final long NO_CATEGORY = 0;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] ids;
+    private long[] categoryIds;
+    // czas w mikrosekundach od epoki (UTC) - baza przechowuje go z ta sama dokladnoscia
+    private long[] createdAt;
+    private long[] updatedAt;
+    private String[] titles;
+    // wiersze w tablicach (razem z usunietymi) i zywe notatki
+    private int rows;
+    private int live;
+    private LongIntMap rowById;
+    private LongIntMap countByCategory;
+    private Map<String, String> titlePool;
+
+    public NoteReadReplica() {
+        reset();
+    }
+
+    // dodaje notatke albo zastepuje jej poprzedni stan
+    public void put(NoteSummary note) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(note.id());
+            insert(note.id(), note.categoryId() != null ? note.categoryId() : NO_CATEGORY, pooled(note.title()),
+                    micros(note.createdAt()), micros(note.updatedAt()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long noteId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(noteId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            reset();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // liczba notatek - wszystkich (categoryId == null) albo w kategorii; licznik kategorii trzymany przy zapisie
+    public long count(Long categoryId) {
+        lock.readLock().lock();
+        try {
+            return categoryId == null ? live : countByCategory.get(categoryId, 0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // najwyzej limit ostatnio zmienionych notatek (updatedAt, id malejaco), wszystkich albo z jednej kategorii
+    // bez filtra czas zalezy od limitu; z filtrem - od limitu i udzialu kategorii (rzadka kategoria to dluzsze przejscie)
+    public List<NoteSummary> recent(Long categoryId, int limit) {
+        lock.readLock().lock();
+        try {
+            boolean all = categoryId == null;
+            long category = all ? NO_CATEGORY : categoryId;
+            int wanted = Math.min(limit, all ? live : countByCategory.get(category, 0));
+            List<NoteSummary> result = new ArrayList<>(wanted);
+            for (int row = rows - 1; row >= 0 && result.size() < wanted; row--) {
+                if (ids[row] > 0 && (all || categoryIds[row] == category)) {
+                    result.add(summary(row));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void insert(long id, long categoryId, String title, long created, long updated) {
+        if (rows == ids.length) {
+            grow();
+        }
+        int position = position(updated, id);
+        if (position < rows) {
+            // rzadki przypadek - transakcja zatwierdzona pozniej niz nowsza zmiana innej notatki
+            shift(position);
+        }
+        ids[position] = id;
+        categoryIds[position] = categoryId;
+        createdAt[position] = created;
+        updatedAt[position] = updated;
+        titles[position] = title;
+        rows++;
+        live++;
+        rowById.put(id, position);
+        if (categoryId != NO_CATEGORY) {
+            countByCategory.put(categoryId, countByCategory.get(categoryId, 0) + 1);
+        }
+    }
+
+    private void removeInternal(long id) {
+        int row = rowById.remove(id, -1);
+        if (row < 0) {
+            return;
+        }
+        ids[row] = -id;
+        titles[row] = null;
+        live--;
+        long categoryId = categoryIds[row];
+        if (categoryId != NO_CATEGORY) {
+            int count = countByCategory.get(categoryId, 0) - 1;
+            if (count > 0) {
+                countByCategory.put(categoryId, count);
+            } else {
+                countByCategory.remove(categoryId, 0);
+            }
+        }
+        if (rows - live > live && rows - live >= INITIAL_CAPACITY) {
+            compact();
+        }
+    }
+
+    // pierwszy wiersz pozniejszy niz (updated, id) - zwykle koniec tablic, wtedy bez wyszukiwania binarnego
+    // usuniete wiersze zachowuja updatedAt i id (ze znakiem minus), wiec kolejnosc calych tablic pozostaje poprawna
+    private int position(long updated, long id) {
+        if (rows == 0 || !isAfter(rows - 1, updated, id)) {
+            return rows;
+        }
+        int low = 0;
+        int high = rows - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (isAfter(middle, updated, id)) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    private boolean isAfter(int row, long updated, long id) {
+        return updatedAt[row] > updated || (updatedAt[row] == updated && Math.abs(ids[row]) > id);
+    }
+
+    private void shift(int position) {
+        int length = rows - position;
+        System.arraycopy(ids, position, ids, position + 1, length);
+        System.arraycopy(categoryIds, position, categoryIds, position + 1, length);
+        System.arraycopy(createdAt, position, createdAt, position + 1, length);
+        System.arraycopy(updatedAt, position, updatedAt, position + 1, length);
+        System.arraycopy(titles, position, titles, position + 1, length);
+        for (int row = position + 1; row <= rows; row++) {
+            if (ids[row] > 0) {
+                rowById.put(ids[row], row);
+            }
+        }
+    }
+
+    // przepisuje zywe wiersze na poczatek tablic; pula tytulow budowana od nowa - bez tytulow usunietych notatek
+    private void compact() {
+        int target = 0;
+        LongIntMap rowsAfter = new LongIntMap();
+        Map<String, String> poolAfter = new HashMap<>();
+        for (int row = 0; row < rows; row++) {
+            if (ids[row] < 0) {
+                continue;
+            }
+            ids[target] = ids[row];
+            categoryIds[target] = categoryIds[row];
+            createdAt[target] = createdAt[row];
+            updatedAt[target] = updatedAt[row];
+            titles[target] = pooled(poolAfter, titles[row]);
+            rowsAfter.put(ids[target], target);
+            target++;
+        }
+        Arrays.fill(titles, target, rows, null);
+        rows = target;
+        rowById = rowsAfter;
+        titlePool = poolAfter;
+    }
+
+    private void grow() {
+        int capacity = ids.length + (ids.length >> 1);
+        ids = Arrays.copyOf(ids, capacity);
+        categoryIds = Arrays.copyOf(categoryIds, capacity);
+        createdAt = Arrays.copyOf(createdAt, capacity);
+        updatedAt = Arrays.copyOf(updatedAt, capacity);
+        titles = Arrays.copyOf(titles, capacity);
+    }
+
+    private void reset() {
+        ids = new long[INITIAL_CAPACITY];
+        categoryIds = new long[INITIAL_CAPACITY];
+        createdAt = new long[INITIAL_CAPACITY];
+        updatedAt = new long[INITIAL_CAPACITY];
+        titles = new String[INITIAL_CAPACITY];
+        rows = 0;
+        live = 0;
+        rowById = new LongIntMap();
+        countByCategory = new LongIntMap();
+        titlePool = new HashMap<>();
+    }
+
+    private NoteSummary summary(int row) {
+        return new NoteSummary(ids[row], categoryIds[row] != NO_CATEGORY ? categoryIds[row] : null, titles[row],
+                dateTime(createdAt[row]), dateTime(updatedAt[row]));
+    }
+
+    private String pooled(String title) {
+        return pooled(titlePool, title);
+    }
+
+    private static String pooled(Map<String, String> pool, String title) {
+        String value = title != null ? title : "";
+        String existing = pool.putIfAbsent(value, value);
+        return existing != null ? existing : value;
+    }
+
+    private static long micros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime dateTime(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    // mapa long -> int z adresowaniem otwartym (probkowanie liniowe) - bez obiektow Long i Integer na kazdy wpis
+    // klucz 0 oznacza wolne miejsce; wypelnienie najwyzej w polowie
+    static final class LongIntMap {
+
+        private long[] keys = new long[16];
+        private int[] values = new int[16];
+        private int size;
+
+        int get(long key, int missing) {
+            int mask = keys.length - 1;
+            for (int slot = slot(key, mask); keys[slot] != 0; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+            }
+            return missing;
+        }
+
+        void put(long key, int value) {
+            if ((size + 1) * 2 > keys.length) {
+                resize(keys.length * 2);
+            }
+            int mask = keys.length - 1;
+            int slot = slot(key, mask);
+            while (keys[slot] != 0) {
+                if (keys[slot] == key) {
+                    values[slot] = value;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+            size++;
+        }
+
+        int remove(long key, int missing) {
+            int mask = keys.length - 1;
+            for (int slot = slot(key, mask); keys[slot] != 0; slot = (slot + 1) & mask) {
+                if (keys[slot] != key) {
+                    continue;
+                }
+                int value = values[slot];
+                // bez znacznikow usuniecia - kolejne wpisy ciagu przesuwane sa na zwolnione miejsce,
+                // jesli lezy ono miedzy ich miejscem docelowym a obecnym
+                int gap = slot;
+                for (int next = (gap + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+                    int home = slot(keys[next], mask);
+                    if (((next - home) & mask) >= ((next - gap) & mask)) {
+                        keys[gap] = keys[next];
+                        values[gap] = values[next];
+                        gap = next;
+                    }
+                }
+                keys[gap] = 0;
+                size--;
+                return value;
+            }
+            return missing;
+        }
+
+        int size() {
+            return size;
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new long[capacity];
+            values = new int[capacity];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int slot(long key, int mask) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package pl.edu.notes.replica;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.edu.notes.dto.NoteSummary;
+import pl.edu.notes.event.NoteChangedEvent;
+import pl.edu.notes.event.StreamingRebuild;
+import pl.edu.notes.repository.NoteRepository;
+
+// Utrzymuje NoteReadReplica w zgodzie z baza danych, tak jak NoteSearchIndexer indeksy wyszukiwania:
+// - po starcie aplikacji laduje wszystkie notatki jednym strumieniowym przejsciem, juz w kolejnosci (updatedAt, id)
+// - potem aktualizuje replike po kazdej zatwierdzonej zmianie notatki (NoteChangedEvent)
+@Component
+@ConditionalOnProperty(name = "notes.read-replica.enabled", havingValue = "true")
+public class NoteReadReplicaLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(NoteReadReplicaLoader.class);
+
+    private final NoteReadReplica replica;
+    private final NoteRepository noteRepository;
+    private final StreamingRebuild streamingRebuild;
+
+    public NoteReadReplicaLoader(NoteReadReplica replica, NoteRepository noteRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.replica = replica;
+        this.noteRepository = noteRepository;
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        this.streamingRebuild = new StreamingRebuild(this, readOnlyTransaction);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        streamingRebuild.rebuild(replica::clear, noteRepository::streamSummaries, NoteSummary::id, replica::put);
+        log.info("Replika notatek zaladowana: {} notatek w {} ms",
+                replica.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNoteChanged(NoteChangedEvent event) {
+        streamingRebuild.applyChange(event.noteId(), () -> {
+            switch (event.type()) {
+                case CREATED, UPDATED -> replica.put(new NoteSummary(event.noteId(), event.categoryId(),
+                        event.title(), event.createdAt(), event.updatedAt()));
+                case DELETED -> replica.remove(event.noteId());
+            }
+        });
+    }
+}
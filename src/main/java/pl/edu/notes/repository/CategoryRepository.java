@@ -1,9 +1,21 @@
 package pl.edu.notes.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import pl.edu.notes.dto.CategorySummary;
 import pl.edu.notes.model.Category;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
+
+    // same kategorie, bez leniwego ladowania listy notatek
+    @Query("select new pl.edu.notes.dto.CategorySummary(c.id, c.name) from Category c order by c.id")
+    List<CategorySummary> findAllSummaries();
+
+    // nazwa kategorii jest unikalna - import notatek wskazuje kategorie po nazwie
+    Optional<Category> findByName(String name);
 }
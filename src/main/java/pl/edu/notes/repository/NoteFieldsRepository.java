@@ -0,0 +1,17 @@
+package pl.edu.notes.repository;
+
+import pl.edu.notes.dto.NoteField;
+import pl.edu.notes.dto.NoteFields;
+
+import java.util.List;
+import java.util.Set;
+
+// Fragment NoteRepository: zapytania z lista kolumn budowana z parametru fields=
+// baza czyta i przesyla tylko wybrane kolumny - bez fields=content kolumna content nie jest w SELECT,
+// bez fields=category nie ma tez LEFT JOIN do kategorii
+public interface NoteFieldsRepository {
+
+    List<NoteFields> findAllFields(Set<NoteField> fields);
+
+    List<NoteFields> searchFieldsByTitle(String title, Set<NoteField> fields);
+}
@@ -0,0 +1,94 @@
+package pl.edu.notes.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import pl.edu.notes.dto.CategorySummary;
+import pl.edu.notes.dto.NoteField;
+import pl.edu.notes.dto.NoteFields;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Implementacja fragmentu NoteFieldsRepository - Spring Data laczy ja z NoteRepository po sufiksie "Impl"
+// zapytanie JPQL z projekcja Tuple: pierwsze dwie kolumny to zawsze id i version, potem wybrane pola
+class NoteFieldsRepositoryImpl implements NoteFieldsRepository {
+
+    private final EntityManager entityManager;
+
+    NoteFieldsRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<NoteFields> findAllFields(Set<NoteField> fields) {
+        return query(fields, "", null);
+    }
+
+    // ten sam warunek co searchViewsByTitle - znaki % i _ w zapytaniu traktowane doslownie
+    @Override
+    public List<NoteFields> searchFieldsByTitle(String title, Set<NoteField> fields) {
+        String pattern = "%" + title.toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+        return query(fields, "where lower(n.title) like :pattern escape '\\' ", pattern);
+    }
+
+    private List<NoteFields> query(Set<NoteField> fields, String where, String pattern) {
+        StringBuilder select = new StringBuilder("select n.id, n.version");
+        for (NoteField field : fields) {
+            switch (field) {
+                case ID, VERSION -> { }
+                case CATEGORY -> select.append(", c.id, c.name");
+                case TITLE -> select.append(", n.title");
+                case CONTENT -> select.append(", n.content");
+                // klucz obcy body_id - bez zlaczenia z note_bodies
+                case LARGE_CONTENT -> select.append(", n.body.id");
+                case CREATED_AT -> select.append(", n.createdAt");
+                case UPDATED_AT -> select.append(", n.updatedAt");
+            }
+        }
+        select.append(" from Note n ");
+        if (fields.contains(NoteField.CATEGORY)) {
+            select.append("left join n.category c ");
+        }
+        select.append(where).append("order by n.id");
+
+        TypedQuery<Tuple> query = entityManager.createQuery(select.toString(), Tuple.class);
+        if (pattern != null) {
+            query.setParameter("pattern", pattern);
+        }
+        List<Tuple> rows = query.getResultList();
+        List<NoteFields> notes = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            notes.add(toNoteFields(row, fields));
+        }
+        return notes;
+    }
+
+    private static NoteFields toNoteFields(Tuple row, Set<NoteField> fields) {
+        Long id = row.get(0, Long.class);
+        Long version = row.get(1, Long.class);
+        Map<String, Object> values = new LinkedHashMap<>();
+        int column = 2;
+        for (NoteField field : fields) {
+            Object value = switch (field) {
+                case ID -> id;
+                case VERSION -> version;
+                case CATEGORY -> {
+                    Long categoryId = row.get(column++, Long.class);
+                    String name = row.get(column++, String.class);
+                    yield categoryId != null ? new CategorySummary(categoryId, name) : null;
+                }
+                case LARGE_CONTENT -> row.get(column++) != null;
+                default -> row.get(column++);
+            };
+            values.put(field.jsonName(), value);
+        }
+        return new NoteFields(id, version, values);
+    }
+}
@@ -0,0 +1,16 @@
+package pl.edu.notes.repository;
+
+import pl.edu.notes.dto.NoteCursor;
+import pl.edu.notes.dto.NoteQuery;
+import pl.edu.notes.dto.NoteView;
+
+import java.util.List;
+
+// Fragment NoteRepository: lista notatek z filtrem po kategorii i zakresach dat, sortowaniem i paginacja keyset
+// warunek WHERE sklada sie tylko z podanych filtrow - kazda kombinacja ma pasujacy indeks (patrz Note)
+public interface NoteQueryRepository {
+
+    // najwyzej limit notatek w kolejnosci query.sort(), zaczynajac zaraz za kursorem (after == null - od poczatku)
+    // kursor to wartosc kolumny sortowania i id ostatniej notatki poprzedniej strony
+    List<NoteView> findPage(NoteQuery query, NoteCursor after, int limit);
+}
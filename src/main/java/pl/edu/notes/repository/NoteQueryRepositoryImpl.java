@@ -0,0 +1,74 @@
+package pl.edu.notes.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import pl.edu.notes.dto.NoteCursor;
+import pl.edu.notes.dto.NoteQuery;
+import pl.edu.notes.dto.NoteSort;
+import pl.edu.notes.dto.NoteView;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Implementacja fragmentu NoteQueryRepository - Spring Data laczy ja z NoteRepository po sufiksie "Impl"
+// zapytanie JPQL z projekcja NoteView budowane z podanych filtrow; kategoria porownywana przez n.category.id,
+// czyli kolumne category_id tabeli notes - rownosc na category_id i zakres na kolumnie sortowania
+// to prefiks indeksu (category_id, kolumna, id), wiec baza czyta tylko jedna strone wierszy, bez sortowania
+class NoteQueryRepositoryImpl implements NoteQueryRepository {
+
+    private final EntityManager entityManager;
+
+    NoteQueryRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<NoteView> findPage(NoteQuery query, NoteCursor after, int limit) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        if (query.categoryId() != null) {
+            conditions.add("n.category.id = :categoryId");
+            parameters.put("categoryId", query.categoryId());
+        }
+        range(conditions, parameters, "createdAt", query.createdFrom(), query.createdTo());
+        range(conditions, parameters, "updatedAt", query.updatedFrom(), query.updatedTo());
+
+        NoteSort sort = query.sort();
+        String column = "n." + sort.field();
+        String direction = sort.descending() ? "desc" : "asc";
+        if (after != null) {
+            // (kolumna, id) za kursorem; warunek "kolumna <= pozycja" jest nadmiarowy, ale w odroznieniu od
+            // samego "or" baza moze go uzyc jako zakresu indeksu - czyta od kursora, a nie od poczatku
+            String beyond = sort.descending() ? "<" : ">";
+            conditions.add(column + " " + beyond + "= :position and (" + column + " " + beyond + " :position or n.id "
+                    + beyond + " :positionId)");
+            parameters.put("position", after.position());
+            parameters.put("positionId", after.id());
+        }
+
+        StringBuilder jpql = new StringBuilder(NoteRepository.NOTE_VIEW);
+        if (!conditions.isEmpty()) {
+            jpql.append("where ").append(String.join(" and ", conditions)).append(' ');
+        }
+        jpql.append("order by ").append(column).append(' ').append(direction)
+                .append(", n.id ").append(direction);
+
+        TypedQuery<NoteView> typed = entityManager.createQuery(jpql.toString(), NoteView.class);
+        parameters.forEach(typed::setParameter);
+        return typed.setMaxResults(limit).getResultList();
+    }
+
+    private static void range(List<String> conditions, Map<String, Object> parameters, String field,
+                              Object from, Object to) {
+        if (from != null) {
+            conditions.add("n." + field + " >= :" + field + "From");
+            parameters.put(field + "From", from);
+        }
+        if (to != null) {
+            conditions.add("n." + field + " < :" + field + "To");
+            parameters.put(field + "To", to);
+        }
+    }
+}
@@ -1,13 +1,100 @@
 package pl.edu.notes.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import pl.edu.notes.dto.CategoryCount;
+import pl.edu.notes.dto.CategoryView;
+import pl.edu.notes.dto.NoteRecord;
+import pl.edu.notes.dto.NoteSummary;
+import pl.edu.notes.dto.NoteView;
 import pl.edu.notes.model.Note;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface NoteRepository extends JpaRepository<Note, Long> {
+public interface NoteRepository extends JpaRepository<Note, Long>, NoteFieldsRepository, NoteQueryRepository {
+
+    // projekcja NoteView - jedno zapytanie z LEFT JOIN do kategorii, bez hydracji encji
+    // n.body.id to kolumna body_id - dluga tresc z note_bodies nie jest czytana
+    String NOTE_VIEW = "select new pl.edu.notes.dto.NoteView(n.id, c.id, c.name, n.title, n.content, n.body.id, "
+            + "n.createdAt, n.updatedAt, n.version) from Note n left join n.category c ";
+
+    // projekcja NoteSummary - same kolumny wiersza notatki, bez zlaczen (n.category.id to kolumna category_id)
+    String NOTE_SUMMARY = "select new pl.edu.notes.dto.NoteSummary(n.id, n.category.id, n.title, n.createdAt, "
+            + "n.updatedAt) from Note n ";
 
     List<Note> findByTitleContainingIgnoreCase(String title);
+
+    @Query(NOTE_VIEW + "order by n.id")
+    List<NoteView> findAllViews();
+
+    // odpowiednik findByTitleContainingIgnoreCase zwracajacy projekcje
+    // escape() - znaki % i _ w zapytaniu uzytkownika traktowane doslownie
+    @Query(NOTE_VIEW + "where lower(n.title) like %?#{escape([0].toLowerCase())}% escape ?#{escapeCharacter()} "
+            + "order by n.id")
+    List<NoteView> searchViewsByTitle(String title);
+
+    @Query(NOTE_VIEW + "where n.id in :ids")
+    List<NoteView> findViewsByIdIn(Collection<Long> ids);
+
+    // notatki wszystkich kategorii jednym zapytaniem - do zlozenia CategoryView
+    @Query("select new pl.edu.notes.dto.CategoryView$NoteItem(n.category.id, n.id, n.title, n.content, "
+            + "n.body.id, n.createdAt, n.updatedAt, n.version) from Note n where n.category is not null order by n.id")
+    List<CategoryView.NoteItem> findAllCategoryItems();
+
+    // liczba notatek w kazdej kategorii - przeliczenie licznikow CategoryStatsService (indeks idx_notes_category_id)
+    @Query("select new pl.edu.notes.dto.CategoryCount(n.category.id, count(n)) from Note n "
+            + "where n.category is not null group by n.category.id")
+    List<CategoryCount> countByCategory();
+
+    // GET /api/notes/recent i /count, gdy replika w pamieci (NoteReadReplica) jest wylaczona
+    @Query(NOTE_SUMMARY + "order by n.updatedAt desc, n.id desc")
+    List<NoteSummary> findRecentSummaries(Limit limit);
+
+    @Query(NOTE_SUMMARY + "where n.category.id = :categoryId order by n.updatedAt desc, n.id desc")
+    List<NoteSummary> findRecentSummariesByCategory(Long categoryId, Limit limit);
+
+    long countByCategoryId(Long categoryId);
+
+    // notatki jednej kategorii - GET /api/categories/{id} (EntityLookupService), po idx_notes_category_id
+    List<Note> findByCategoryIdOrderById(Long categoryId);
+
+    // Feed zmian - notatki utworzone lub zmienione po kursorze (updatedAt, id), od najstarszych
+    // "until" pomija zmiany z ostatniej chwili (patrz NoteSyncService)
+    @Query(NOTE_VIEW + "where (n.updatedAt > :updatedAt or (n.updatedAt = :updatedAt and n.id > :id)) "
+            + "and n.updatedAt < :until order by n.updatedAt, n.id")
+    List<NoteView> findChangedAfter(LocalDateTime updatedAt, Long id, LocalDateTime until, Limit limit);
+
+    // Strumien wszystkich notatek czytany kursorem JDBC - wymaga otwartej transakcji
+    // fetch size ogranicza liczbe wierszy pobieranych z bazy na raz
+    // projekcje nie trafiaja do kontekstu persystencji, wiec pamiec nie rosnie w trakcie czytania
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(NOTE_VIEW + "order by n.id")
+    Stream<NoteView> streamAll();
+
+    // Ladowanie NoteReadReplica - od razu w kolejnosci repliki, po indeksie idx_notes_updated_at_id
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(NOTE_SUMMARY + "order by n.updatedAt, n.id")
+    Stream<NoteSummary> streamSummaries();
+
+    // Eksport i budowa indeksow wyszukiwania - jak streamAll, ale z nazwa kategorii i cala trescia
+    // (LEFT JOIN do note_bodies)
+    // mniejszy fetch size - wiersz z dluga trescia moze miec nawet kilka MB
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    @Query("select new pl.edu.notes.dto.NoteRecord(n.id, c.name, n.title, n.content, b.content, n.createdAt, "
+            + "n.updatedAt) from Note n left join n.category c left join n.body b order by n.id")
+    Stream<NoteRecord> streamRecords();
+
+    // dluga tresc notatki bez ladowania encji - NoteSearchIndexer dla zdarzenia z bodyId
+    @Query("select b.content from NoteBody b where b.id = :id")
+    Optional<String> findBodyContent(Long id);
 }
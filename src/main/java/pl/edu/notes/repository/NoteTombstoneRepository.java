@@ -0,0 +1,20 @@
+package pl.edu.notes.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import pl.edu.notes.model.NoteTombstone;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NoteTombstoneRepository extends JpaRepository<NoteTombstone, Long> {
+
+    // Usuniecia po kursorze (deletedAt, noteId), od najstarszych, tylko te zapisane przed "until"
+    @Query("select t from NoteTombstone t "
+            + "where (t.deletedAt > :deletedAt or (t.deletedAt = :deletedAt and t.noteId > :noteId)) "
+            + "and t.deletedAt < :until order by t.deletedAt, t.noteId")
+    List<NoteTombstone> findDeletedAfter(LocalDateTime deletedAt, Long noteId, LocalDateTime until, Limit limit);
+}
@@ -0,0 +1,339 @@
+package pl.edu.notes.search;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Indeks odwrocony (inverted index) nad tytulem i trescia notatek, trzymany w pamieci
+// slowo -> lista dokumentow w ktorych wystepuje (posting list) + liczba wystapien
+// wyniki sa sortowane wedlug trafnosci algorytmem BM25
+//
+// kazda notatka dostaje wewnetrzny numer dokumentu (docNo); edycja notatki oznacza stary numer
+// jako usuniety i dopisuje nowy - listy postingow sa wiec tylko dopisywane i zawsze posortowane
+// usuniete dokumenty sa fizycznie wyrzucane przez compact() gdy jest ich wiecej niz zywych
+@Component
+public class NoteSearchIndex {
+
+    // standardowe parametry BM25
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // slowa z tytulu licza sie podwojnie - tytul lepiej opisuje notatke niz tresc
+    private static final int TITLE_WEIGHT = 2;
+
+    private static final int MIN_DEAD_DOCS_TO_COMPACT = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<Long, Integer> docNumbers = new HashMap<>();
+    private final BitSet liveDocs = new BitSet();
+    private long[] noteIds = new long[1024];
+    private int[] docLengths = new int[1024];
+    private int nextDocNo;
+    private long totalLiveLength;
+
+    // dodaje lub aktualizuje notatke w indeksie
+    public void index(Long noteId, String title, String content) {
+        Map<String, Integer> termFrequencies = new HashMap<>();
+        for (String token : NoteTokenizer.tokenize(title)) {
+            termFrequencies.merge(token, TITLE_WEIGHT, Integer::sum);
+        }
+        for (String token : NoteTokenizer.tokenize(content)) {
+            termFrequencies.merge(token, 1, Integer::sum);
+        }
+        int length = termFrequencies.values().stream().mapToInt(Integer::intValue).sum();
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(noteId);
+            int docNo = nextDocNo++;
+            ensureCapacity(docNo);
+            noteIds[docNo] = noteId;
+            docLengths[docNo] = length;
+            liveDocs.set(docNo);
+            docNumbers.put(noteId, docNo);
+            totalLiveLength += length;
+            termFrequencies.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new PostingList()).add(docNo, tf));
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long noteId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(noteId);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            docNumbers.clear();
+            liveDocs.clear();
+            nextDocNo = 0;
+            totalLiveLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docNumbers.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // zwraca strone wynikow (page liczone od 0) posortowana malejaco po wyniku BM25
+    // dokument pasuje jesli zawiera chociaz jedno slowo z zapytania
+    public SearchHits search(String query, int page, int size) {
+        Set<String> terms = new LinkedHashSet<>(NoteTokenizer.tokenize(query));
+        if (terms.isEmpty() || size <= 0 || page < 0) {
+            return new SearchHits(0, List.of());
+        }
+
+        lock.readLock().lock();
+        try {
+            int liveCount = docNumbers.size();
+            if (liveCount == 0) {
+                return new SearchHits(0, List.of());
+            }
+            double averageLength = (double) totalLiveLength / liveCount;
+
+            List<PostingList> lists = new ArrayList<>(terms.size());
+            List<Double> idfs = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                PostingList list = postings.get(term);
+                if (list != null) {
+                    lists.add(list);
+                    // df liczony z dlugosci listy - zawiera tez usuniete dokumenty czekajace na compact(),
+                    // co lekko zaniza idf, ale nie wymaga przechowywania slow kazdej notatki
+                    idfs.add(Math.log(1 + (liveCount - list.size + 0.5) / (list.size + 0.5)));
+                }
+            }
+
+            // document-at-a-time: listy postingow sa posortowane po docNo, wiec scalamy je rownolegle
+            // i liczymy pelny wynik dokumentu od razu - bez mapy akumulatorow z pudelkowanymi liczbami
+            int needed = (int) Math.min((long) (page + 1) * size, liveCount);
+            TopK top = new TopK(needed);
+            int[] cursors = new int[lists.size()];
+            long total = 0;
+            while (true) {
+                int docNo = Integer.MAX_VALUE;
+                for (int t = 0; t < lists.size(); t++) {
+                    PostingList list = lists.get(t);
+                    if (cursors[t] < list.size && list.docs[cursors[t]] < docNo) {
+                        docNo = list.docs[cursors[t]];
+                    }
+                }
+                if (docNo == Integer.MAX_VALUE) {
+                    break;
+                }
+                double score = 0;
+                double norm = K1 * (1 - B + B * docLengths[docNo] / averageLength);
+                for (int t = 0; t < lists.size(); t++) {
+                    PostingList list = lists.get(t);
+                    if (cursors[t] < list.size && list.docs[cursors[t]] == docNo) {
+                        int tf = list.frequencies[cursors[t]++];
+                        score += idfs.get(t) * tf * (K1 + 1) / (tf + norm);
+                    }
+                }
+                if (liveDocs.get(docNo)) {
+                    total++;
+                    top.offer(docNo, score);
+                }
+            }
+
+            int[] ranked = top.sortedDocs();
+            List<Long> pageIds = new ArrayList<>(size);
+            for (int i = page * size; i < ranked.length; i++) {
+                pageIds.add(noteIds[ranked[i]]);
+            }
+            return new SearchHits(total, List.copyOf(pageIds));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeInternal(Long noteId) {
+        Integer docNo = docNumbers.remove(noteId);
+        if (docNo != null) {
+            liveDocs.clear(docNo);
+            totalLiveLength -= docLengths[docNo];
+        }
+    }
+
+    private void compactIfNeeded() {
+        int deadDocs = nextDocNo - docNumbers.size();
+        if (deadDocs > Math.max(MIN_DEAD_DOCS_TO_COMPACT, docNumbers.size())) {
+            compact();
+        }
+    }
+
+    // przepisuje listy postingow bez usunietych dokumentow i nadaje nowe, ciagle numery
+    private void compact() {
+        int[] remap = new int[nextDocNo];
+        int newDocNo = 0;
+        for (int docNo = 0; docNo < nextDocNo; docNo++) {
+            if (liveDocs.get(docNo)) {
+                remap[docNo] = newDocNo;
+                noteIds[newDocNo] = noteIds[docNo];
+                docLengths[newDocNo] = docLengths[docNo];
+                newDocNo++;
+            } else {
+                remap[docNo] = -1;
+            }
+        }
+        postings.values().removeIf(list -> list.compact(remap) == 0);
+        docNumbers.replaceAll((noteId, docNo) -> remap[docNo]);
+        liveDocs.clear();
+        liveDocs.set(0, newDocNo);
+        nextDocNo = newDocNo;
+    }
+
+    private void ensureCapacity(int docNo) {
+        if (docNo >= noteIds.length) {
+            int newLength = noteIds.length * 2;
+            noteIds = Arrays.copyOf(noteIds, newLength);
+            docLengths = Arrays.copyOf(docLengths, newLength);
+        }
+    }
+
+    // wynik wyszukiwania: liczba wszystkich trafien i id notatek z zadanej strony
+    public record SearchHits(long total, List<Long> noteIds) {
+    }
+
+    // kopiec minimum o stalej pojemnosci na tablicach prymitywow - trzyma k najlepszych dokumentow
+    // przy rownym wyniku wygrywa nowszy dokument (wiekszy docNo)
+    private static final class TopK {
+
+        private final int[] docs;
+        private final double[] scores;
+        private int size;
+
+        TopK(int capacity) {
+            docs = new int[capacity];
+            scores = new double[capacity];
+        }
+
+        void offer(int docNo, double score) {
+            if (docs.length == 0) {
+                return;
+            }
+            if (size < docs.length) {
+                docs[size] = docNo;
+                scores[size] = score;
+                siftUp(size++);
+            } else if (weaker(0, docNo, score)) {
+                docs[0] = docNo;
+                scores[0] = score;
+                siftDown(0);
+            }
+        }
+
+        // dokumenty od najlepszego do najslabszego; kopiec jest po tym pusty
+        int[] sortedDocs() {
+            int[] sorted = new int[size];
+            for (int i = size - 1; i >= 0; i--) {
+                sorted[i] = docs[0];
+                docs[0] = docs[--size];
+                scores[0] = scores[size];
+                siftDown(0);
+            }
+            return sorted;
+        }
+
+        // czy element kopca na pozycji i jest slabszy od (docNo, score)
+        private boolean weaker(int i, int docNo, double score) {
+            return scores[i] < score || (scores[i] == score && docs[i] < docNo);
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (!weaker(i, docs[parent], scores[parent])) {
+                    break;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int left = 2 * i + 1;
+                int right = left + 1;
+                int smallest = i;
+                if (left < size && weaker(left, docs[smallest], scores[smallest])) {
+                    smallest = left;
+                }
+                if (right < size && weaker(right, docs[smallest], scores[smallest])) {
+                    smallest = right;
+                }
+                if (smallest == i) {
+                    return;
+                }
+                swap(i, smallest);
+                i = smallest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int doc = docs[a];
+            docs[a] = docs[b];
+            docs[b] = doc;
+            double score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+        }
+    }
+
+    // lista postingow na tablicach int - bez pudelkowania i bez obiektu na kazdy wpis
+    private static final class PostingList {
+
+        private int[] docs = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+
+        void add(int docNo, int frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = docNo;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+        int compact(int[] remap) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int newDocNo = remap[docs[i]];
+                if (newDocNo >= 0) {
+                    docs[kept] = newDocNo;
+                    frequencies[kept] = frequencies[i];
+                    kept++;
+                }
+            }
+            size = kept;
+            return kept;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package pl.edu.notes.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.edu.notes.dto.NoteRecord;
+import pl.edu.notes.event.NoteChangedEvent;
+import pl.edu.notes.event.StreamingRebuild;
+import pl.edu.notes.repository.NoteRepository;
+
+// Utrzymuje NoteSearchIndex i TitleSuggestIndex w zgodzie z baza danych:
+// - po starcie aplikacji buduje oba indeksy jednym strumieniowym przejsciem po wszystkich notatkach
+//   (cala tresc, takze dluga z note_bodies - slowa spoza podgladu tez sa wyszukiwane)
+//   (notes.search.async-rebuild=true - w osobnym watku, bez wstrzymywania startu; do konca budowy
+//   readiness zwraca 503 - SearchIndexHealthIndicator)
+// - potem aktualizuje je przyrostowo po kazdej zatwierdzonej zmianie notatki
+@Component
+public class NoteSearchIndexer {
+
+    private static final Logger log = LoggerFactory.getLogger(NoteSearchIndexer.class);
+
+    private final NoteSearchIndex searchIndex;
+    private final TitleSuggestIndex suggestIndex;
+    private final NoteRepository noteRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final StreamingRebuild streamingRebuild;
+    private final boolean asyncRebuild;
+
+    // indeksy zawieraja wszystkie notatki - false przed pierwsza budowa i w trakcie budowy w tle
+    private volatile boolean ready;
+
+    public NoteSearchIndexer(NoteSearchIndex searchIndex, TitleSuggestIndex suggestIndex,
+                             NoteRepository noteRepository, PlatformTransactionManager transactionManager,
+                             @Value("${notes.search.async-rebuild:false}") boolean asyncRebuild) {
+        this.searchIndex = searchIndex;
+        this.suggestIndex = suggestIndex;
+        this.noteRepository = noteRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.streamingRebuild = new StreamingRebuild(this, readOnlyTransaction);
+        this.asyncRebuild = asyncRebuild;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (asyncRebuild) {
+            ready = false;
+            Thread rebuilder = new Thread(this::rebuild, "search-index-rebuild");
+            rebuilder.setDaemon(true);
+            rebuilder.start();
+        } else {
+            rebuild();
+        }
+    }
+
+    // Tomcat przyjmuje zadania juz w trakcie budowy - zmiany notatek trafiaja do indeksow rownolegle ze strumieniem
+    public void rebuild() {
+        long start = System.nanoTime();
+        streamingRebuild.rebuild(() -> {
+            searchIndex.clear();
+            suggestIndex.clear();
+        }, noteRepository::streamRecords, NoteRecord::id, note -> {
+            searchIndex.index(note.id(), note.title(), note.content());
+            suggestIndex.put(note.id(), note.title(), note.updatedAt());
+        });
+        ready = true;
+        log.info("Indeksy wyszukiwania zbudowane: {} notatek w {} ms",
+                searchIndex.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNoteChanged(NoteChangedEvent event) {
+        // doczytanie dlugiej tresci przed wejsciem pod monitor - nie wstrzymuje budowy ani innych zmian
+        String content = event.type() != NoteChangedEvent.ChangeType.DELETED ? fullContent(event) : null;
+        streamingRebuild.applyChange(event.noteId(), () -> {
+            switch (event.type()) {
+                case CREATED, UPDATED -> {
+                    searchIndex.index(event.noteId(), event.title(), content);
+                    suggestIndex.put(event.noteId(), event.title(), event.updatedAt());
+                }
+                case DELETED -> {
+                    searchIndex.remove(event.noteId());
+                    suggestIndex.remove(event.noteId());
+                }
+            }
+        });
+    }
+
+    // zdarzenie z bodyId niesie tylko poczatek dlugiej tresci - reszta z bazy (tylko zmiany bez nowej tresci)
+    private String fullContent(NoteChangedEvent event) {
+        if (event.bodyId() == null) {
+            return event.content();
+        }
+        return readOnlyTransaction.execute(status -> noteRepository.findBodyContent(event.bodyId()))
+                .orElse(event.content());
+    }
+}
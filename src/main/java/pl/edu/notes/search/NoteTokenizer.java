@@ -0,0 +1,49 @@
+package pl.edu.notes.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Tokenizer dla wyszukiwania pelnotekstowego
+// dzieli tekst na slowa (litery i cyfry), zamienia na male litery
+// i usuwa polskie znaki diakrytyczne (ą -> a, ł -> l, ż -> z ...)
+// dzieki temu zapytanie "zolw" znajdzie notatke ze slowem "Żółw"
+public final class NoteTokenizer {
+
+    private NoteTokenizer() {}
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                current.append(fold(c));
+            } else if (!current.isEmpty()) {
+                tokens.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (!current.isEmpty()) {
+            tokens.add(current.toString());
+        }
+        return tokens;
+    }
+
+    // zamiana znaku na mala litere bez polskich znakow - bez Normalizera, bo jest na goracej sciezce
+    static char fold(char c) {
+        return switch (c) {
+            case 'ą', 'Ą' -> 'a';
+            case 'ć', 'Ć' -> 'c';
+            case 'ę', 'Ę' -> 'e';
+            case 'ł', 'Ł' -> 'l';
+            case 'ń', 'Ń' -> 'n';
+            case 'ó', 'Ó' -> 'o';
+            case 'ś', 'Ś' -> 's';
+            case 'ź', 'Ź', 'ż', 'Ż' -> 'z';
+            default -> Character.toLowerCase(c);
+        };
+    }
+}
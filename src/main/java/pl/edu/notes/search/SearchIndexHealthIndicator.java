@@ -0,0 +1,23 @@
+package pl.edu.notes.search;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+// Stan indeksow wyszukiwania w /actuator/health (skladnik "searchIndex") - OUT_OF_SERVICE do konca ich budowy
+// profil prod dolacza go do grupy readiness: Spring Boot zglasza ReadinessState.ACCEPTING_TRAFFIC zaraz po
+// ApplicationReadyEvent, a przy budowie w tle (profil "fast") indeksy nie zawieraja jeszcze wszystkich notatek
+@Component
+public class SearchIndexHealthIndicator implements HealthIndicator {
+
+    private final NoteSearchIndexer indexer;
+
+    public SearchIndexHealthIndicator(NoteSearchIndexer indexer) {
+        this.indexer = indexer;
+    }
+
+    @Override
+    public Health health() {
+        return indexer.isReady() ? Health.up().build() : Health.outOfService().build();
+    }
+}
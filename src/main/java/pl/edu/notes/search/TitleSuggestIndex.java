@@ -0,0 +1,341 @@
+package pl.edu.notes.search;
+
+import org.springframework.stereotype.Component;
+import pl.edu.notes.dto.TitleSuggestion;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Podpowiedzi tytulow po prefiksie - drzewo prefiksowe (trie) nad tytulami w pamieci
+// tytuly porownywane bez wielkosci liter i polskich znakow (NoteTokenizer.fold), "zol" pasuje do "Żółw"
+// wynik: co najwyzej MAX_SUGGESTIONS notatek z pasujacym tytulem, od ostatnio zmienionych (updatedAt)
+//
+// trie "kubelkowe" - zeby nie trzymac osobnego wezla dla kazdej litery kazdego tytulu:
+// - kubelek (lisc) to zwykla lista notatek o wspolnym prefiksie; rozbijany na wezly po BUCKET_SIZE wpisach
+// - wezel wewnetrzny pamieta MAX_SUGGESTIONS najnowszych notatek z calego poddrzewa
+// zapytanie schodzi po literach prefiksu: konczy sie na wezle (gotowa lista) albo w kubelku
+// (przejrzenie najwyzej BUCKET_SIZE wpisow) - czas zalezy od dlugosci prefiksu, nie od liczby notatek
+@Component
+public class TitleSuggestIndex {
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private static final int BUCKET_SIZE = 64;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Node root = new Node();
+    private final Map<Long, Entry> entries = new HashMap<>();
+
+    // dodaje lub aktualizuje tytul notatki
+    public void put(Long noteId, String title, LocalDateTime updatedAt) {
+        Entry entry = new Entry(noteId, title != null ? title : "", recency(updatedAt));
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.put(noteId, entry);
+            if (previous != null) {
+                removeInternal(previous);
+            }
+            insert(entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long noteId) {
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.remove(noteId);
+            if (previous != null) {
+                removeInternal(previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            root = new Node();
+            entries.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // pusty prefiks - ostatnio zmienione notatki
+    public List<TitleSuggestion> suggest(String prefix, int limit) {
+        int size = Math.max(0, Math.min(limit, MAX_SUGGESTIONS));
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int depth = 0;
+            while (node.isInternal() && depth < prefix.length()) {
+                node = node.child(NoteTokenizer.fold(prefix.charAt(depth)));
+                if (node == null) {
+                    return List.of();
+                }
+                depth++;
+            }
+            if (node.isInternal()) {
+                return toSuggestions(node.top, Math.min(size, node.topSize));
+            }
+            // kubelek - wpisy maja wspolne tylko pierwsze depth znakow, reszte prefiksu sprawdzamy
+            Entry[] best = new Entry[size];
+            int found = 0;
+            for (Entry entry : node.entries) {
+                if (entry.matches(prefix, depth)) {
+                    found = offer(best, found, entry);
+                }
+            }
+            return toSuggestions(best, found);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void insert(Entry entry) {
+        Node node = root;
+        int depth = 0;
+        while (node.isInternal()) {
+            node.topSize = offer(node.top, node.topSize, entry);
+            if (depth == entry.length()) {
+                node.entries.add(entry);
+                return;
+            }
+            char c = entry.charAt(depth);
+            Node child = node.child(c);
+            if (child == null) {
+                child = node.addChild(c);
+            }
+            node = child;
+            depth++;
+        }
+        node.entries.add(entry);
+        if (node.entries.size() > BUCKET_SIZE) {
+            burst(node, depth);
+        }
+    }
+
+    // kubelek zamieniany na wezel wewnetrzny: wpisy rozdzielane na kubelki wedlug kolejnej litery,
+    // tytuly konczace sie na tym wezle zostaja w nim (identycznych tytulow nie da sie rozdzielic)
+    private void burst(Node node, int depth) {
+        List<Entry> bucket = node.entries;
+        node.entries = new ArrayList<>();
+        node.top = new Entry[MAX_SUGGESTIONS];
+        node.topSize = 0;
+        node.labels = new char[0];
+        node.children = new Node[0];
+        for (Entry entry : bucket) {
+            node.topSize = offer(node.top, node.topSize, entry);
+            if (depth == entry.length()) {
+                node.entries.add(entry);
+                continue;
+            }
+            char c = entry.charAt(depth);
+            Node child = node.child(c);
+            if (child == null) {
+                child = node.addChild(c);
+            }
+            child.entries.add(entry);
+        }
+        for (Node child : node.children) {
+            if (child.entries.size() > BUCKET_SIZE) {
+                burst(child, depth + 1);
+            }
+        }
+    }
+
+    // usuniecie z kubelka (albo z wezla, na ktorym konczy sie tytul) i odswiezenie list najnowszych
+    // na sciezce - tylko w wezlach, w ktorych usuwany wpis na tej liscie byl
+    private void removeInternal(Entry entry) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        int depth = 0;
+        while (node.isInternal() && depth < entry.length()) {
+            path.add(node);
+            node = node.child(entry.charAt(depth));
+            depth++;
+        }
+        node.entries.remove(entry);
+        if (node.isInternal()) {
+            path.add(node);
+        } else if (node.entries.isEmpty() && !path.isEmpty()) {
+            path.get(path.size() - 1).removeChild(entry.charAt(depth - 1));
+        }
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node parent = path.get(i);
+            if (parent.topContains(entry)) {
+                recomputeTop(parent);
+            }
+        }
+    }
+
+    // najnowsze wpisy wezla z list dzieci (wezly) i wpisow kubelkow - bez schodzenia glebiej
+    private static void recomputeTop(Node node) {
+        Entry[] top = new Entry[MAX_SUGGESTIONS];
+        int size = 0;
+        for (Entry entry : node.entries) {
+            size = offer(top, size, entry);
+        }
+        for (Node child : node.children) {
+            if (child.isInternal()) {
+                for (int i = 0; i < child.topSize; i++) {
+                    size = offer(top, size, child.top[i]);
+                }
+            } else {
+                for (Entry entry : child.entries) {
+                    size = offer(top, size, entry);
+                }
+            }
+        }
+        node.top = top;
+        node.topSize = size;
+    }
+
+    // wstawia wpis do listy posortowanej od najnowszych, jesli jest nowszy od ostatniego; zwraca nowy rozmiar
+    private static int offer(Entry[] top, int size, Entry entry) {
+        if (top.length == 0 || (size == top.length && !entry.newerThan(top[size - 1]))) {
+            return size;
+        }
+        int position = size == top.length ? size - 1 : size;
+        while (position > 0 && entry.newerThan(top[position - 1])) {
+            top[position] = top[position - 1];
+            position--;
+        }
+        top[position] = entry;
+        return Math.min(size + 1, top.length);
+    }
+
+    private static List<TitleSuggestion> toSuggestions(Entry[] entries, int size) {
+        List<TitleSuggestion> suggestions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            suggestions.add(new TitleSuggestion(entries[i].noteId, entries[i].title));
+        }
+        return suggestions;
+    }
+
+    // mikrosekundy od epoki - porownanie dwoch liczb zamiast LocalDateTime; brak daty = najstarsza
+    private static long recency(LocalDateTime updatedAt) {
+        if (updatedAt == null) {
+            return Long.MIN_VALUE;
+        }
+        return updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + updatedAt.getNano() / 1_000;
+    }
+
+    // tytul trzymany raz - znaki do porownan skladane (fold) w locie, fold nie zmienia dlugosci tekstu
+    private static final class Entry {
+
+        private final long noteId;
+        private final String title;
+        private final long recency;
+
+        private Entry(long noteId, String title, long recency) {
+            this.noteId = noteId;
+            this.title = title;
+            this.recency = recency;
+        }
+
+        private int length() {
+            return title.length();
+        }
+
+        private char charAt(int index) {
+            return NoteTokenizer.fold(title.charAt(index));
+        }
+
+        // od tego samego czasu - wyzsze id (notatka utworzona pozniej) pierwsza
+        private boolean newerThan(Entry other) {
+            return recency > other.recency || (recency == other.recency && noteId > other.noteId);
+        }
+
+        private boolean matches(String prefix, int from) {
+            if (prefix.length() > title.length()) {
+                return false;
+            }
+            for (int i = from; i < prefix.length(); i++) {
+                if (charAt(i) != NoteTokenizer.fold(prefix.charAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    // kubelek: children == null, entries - wszystkie wpisy poddrzewa
+    // wezel wewnetrzny: dzieci posortowane po literze (wyszukiwanie binarne), entries - tytuly konczace sie tutaj,
+    // top - MAX_SUGGESTIONS najnowszych wpisow poddrzewa
+    private static final class Node {
+
+        private List<Entry> entries = new ArrayList<>();
+        private char[] labels;
+        private Node[] children;
+        private Entry[] top;
+        private int topSize;
+
+        private boolean isInternal() {
+            return children != null;
+        }
+
+        private Node child(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private Node addChild(char label) {
+            int index = -Arrays.binarySearch(labels, label) - 1;
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(labels, index, newLabels, index + 1, labels.length - index);
+            System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+            Node child = new Node();
+            newLabels[index] = label;
+            newChildren[index] = child;
+            labels = newLabels;
+            children = newChildren;
+            return child;
+        }
+
+        private void removeChild(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index < 0) {
+                return;
+            }
+            char[] newLabels = new char[labels.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, newLabels, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(labels, index + 1, newLabels, index, labels.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            labels = newLabels;
+            children = newChildren;
+        }
+
+        private boolean topContains(Entry entry) {
+            for (int i = 0; i < topSize; i++) {
+                if (top[i] == entry) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
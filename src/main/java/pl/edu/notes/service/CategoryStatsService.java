@@ -0,0 +1,109 @@
+package pl.edu.notes.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import pl.edu.notes.dto.CategoryCount;
+import pl.edu.notes.dto.CategoryStats;
+import pl.edu.notes.event.NoteChangedEvent;
+import pl.edu.notes.repository.CategoryRepository;
+import pl.edu.notes.repository.NoteRepository;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Liczniki notatek w kategoriach trzymane w pamieci
+// - po starcie i co notes.category-stats.reconcile-interval-ms: pelne przeliczenie jednym zapytaniem GROUP BY
+// - pomiedzy przeliczeniami: aktualizacja przyrostowa po kazdej zatwierdzonej zmianie notatki (NoteChangedEvent)
+// odczyt statystyk to jedno zapytanie o kategorie i odczyt licznikow - koszt zalezy od liczby kategorii, nie notatek
+// zmiana zatwierdzona w trakcie przeliczenia moze zostac policzona dwa razy albo wcale - wyrownuje to kolejne przeliczenie
+@Service
+public class CategoryStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(CategoryStatsService.class);
+
+    private final NoteRepository noteRepository;
+    private final CategoryRepository categoryRepository;
+
+    private volatile Map<Long, LongAdder> counts = new ConcurrentHashMap<>();
+    private volatile boolean reconciled;
+
+    public CategoryStatsService(NoteRepository noteRepository, CategoryRepository categoryRepository) {
+        this.noteRepository = noteRepository;
+        this.categoryRepository = categoryRepository;
+    }
+
+    public List<CategoryStats> stats() {
+        Map<Long, LongAdder> current = counts;
+        return categoryRepository.findAllSummaries().stream()
+                .map(category -> new CategoryStats(category.id(), category.name(), sum(current.get(category.id()))))
+                .toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${notes.category-stats.reconcile-interval-ms:300000}",
+            fixedDelayString = "${notes.category-stats.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        Map<Long, LongAdder> fresh = new ConcurrentHashMap<>();
+        for (CategoryCount row : noteRepository.countByCategory()) {
+            LongAdder count = new LongAdder();
+            count.add(row.count());
+            fresh.put(row.categoryId(), count);
+        }
+        Map<Long, LongAdder> previous = counts;
+        counts = fresh;
+        if (reconciled) {
+            int drifted = drifted(previous, fresh);
+            if (drifted > 0) {
+                log.info("Przeliczenie licznikow: {} kategorii odbiegalo od bazy", drifted);
+            }
+        }
+        reconciled = true;
+    }
+
+    // licznik usunietej kategorii spada do zera przez zdarzenia DELETED jej notatek
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNoteChanged(NoteChangedEvent event) {
+        switch (event.type()) {
+            case CREATED -> add(event.categoryId(), 1);
+            case DELETED -> add(event.categoryId(), -1);
+            case UPDATED -> {
+                if (!Objects.equals(event.categoryId(), event.previousCategoryId())) {
+                    add(event.previousCategoryId(), -1);
+                    add(event.categoryId(), 1);
+                }
+            }
+        }
+    }
+
+    private void add(Long categoryId, int delta) {
+        if (categoryId != null) {
+            counts.computeIfAbsent(categoryId, id -> new LongAdder()).add(delta);
+        }
+    }
+
+    private static int drifted(Map<Long, LongAdder> previous, Map<Long, LongAdder> fresh) {
+        Set<Long> categoryIds = new HashSet<>(previous.keySet());
+        categoryIds.addAll(fresh.keySet());
+        int drifted = 0;
+        for (Long categoryId : categoryIds) {
+            if (sum(previous.get(categoryId)) != sum(fresh.get(categoryId))) {
+                drifted++;
+            }
+        }
+        return drifted;
+    }
+
+    private static long sum(LongAdder count) {
+        return count != null ? count.sum() : 0;
+    }
+}
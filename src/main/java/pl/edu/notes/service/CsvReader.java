@@ -0,0 +1,110 @@
+package pl.edu.notes.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// Odczyt CSV wg RFC 4180 rekord po rekordzie - w pamieci jest tylko biezacy rekord
+// pole w cudzyslowie moze zawierac przecinki i znaki nowej linii, "" wewnatrz oznacza "
+// maxRecordLength - rekord dluzszy konczy odczyt bledem, zamiast zajmowac pamiec bez ograniczen
+final class CsvReader {
+
+    private static final int EOF = -1;
+
+    private final Reader in;
+    private final int maxRecordLength;
+    private long line = 1;
+    private int pushedBack = EOF;
+    private boolean started;
+    // znaki biezacego rekordu i wiersz, w ktorym sie zaczal
+    private int recordLength;
+    private long recordLine;
+
+    // in powinien byc buforowany - znaki czytane sa pojedynczo
+    CsvReader(Reader in, int maxRecordLength) {
+        this.in = in;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    // null na koncu pliku; pusta linia to rekord z jednym pustym polem
+    List<String> readRecord() throws IOException {
+        int c = read();
+        if (!started) {
+            started = true;
+            // BOM UTF-8 dodawany przez niektore arkusze kalkulacyjne
+            if (c == '\uFEFF') {
+                c = read();
+            }
+        }
+        if (c == EOF) {
+            return null;
+        }
+        recordLine = line;
+        recordLength = 0;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        while (true) {
+            if (c == '"' && field.isEmpty()) {
+                c = readQuoted(field);
+            }
+            if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == EOF) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        pushedBack = next;
+                    }
+                }
+                if (c != EOF) {
+                    line++;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                append(field, c);
+            }
+            c = read();
+        }
+    }
+
+    // tresc pola w cudzyslowie - zwraca pierwszy znak po cudzyslowie zamykajacym
+    private int readQuoted(StringBuilder field) throws IOException {
+        while (true) {
+            int c = read();
+            if (c == EOF) {
+                throw new IllegalArgumentException("Niezamknięty cudzysłów w rekordzie CSV z wiersza " + recordLine);
+            }
+            if (c == '"') {
+                int next = read();
+                if (next != '"') {
+                    if (next != ',' && next != '\r' && next != '\n' && next != EOF) {
+                        throw new IllegalArgumentException("Nieoczekiwany znak po cudzysłowie w wierszu " + line);
+                    }
+                    return next;
+                }
+            } else if (c == '\n') {
+                line++;
+            }
+            append(field, c);
+        }
+    }
+
+    private void append(StringBuilder field, int c) {
+        if (++recordLength > maxRecordLength) {
+            throw new IllegalArgumentException("Rekord CSV z wiersza " + recordLine + " jest za długi");
+        }
+        field.append((char) c);
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != EOF) {
+            int c = pushedBack;
+            pushedBack = EOF;
+            return c;
+        }
+        return in.read();
+    }
+}
@@ -0,0 +1,226 @@
+package pl.edu.notes.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.edu.notes.dto.BatchItemResult;
+import pl.edu.notes.model.Category;
+import pl.edu.notes.model.Note;
+import pl.edu.notes.repository.CategoryRepository;
+import pl.edu.notes.repository.NoteRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Operacje wsadowe na notatkach - tysiace notatek w jednym zadaniu
+// 1. walidacja wszystkich pozycji w jednym przebiegu (bez bazy)
+// 2. jedno zapytanie o wszystkie potrzebne kategorie / notatki (przy zmianach - na porcje)
+// 3. zapis poprawnych pozycji - Hibernate wysyla je batchami JDBC (hibernate.jdbc.batch_size)
+// bledna pozycja dostaje wlasny wynik z bledami i nie przerywa calej paczki
+@Service
+public class NoteBatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(NoteBatchService.class);
+
+    public static final int MAX_BATCH_SIZE = 5000;
+
+    // co tyle pozycji flush + clear - kontekst persystencji nie rosnie z rozmiarem paczki
+    private static final int FLUSH_EVERY = 500;
+
+    private final NoteRepository noteRepository;
+    private final CategoryRepository categoryRepository;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final NoteDeletionService noteDeletionService;
+    private final TransactionTemplate transactionTemplate;
+
+    public NoteBatchService(NoteRepository noteRepository, CategoryRepository categoryRepository,
+                            EntityManager entityManager, Validator validator, NoteDeletionService noteDeletionService,
+                            TransactionTemplate transactionTemplate) {
+        this.noteRepository = noteRepository;
+        this.categoryRepository = categoryRepository;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.noteDeletionService = noteDeletionService;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Transactional
+    public List<BatchItemResult> createAll(List<Note> notes) {
+        Map<Long, Category> categories = loadCategories(notes);
+        List<BatchItemResult> results = new ArrayList<>(notes.size());
+        int pending = 0;
+        for (int i = 0; i < notes.size(); i++) {
+            Note input = notes.get(i);
+            List<String> errors = validate(input, categories);
+            if (!errors.isEmpty()) {
+                results.add(BatchItemResult.failure(i, null, HttpStatus.BAD_REQUEST.value(), errors));
+                continue;
+            }
+            Note note = new Note(input.getTitle(), input.getContent());
+            note.setCategory(resolveCategory(input, categories));
+            entityManager.persist(note);
+            results.add(BatchItemResult.success(i, note.getId(), HttpStatus.CREATED.value()));
+            pending = flushIfNeeded(pending + 1);
+        }
+        return results;
+    }
+
+    // porcje po FLUSH_EVERY notatek, kazda we wlasnej transakcji - kontekst persystencji nie rosnie z rozmiarem paczki
+    // blad zapisu porcji (konflikt wersji z rownoleglym zapisem, klucz obcy) - porcja ponawiana pozycja po pozycji,
+    // zeby jedna notatka nie cofala pozostalych; notatka zmieniona od odczytu w porcji dostaje 409
+    public List<BatchItemResult> updateAll(List<Note> notes) {
+        Map<Long, Category> categories = loadCategories(notes);
+        List<BatchItemResult> results = new ArrayList<>(notes.size());
+        for (int from = 0; from < notes.size(); from += FLUSH_EVERY) {
+            int to = Math.min(from + FLUSH_EVERY, notes.size());
+            // wersje odczytane w porcji - ponowienie pojedynczej pozycji nie nadpisuje zmiany, z ktora sie minela
+            Map<Long, Long> readVersions = new HashMap<>();
+            try {
+                int chunkFrom = from;
+                results.addAll(transactionTemplate.execute(
+                        status -> updateChunk(notes, chunkFrom, to, categories, readVersions)));
+            } catch (DataAccessException e) {
+                log.warn("Zapis porcji {} notatek nie powiodl sie, ponawianie pojedynczo: {}", to - from, e.getMessage());
+                for (int i = from; i < to; i++) {
+                    results.add(updateSingle(notes, i, categories, readVersions));
+                }
+            }
+        }
+        return results;
+    }
+
+    private BatchItemResult updateSingle(List<Note> notes, int index, Map<Long, Category> categories,
+                                         Map<Long, Long> readVersions) {
+        try {
+            return transactionTemplate.execute(
+                    status -> updateChunk(notes, index, index + 1, categories, readVersions)).get(0);
+        } catch (OptimisticLockingFailureException e) {
+            return BatchItemResult.failure(index, notes.get(index).getId(), HttpStatus.CONFLICT.value(),
+                    List.of("version: Notatka została zmieniona przez inne żądanie"));
+        } catch (DataIntegrityViolationException e) {
+            return BatchItemResult.failure(index, notes.get(index).getId(), HttpStatus.BAD_REQUEST.value(),
+                    List.of("category: Kategoria nie istnieje"));
+        }
+    }
+
+    private List<BatchItemResult> updateChunk(List<Note> notes, int from, int to, Map<Long, Category> categories,
+                                              Map<Long, Long> readVersions) {
+        Set<Long> ids = notes.subList(from, to).stream()
+                .map(Note::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Note> existing = noteRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Note::getId, Function.identity()));
+
+        List<BatchItemResult> results = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            Note input = notes.get(i);
+            if (input.getId() == null) {
+                results.add(BatchItemResult.failure(i, null, HttpStatus.BAD_REQUEST.value(),
+                        List.of("id: Brak identyfikatora notatki")));
+                continue;
+            }
+            Note note = existing.get(input.getId());
+            if (note == null) {
+                results.add(BatchItemResult.failure(i, input.getId(), HttpStatus.NOT_FOUND.value(),
+                        List.of("id: Notatka nie istnieje")));
+                continue;
+            }
+            Long readVersion = readVersions.putIfAbsent(note.getId(), note.getVersion());
+            if (readVersion != null && !readVersion.equals(note.getVersion())) {
+                results.add(BatchItemResult.failure(i, input.getId(), HttpStatus.CONFLICT.value(),
+                        List.of("version: Notatka została zmieniona przez inne żądanie")));
+                continue;
+            }
+            List<String> errors = validate(input, categories);
+            if (!errors.isEmpty()) {
+                results.add(BatchItemResult.failure(i, input.getId(), HttpStatus.BAD_REQUEST.value(), errors));
+                continue;
+            }
+            note.setTitle(input.getTitle());
+            note.setContent(input.getContent());
+            note.setCategory(resolveCategory(input, categories));
+            results.add(BatchItemResult.success(i, note.getId(), HttpStatus.OK.value()));
+        }
+        // batch UPDATE porcji jeszcze w tej transakcji - przez repozytorium, zeby blad mial postac DataAccessException
+        noteRepository.flush();
+        return results;
+    }
+
+    // jeden UPDATE oznaczajacy jako usuniete wszystkie notatki paczki (NoteDeletionService) - bez ladowania encji
+    @Transactional
+    public List<BatchItemResult> deleteAll(List<Long> ids) {
+        Set<Long> deleted = new HashSet<>(noteDeletionService.deleteNotes(
+                ids.stream().filter(Objects::nonNull).toList()));
+
+        List<BatchItemResult> results = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            // powtorzone id - usuniete przy pierwszym wystapieniu, kolejne dostaja 404 jak dotad
+            if (id == null || !deleted.remove(id)) {
+                results.add(BatchItemResult.failure(i, id, HttpStatus.NOT_FOUND.value(),
+                        List.of("id: Notatka nie istnieje")));
+                continue;
+            }
+            results.add(BatchItemResult.success(i, id, HttpStatus.NO_CONTENT.value()));
+        }
+        return results;
+    }
+
+    private int flushIfNeeded(int pending) {
+        if (pending < FLUSH_EVERY) {
+            return pending;
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return 0;
+    }
+
+    // wszystkie kategorie wskazane w paczce pobierane jednym zapytaniem
+    private Map<Long, Category> loadCategories(List<Note> notes) {
+        Set<Long> categoryIds = notes.stream()
+                .map(Note::getCategory)
+                .filter(Objects::nonNull)
+                .map(Category::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (categoryIds.isEmpty()) {
+            return Map.of();
+        }
+        return categoryRepository.findAllById(categoryIds).stream()
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+    }
+
+    private List<String> validate(Note note, Map<Long, Category> categories) {
+        List<String> errors = new ArrayList<>();
+        for (ConstraintViolation<Note> violation : validator.validate(note)) {
+            errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        Category category = note.getCategory();
+        if (category != null && (category.getId() == null || !categories.containsKey(category.getId()))) {
+            errors.add("category: Kategoria nie istnieje");
+        }
+        return errors;
+    }
+
+    private Category resolveCategory(Note input, Map<Long, Category> categories) {
+        return input.getCategory() != null ? categories.get(input.getCategory().getId()) : null;
+    }
+}
@@ -0,0 +1,117 @@
+package pl.edu.notes.service;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import pl.edu.notes.event.NoteChangedEvent;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Usuwanie notatek i kategorii (soft delete) razem z nagrobkami dla feedu zmian (NoteSyncService)
+// usuniecie to tylko UPDATE ustawiajacy deleted i deleted_at - bez ladowania encji i bez kaskady Hibernate
+// po notatkach kategorii; od commitu wiersze nie sa widoczne dla odczytow (@SQLRestriction na Note i Category), a fizycznie usuwa je
+// w tle NotePurgeService paczkami
+// - OLD TABLE (tabela zmian H2) zwraca oznaczone wiersze w tym samym obiegu do bazy - z nich powstaja nagrobki
+//   i NoteChangedEvent dla indeksow, repliki, licznikow i cache (tylko H2, jak NotePatchService)
+// - nagrobki zapisywane sa w tej samej transakcji co UPDATE - albo oba, albo zaden
+// - JDBC omija NoteEntityListener, wiec zdarzenia publikujemy sami, jak NoteWriteBehindService
+@Service
+public class NoteDeletionService {
+
+    private static final String INSERT_TOMBSTONE = "INSERT INTO note_tombstones (note_id, category_id, deleted_at) "
+            + "VALUES (?, ?, ?)";
+
+    private static final RowMapper<DeletedNote> DELETED_NOTE = (rs, rowNum) -> new DeletedNote(
+            rs.getLong("id"),
+            rs.getObject("category_id", Long.class),
+            rs.getString("title"),
+            rs.getTimestamp("created_at").toLocalDateTime(),
+            rs.getObject("updated_at", LocalDateTime.class));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public NoteDeletionService(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    // false - nie ma takiej notatki (albo jest juz usunieta)
+    @Transactional
+    public boolean deleteNote(Long id) {
+        return !deleteNotes(List.of(id)).isEmpty();
+    }
+
+    // jeden UPDATE dla calej listy; zwraca id notatek, ktore zostaly usuniete
+    @Transactional
+    public Set<Long> deleteNotes(Collection<Long> ids) {
+        List<Long> distinct = ids.stream().distinct().toList();
+        if (distinct.isEmpty()) {
+            return Set.of();
+        }
+        LocalDateTime deletedAt = now();
+        List<Object> args = new ArrayList<>(distinct.size() + 1);
+        args.add(Timestamp.valueOf(deletedAt));
+        args.addAll(distinct);
+        String placeholders = String.join(", ", Collections.nCopies(distinct.size(), "?"));
+        List<DeletedNote> deleted = jdbcTemplate.query(
+                "SELECT o.id, o.category_id, o.title, o.created_at, o.updated_at FROM OLD TABLE ("
+                        + "UPDATE notes SET deleted = TRUE, deleted_at = ? WHERE id IN (" + placeholders + ") AND deleted = FALSE) o",
+                DELETED_NOTE, args.toArray());
+        return recordDeleted(deleted, deletedAt);
+    }
+
+    // kategoria i wszystkie jej notatki - dwa UPDATE niezaleznie od liczby notatek
+    // (zamiast odczytu kazdej notatki i osobnego DELETE przez CascadeType.ALL)
+    // false - nie ma takiej kategorii
+    @Transactional
+    public boolean deleteCategory(Long categoryId) {
+        LocalDateTime deletedAt = now();
+        Timestamp timestamp = Timestamp.valueOf(deletedAt);
+        int updated = jdbcTemplate.update("UPDATE categories SET deleted_at = ? WHERE id = ? AND deleted_at IS NULL",
+                timestamp, categoryId);
+        if (updated == 0) {
+            return false;
+        }
+        // po indeksie idx_notes_category_id
+        List<DeletedNote> deleted = jdbcTemplate.query(
+                "SELECT o.id, o.category_id, o.title, o.created_at, o.updated_at FROM OLD TABLE ("
+                        + "UPDATE notes SET deleted = TRUE, deleted_at = ? WHERE category_id = ? AND deleted = FALSE) o",
+                DELETED_NOTE, timestamp, categoryId);
+        recordDeleted(deleted, deletedAt);
+        return true;
+    }
+
+    private Set<Long> recordDeleted(List<DeletedNote> deleted, LocalDateTime deletedAt) {
+        Timestamp timestamp = Timestamp.valueOf(deletedAt);
+        jdbcTemplate.batchUpdate(INSERT_TOMBSTONE, deleted.stream()
+                .map(note -> new Object[]{note.id(), note.categoryId(), timestamp})
+                .toList());
+        Set<Long> ids = new HashSet<>(deleted.size());
+        for (DeletedNote note : deleted) {
+            ids.add(note.id());
+            eventPublisher.publishEvent(new NoteChangedEvent(NoteChangedEvent.ChangeType.DELETED, note.id(),
+                    note.categoryId(), note.categoryId(), note.title(), null, note.createdAt(), note.updatedAt(), null));
+        }
+        return ids;
+    }
+
+    // ta sama dokladnosc co updatedAt notatki - kursor zmian porownuje oba czasy
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    private record DeletedNote(long id, Long categoryId, String title, LocalDateTime createdAt,
+                               LocalDateTime updatedAt) {
+    }
+}
@@ -0,0 +1,75 @@
+package pl.edu.notes.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import pl.edu.notes.dto.NoteRecord;
+import pl.edu.notes.repository.NoteRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Eksport wszystkich notatek (GET /api/notes/export) w formacie NDJSON albo CSV
+// rekordy czytane kursorem JDBC (NoteRepository.streamRecords) i zapisywane od razu do odpowiedzi -
+// bez listy notatek w pamieci; plik mozna wczytac z powrotem przez NoteImportService
+@Service
+public class NoteExportService {
+
+    static final String[] CSV_HEADER = {"id", "category", "title", "content", "createdAt", "updatedAt"};
+
+    private static final int FLUSH_EVERY = 500;
+
+    private final NoteRepository noteRepository;
+    private final ObjectMapper objectMapper;
+
+    public NoteExportService(NoteRepository noteRepository, ObjectMapper objectMapper) {
+        this.noteRepository = noteRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    // @Transactional(readOnly = true) - strumien z repozytorium wymaga otwartej transakcji
+    @Transactional(readOnly = true)
+    public void writeNdjson(OutputStream out) throws IOException {
+        try (Stream<NoteRecord> records = noteRepository.streamRecords();
+             SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(out)) {
+            Iterator<NoteRecord> iterator = records.iterator();
+            int written = 0;
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+                if (++written % FLUSH_EVERY == 0) {
+                    writer.flush();
+                }
+            }
+            writer.flush();
+            if (written > 0) {
+                out.write('\n');
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void writeCsv(OutputStream out) throws IOException {
+        BufferedWriter buffered = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        CsvWriter writer = new CsvWriter(buffered);
+        writer.writeRow((Object[]) CSV_HEADER);
+        try (Stream<NoteRecord> records = noteRepository.streamRecords()) {
+            Iterator<NoteRecord> iterator = records.iterator();
+            int written = 0;
+            while (iterator.hasNext()) {
+                NoteRecord record = iterator.next();
+                writer.writeRow(record.id(), record.category(), record.title(), record.content(),
+                        record.createdAt(), record.updatedAt());
+                if (++written % FLUSH_EVERY == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+    }
+}
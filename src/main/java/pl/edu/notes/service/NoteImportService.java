@@ -0,0 +1,303 @@
+package pl.edu.notes.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.edu.notes.dto.ImportProgress;
+import pl.edu.notes.dto.ImportResult;
+import pl.edu.notes.dto.NoteRecord;
+import pl.edu.notes.model.Category;
+import pl.edu.notes.model.Note;
+import pl.edu.notes.repository.CategoryRepository;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Import notatek z pliku NDJSON albo CSV (POST /api/notes/import) - plik dowolnej wielkosci w stalej pamieci
+// 1. rekordy czytane strumieniowo (parser Jacksona / CsvReader), w pamieci co najwyzej jedna paczka CHUNK_SIZE
+// 2. walidacja jak przy POST /api/notes; kategoria wskazana nazwa - id z lokalnej mapy, przy pierwszym uzyciu
+//    z CategoryRepository, a brakujaca kategoria jest tworzona
+// 3. kazda paczka to osobna transakcja - Hibernate wysyla INSERT-y batchami JDBC, zdarzenia NoteChangedEvent
+//    (indeks wyszukiwania, liczniki kategorii) obsluguja sie po commicie paczki
+// bledny rekord jest pomijany i raportowany, blad skladni pliku konczy import - zapisane paczki zostaja
+// notatki dostaja nowe id i biezace createdAt/updatedAt - id, createdAt i updatedAt z pliku sa ignorowane,
+// zeby zaimportowane notatki trafily do feedu zmian (/api/notes/changes) klientow juz zsynchronizowanych
+@Service
+public class NoteImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(NoteImportService.class);
+
+    static final int CHUNK_SIZE = 500;
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final int MAX_CACHED_CATEGORIES = 10_000;
+    private static final long LOG_EVERY = 10_000;
+    // najdluzszy rekord CSV - pelna tresc notatki i zapas na pozostale kolumny
+    private static final int MAX_CSV_RECORD_LENGTH = Note.MAX_CONTENT_LENGTH + 10_000;
+
+    private final CategoryRepository categoryRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    private final AtomicLong importIds = new AtomicLong();
+    private final Map<Long, ImportJob> running = new ConcurrentHashMap<>();
+
+    private final Counter importedRecords;
+    private final Counter failedRecords;
+
+    public NoteImportService(CategoryRepository categoryRepository, EntityManager entityManager,
+                             TransactionTemplate transactionTemplate, Validator validator,
+                             ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.categoryRepository = categoryRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.importedRecords = meterRegistry.counter("notes.import.records", "outcome", "imported");
+        this.failedRecords = meterRegistry.counter("notes.import.records", "outcome", "failed");
+    }
+
+    // jeden obiekt JSON na linie, pola jak w eksporcie (NoteRecord)
+    public ImportResult importNdjson(InputStream in) throws IOException {
+        MappingIterator<NoteRecord> records = objectMapper.readerFor(NoteRecord.class).readValues(in);
+        return run("ndjson", () -> records.hasNextValue() ? records.nextValue() : null);
+    }
+
+    // pierwszy wiersz to naglowek - kolumny po nazwie, wymagana tylko title; puste pole oznacza brak wartosci
+    public ImportResult importCsv(InputStream in) throws IOException {
+        CsvReader reader = new CsvReader(
+                new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)), MAX_CSV_RECORD_LENGTH);
+        List<String> header = reader.readRecord();
+        if (header == null) {
+            return new ImportResult(0, 0, List.of(), null);
+        }
+        int title = header.indexOf("title");
+        int content = header.indexOf("content");
+        int category = header.indexOf("category");
+        if (title < 0) {
+            return new ImportResult(0, 0, List.of(), "Brak kolumny title w nagłówku CSV");
+        }
+        return run("csv", () -> {
+            List<String> fields = reader.readRecord();
+            if (fields == null) {
+                return null;
+            }
+            return new NoteRecord(null, field(fields, category), field(fields, title), field(fields, content),
+                    null, null);
+        });
+    }
+
+    // importy w toku - liczniki aktualizowane po kazdej paczce
+    public List<ImportProgress> progress() {
+        return running.values().stream()
+                .map(ImportJob::progress)
+                .toList();
+    }
+
+    private ImportResult run(String format, RecordSource source) {
+        ImportJob job = new ImportJob(importIds.incrementAndGet(), format);
+        running.put(job.id, job);
+        log.info("Import {} ({}) rozpoczety", job.id, format);
+        try {
+            Map<String, Long> categoryIds = new HashMap<>();
+            List<NumberedRecord> chunk = new ArrayList<>(CHUNK_SIZE);
+            long number = 0;
+            String error = null;
+            try {
+                NoteRecord record;
+                while ((record = source.next()) != null) {
+                    chunk.add(new NumberedRecord(++number, record));
+                    if (chunk.size() == CHUNK_SIZE) {
+                        writeChunk(chunk, categoryIds, job);
+                        chunk.clear();
+                    }
+                }
+            } catch (JsonProcessingException e) {
+                error = "Niepoprawny rekord " + (number + 1) + ": " + e.getOriginalMessage();
+            } catch (IllegalArgumentException | IOException e) {
+                error = "Niepoprawny rekord " + (number + 1) + ": " + e.getMessage();
+            }
+            // rekordy przeczytane przed bledem skladni tez zapisujemy
+            writeChunk(chunk, categoryIds, job);
+            log.info("Import {} zakonczony: {} zaimportowanych, {} blednych{}", job.id, job.imported.get(),
+                    job.failed.get(), error != null ? ", przerwany: " + error : "");
+            return new ImportResult(job.imported.get(), job.failed.get(), job.errors, error);
+        } finally {
+            running.remove(job.id);
+        }
+    }
+
+    private void writeChunk(List<NumberedRecord> chunk, Map<String, Long> categoryIds, ImportJob job) {
+        List<ValidRecord> valid = new ArrayList<>(chunk.size());
+        for (NumberedRecord numbered : chunk) {
+            NoteRecord record = numbered.record();
+            List<String> errors = new ArrayList<>();
+            for (ConstraintViolation<Note> violation : validator.validate(new Note(record.title(), record.content()))) {
+                errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+            }
+            Long categoryId = record.category() != null ? resolveCategory(record.category(), categoryIds, errors) : null;
+            if (errors.isEmpty()) {
+                valid.add(new ValidRecord(numbered.number(), record, categoryId));
+            } else {
+                job.fail(numbered.number(), errors);
+                failedRecords.increment();
+            }
+        }
+        persist(valid, job);
+        job.logProgress(chunk.size());
+    }
+
+    // cala paczka w jednej transakcji; blad zapisu (np. kategoria usunieta w trakcie importu) -
+    // ponawiamy rekordy pojedynczo, zeby jeden zly rekord nie odrzucal calej paczki
+    private void persist(List<ValidRecord> records, ImportJob job) {
+        if (records.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> persistAll(records));
+            job.imported.addAndGet(records.size());
+            importedRecords.increment(records.size());
+        } catch (DataAccessException e) {
+            log.warn("Import {}: zapis paczki {} rekordow nie powiodl sie, ponawianie pojedynczo: {}",
+                    job.id, records.size(), e.getMessage());
+            for (ValidRecord record : records) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> persistAll(List.of(record)));
+                    job.imported.incrementAndGet();
+                    importedRecords.increment();
+                } catch (DataAccessException single) {
+                    job.fail(record.number(),
+                            List.of("Zapis nie powiódł się: " + single.getMostSpecificCause().getMessage()));
+                    failedRecords.increment();
+                }
+            }
+        }
+    }
+
+    // przy open-in-view EntityManager zyje przez cale zadanie - bez clear() kontekst persystencji
+    // trzymalby wszystkie zaimportowane notatki
+    private void persistAll(List<ValidRecord> records) {
+        records.forEach(this::persist);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    // nowa encja przy kazdej probie - po wycofanej transakcji notatka ma juz nadane id
+    private void persist(ValidRecord record) {
+        Note note = new Note(record.record().title(), record.record().content());
+        if (record.categoryId() != null) {
+            note.setCategory(entityManager.getReference(Category.class, record.categoryId()));
+        }
+        entityManager.persist(note);
+    }
+
+    // nazwa -> id z mapy lokalnej dla importu; brakujaca kategoria jest tworzona (we wlasnej transakcji)
+    // mapa czyszczona po MAX_CACHED_CATEGORIES roznych nazwach - pamiec nie rosnie z liczba kategorii w pliku
+    private Long resolveCategory(String name, Map<String, Long> categoryIds, List<String> errors) {
+        Long id = categoryIds.get(name);
+        if (id != null) {
+            return id;
+        }
+        Category category = new Category(name);
+        for (ConstraintViolation<Category> violation : validator.validate(category)) {
+            errors.add("category: " + violation.getMessage());
+        }
+        if (!errors.isEmpty()) {
+            return null;
+        }
+        id = categoryRepository.findByName(name).orElseGet(() -> createCategory(category)).getId();
+        if (categoryIds.size() >= MAX_CACHED_CATEGORIES) {
+            categoryIds.clear();
+        }
+        categoryIds.put(name, id);
+        return id;
+    }
+
+    // rownolegle zadanie moglo wlasnie utworzyc kategorie o tej nazwie (unikalna kolumna name)
+    private Category createCategory(Category category) {
+        try {
+            return categoryRepository.save(category);
+        } catch (DataIntegrityViolationException e) {
+            return categoryRepository.findByName(category.getName()).orElseThrow(() -> e);
+        }
+    }
+
+    private static String field(List<String> fields, int index) {
+        if (index < 0 || index >= fields.size() || fields.get(index).isEmpty()) {
+            return null;
+        }
+        return fields.get(index);
+    }
+
+    // kolejny rekord z pliku albo null na koncu pliku
+    @FunctionalInterface
+    private interface RecordSource {
+        NoteRecord next() throws IOException;
+    }
+
+    private record NumberedRecord(long number, NoteRecord record) {
+    }
+
+    private record ValidRecord(long number, NoteRecord record, Long categoryId) {
+    }
+
+    // stan jednego importu - liczniki czytane rownolegle przez GET /api/notes/import
+    private static final class ImportJob {
+
+        private final long id;
+        private final String format;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        // tylko watek importu
+        private final List<ImportResult.RecordError> errors = new ArrayList<>();
+
+        private ImportJob(long id, String format) {
+            this.id = id;
+            this.format = format;
+        }
+
+        private void fail(long number, List<String> messages) {
+            failed.incrementAndGet();
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportResult.RecordError(number, messages));
+            }
+        }
+
+        private void logProgress(int chunkSize) {
+            long before = processed.getAndAdd(chunkSize);
+            if ((before + chunkSize) / LOG_EVERY > before / LOG_EVERY) {
+                log.info("Import {}: {} rekordow, {} zaimportowanych, {} blednych",
+                        id, before + chunkSize, imported.get(), failed.get());
+            }
+        }
+
+        private ImportProgress progress() {
+            return new ImportProgress(id, format, startedAt, processed.get(), imported.get(), failed.get());
+        }
+    }
+}
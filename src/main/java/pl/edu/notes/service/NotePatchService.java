@@ -0,0 +1,169 @@
+package pl.edu.notes.service;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import pl.edu.notes.dto.CategorySummary;
+import pl.edu.notes.dto.NotePatch;
+import pl.edu.notes.dto.NoteView;
+import pl.edu.notes.event.NoteChangedEvent;
+import pl.edu.notes.model.Category;
+import pl.edu.notes.model.CompressedTextConverter;
+import pl.edu.notes.model.Note;
+import pl.edu.notes.repository.CategoryRepository;
+import pl.edu.notes.repository.NoteRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+// Czesciowa zmiana notatki (PATCH /api/notes/{id}, przypisanie kategorii) jedna instrukcja SQL, bez odczytu przed zapisem:
+//   SELECT ... FROM OLD TABLE (UPDATE notes SET ... WHERE id = ? AND version = ?)
+// - warunek na wersji zastepuje findById + porownanie + save: dwie rownolegle zmiany tej samej wersji -
+//   UPDATE drugiej nie zmienia zadnego wiersza, wiec konczy sie 409 zamiast nadpisac pierwsza
+// - OLD TABLE (tabela zmian H2) zwraca wiersz sprzed zmiany w tym samym obiegu do bazy - z niego i z PATCH
+//   powstaje odpowiedz i NoteChangedEvent (z poprzednia kategoria) dla indeksow, repliki, licznikow i cache
+//   (dlatego profil prod dziala tylko z H2)
+// - JDBC omija NoteEntityListener, wiec zdarzenie publikujemy sami, jak NoteWriteBehindService
+// dluga tresc (wiecej niz Note.INLINE_CONTENT_LENGTH) wymaga nowego wiersza note_bodies - ta zmiana idzie przez encje,
+// z tym samym sprawdzeniem wersji
+@Service
+public class NotePatchService {
+
+    private static final String DELETE_BODY = "DELETE FROM note_bodies WHERE id = ?";
+
+    private static final RowMapper<OldRow> OLD_ROW = (rs, rowNum) -> new OldRow(
+            rs.getObject("category_id", Long.class),
+            rs.getString("title"),
+            rs.getBytes("content"),
+            rs.getObject("body_id", Long.class),
+            rs.getTimestamp("created_at").toLocalDateTime(),
+            rs.getLong("version"),
+            rs.getString("name"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NoteRepository noteRepository;
+    private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public NotePatchService(JdbcTemplate jdbcTemplate, NoteRepository noteRepository,
+                            CategoryRepository categoryRepository, ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.noteRepository = noteRepository;
+        this.categoryRepository = categoryRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    // expectedVersion == null - zmiana bez warunku na wersji (nadal jedna atomowa instrukcja)
+    // Optional.empty() - nie ma notatki; OptimisticLockingFailureException - notatka ma inna wersje;
+    // DataIntegrityViolationException - kategoria nie istnieje (albo jest usunieta)
+    @Transactional
+    public Optional<NoteView> patch(Long id, Long expectedVersion, NotePatch patch) {
+        String content = patch.getContent() != null ? patch.getContent().orElse(null) : null;
+        if (content != null && content.length() > Note.INLINE_CONTENT_LENGTH) {
+            return patchEntity(id, expectedVersion, patch);
+        }
+
+        LocalDateTime updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        List<String> assignments = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        if (patch.getTitle() != null) {
+            assignments.add("title = ?");
+            args.add(patch.getTitle().orElse(null));
+        }
+        if (patch.getContent() != null) {
+            // ta sama postac kolumny co przy zapisie przez encje; dluga tresc z note_bodies usuwana ponizej
+            assignments.add("content = ?");
+            assignments.add("body_id = NULL");
+            args.add(CompressedTextConverter.encode(content));
+        }
+        if (patch.getCategoryId() != null) {
+            assignments.add("category_id = ?");
+            args.add(patch.getCategoryId().orElse(null));
+        }
+        assignments.add("updated_at = ?");
+        args.add(Timestamp.valueOf(updatedAt));
+        assignments.add("version = version + 1");
+
+        // notatka usunieta (deleted, NoteDeletionService) zachowuje sie jak nieistniejaca
+        StringBuilder update = new StringBuilder("UPDATE notes SET ").append(String.join(", ", assignments))
+                .append(" WHERE id = ? AND deleted = FALSE");
+        args.add(id);
+        if (expectedVersion != null) {
+            update.append(" AND version = ?");
+            args.add(expectedVersion);
+        }
+        // nazwa kategorii po zmianie - nowej z PATCH albo dotychczasowej
+        String categoryAfter = "o.category_id";
+        if (patch.getCategoryId() != null) {
+            categoryAfter = "?";
+            args.add(patch.getCategoryId().orElse(null));
+        }
+        List<OldRow> rows = jdbcTemplate.query(
+                "SELECT o.category_id, o.title, o.content, o.body_id, o.created_at, o.version, c.name "
+                        + "FROM OLD TABLE (" + update + ") o LEFT JOIN categories c ON c.id = " + categoryAfter
+                        + " AND c.deleted_at IS NULL",
+                OLD_ROW, args.toArray());
+
+        if (rows.isEmpty()) {
+            // zaden wiersz nie pasowal - dopiero teraz (i tylko wtedy) rozrozniamy brak notatki od innej wersji
+            if (expectedVersion != null && noteRepository.existsById(id)) {
+                throw new OptimisticLockingFailureException("Notatka " + id + " ma inna wersje niz " + expectedVersion);
+            }
+            return Optional.empty();
+        }
+        OldRow old = rows.get(0);
+        if (patch.getCategoryId() != null && patch.getCategoryId().isPresent() && old.categoryName() == null) {
+            // klucz obcy przepuszcza kategorie usunieta, ale jeszcze nie wyczyszczona - wyjatek wycofuje UPDATE
+            throw new DataIntegrityViolationException("Kategoria " + patch.getCategoryId().get() + " nie istnieje");
+        }
+        if (patch.getContent() != null && old.bodyId() != null) {
+            jdbcTemplate.update(DELETE_BODY, old.bodyId());
+        }
+
+        Long categoryId = patch.getCategoryId() != null ? patch.getCategoryId().orElse(null) : old.categoryId();
+        String title = patch.getTitle() != null ? patch.getTitle().orElse(null) : old.title();
+        String preview = patch.getContent() != null ? content : CompressedTextConverter.decode(old.content());
+        boolean largeContent = patch.getContent() == null && old.bodyId() != null;
+
+        // dluga tresc bez zmian - indeks wyszukiwania doczyta ja po bodyId
+        eventPublisher.publishEvent(new NoteChangedEvent(NoteChangedEvent.ChangeType.UPDATED, id, categoryId,
+                old.categoryId(), title, preview, old.createdAt(), updatedAt, largeContent ? old.bodyId() : null));
+        return Optional.of(new NoteView(id, categoryId != null ? new CategorySummary(categoryId, old.categoryName()) : null,
+                title, preview, largeContent, old.createdAt(), updatedAt, old.version() + 1));
+    }
+
+    private Optional<NoteView> patchEntity(Long id, Long expectedVersion, NotePatch patch) {
+        return noteRepository.findById(id).map(note -> {
+            if (expectedVersion != null && !expectedVersion.equals(note.getVersion())) {
+                throw new OptimisticLockingFailureException("Notatka " + id + " ma inna wersje niz " + expectedVersion);
+            }
+            if (patch.getTitle() != null) {
+                note.setTitle(patch.getTitle().orElse(null));
+            }
+            note.setContent(patch.getContent().orElse(null));
+            if (patch.getCategoryId() != null) {
+                note.setCategory(patch.getCategoryId().map(this::existingCategory).orElse(null));
+            }
+            // flush - UPDATE z "where version = ?" teraz, zeby odpowiedz miala juz nowa wersje
+            return NoteView.of(noteRepository.saveAndFlush(note));
+        });
+    }
+
+    private Category existingCategory(Long categoryId) {
+        return categoryRepository.findById(categoryId)
+                .orElseThrow(() -> new DataIntegrityViolationException("Kategoria " + categoryId + " nie istnieje"));
+    }
+
+    // kolumny notatki sprzed zmiany i nazwa kategorii po zmianie
+    private record OldRow(Long categoryId, String title, byte[] content, Long bodyId, LocalDateTime createdAt,
+                          long version, String categoryName) {
+    }
+}
@@ -0,0 +1,123 @@
+package pl.edu.notes.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+// Czyszczenie w tle notatek i kategorii oznaczonych jako usuniete (deleted_at, NoteDeletionService)
+// co notes.purge.interval-ms kolejne paczki po notes.purge.batch-size notatek, kazda we wlasnej krotkiej transakcji:
+//   SELECT body_id FROM OLD TABLE (DELETE FROM notes WHERE deleted_at <= ? FETCH FIRST n ROWS ONLY)
+// - zakres po indeksie idx_notes_deleted_at - koszt paczki nie zalezy od rozmiaru tabeli
+// - blokady trzyma tylko jedna paczka, a miedzy paczkami watek czeka notes.purge.pause-ms - usuniecie duzej
+//   kategorii nie zajmuje bazy na dluzej i nie wypiera zwyklych zadan
+// - jeden przebieg usuwa najwyzej notes.purge.max-batches paczek, reszta zostaje na kolejny
+// - dlugie tresci (note_bodies) usuwane razem z notatka; kategoria - gdy nie ma juz zadnych jej notatek
+// nagrobki (note_tombstones) zostaja - sa potrzebne feedowi zmian niezaleznie od wiersza notatki
+// OLD TABLE i DELETE ... FETCH FIRST to skladnia H2 - profil prod dziala tylko z H2 (application-prod.properties)
+@Service
+@ConditionalOnProperty(name = "notes.purge.enabled", havingValue = "true", matchIfMissing = true)
+public class NotePurgeService {
+
+    private static final Logger log = LoggerFactory.getLogger(NotePurgeService.class);
+
+    private static final String PURGE_NOTES = "SELECT o.body_id FROM OLD TABLE ("
+            + "DELETE FROM notes WHERE deleted_at <= ? FETCH FIRST ? ROWS ONLY) o";
+    private static final String DELETE_BODY = "DELETE FROM note_bodies WHERE id = ?";
+    // kategorie usuniete przed poczatkiem przebiegu, bez zadnej notatki (takze usunietej i jeszcze nie wyczyszczonej)
+    private static final String PURGE_CATEGORIES = "DELETE FROM categories c WHERE c.deleted_at <= ? "
+            + "AND NOT EXISTS (SELECT 1 FROM notes n WHERE n.category_id = c.id)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatches;
+    private final long pauseMillis;
+
+    private final Timer batchTimer;
+    private final Counter purgedNotes;
+    private final Counter purgedCategories;
+    private final Counter failed;
+
+    public NotePurgeService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${notes.purge.batch-size:500}") int batchSize,
+                            @Value("${notes.purge.max-batches:100}") int maxBatches,
+                            @Value("${notes.purge.pause-ms:50}") long pauseMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.pauseMillis = pauseMillis;
+
+        this.batchTimer = Timer.builder("notes.purge.batch")
+                .description("Czas usuniecia jednej paczki notatek")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.purgedNotes = meterRegistry.counter("notes.purge.notes");
+        this.purgedCategories = meterRegistry.counter("notes.purge.categories");
+        this.failed = meterRegistry.counter("notes.purge.failed");
+    }
+
+    @Scheduled(initialDelayString = "${notes.purge.interval-ms:10000}",
+            fixedDelayString = "${notes.purge.interval-ms:10000}")
+    public void purgeQuietly() {
+        try {
+            purge();
+        } catch (DataAccessException e) {
+            failed.increment();
+            log.error("Czyszczenie usunietych notatek nie powiodlo sie", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // jeden przebieg; zwraca liczbe usunietych notatek
+    // granica z poczatku przebiegu - notatki usuwane w trakcie trafia do kolejnego, wiec przebieg zawsze sie konczy
+    public long purge() throws InterruptedException {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now());
+        long total = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            if (batch > 0) {
+                Thread.sleep(pauseMillis);
+            }
+            int purged = Objects.requireNonNull(batchTimer.record(() ->
+                    transactionTemplate.execute(status -> purgeBatch(cutoff))));
+            purgedNotes.increment(purged);
+            total += purged;
+            if (purged < batchSize) {
+                int categories = Objects.requireNonNull(transactionTemplate.execute(status ->
+                        jdbcTemplate.update(PURGE_CATEGORIES, cutoff)));
+                purgedCategories.increment(categories);
+                break;
+            }
+        }
+        if (total > 0) {
+            log.debug("Wyczyszczono {} usunietych notatek", total);
+        }
+        return total;
+    }
+
+    private int purgeBatch(Timestamp cutoff) {
+        List<Long> bodyIds = jdbcTemplate.queryForList(PURGE_NOTES, Long.class, cutoff, batchSize);
+        // notes.body_id wskazuje note_bodies - tresci dopiero po usunieciu notatek
+        jdbcTemplate.batchUpdate(DELETE_BODY, bodyIds.stream()
+                .filter(Objects::nonNull)
+                .map(id -> new Object[]{id})
+                .toList());
+        return bodyIds.size();
+    }
+}
@@ -0,0 +1,51 @@
+package pl.edu.notes.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import pl.edu.notes.dto.NoteView;
+import pl.edu.notes.repository.NoteRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Zapisuje notatki do odpowiedzi HTTP w formacie NDJSON (jeden obiekt JSON na linie)
+// wiersz po wierszu, prosto z kursora JDBC - bez budowania listy w pamieci
+@Service
+public class NoteStreamingService {
+
+    private static final int FLUSH_EVERY = 500;
+
+    private final NoteRepository noteRepository;
+    private final ObjectMapper objectMapper;
+
+    public NoteStreamingService(NoteRepository noteRepository, ObjectMapper objectMapper) {
+        this.noteRepository = noteRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    // @Transactional(readOnly = true) - strumien z repozytorium wymaga otwartej transakcji
+    // przez caly czas czytania wynikow
+    @Transactional(readOnly = true)
+    public void writeNdjson(OutputStream out) throws IOException {
+        try (Stream<NoteView> notes = noteRepository.streamAll();
+             SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(out)) {
+            Iterator<NoteView> iterator = notes.iterator();
+            int written = 0;
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+                written++;
+                if (written % FLUSH_EVERY == 0) {
+                    writer.flush();
+                }
+            }
+            writer.flush();
+            if (written > 0) {
+                out.write('\n');
+            }
+        }
+    }
+}
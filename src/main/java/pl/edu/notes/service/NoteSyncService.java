@@ -0,0 +1,77 @@
+package pl.edu.notes.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import pl.edu.notes.dto.ChangePage;
+import pl.edu.notes.dto.NoteChange;
+import pl.edu.notes.dto.NoteCursor;
+import pl.edu.notes.dto.NoteView;
+import pl.edu.notes.model.NoteTombstone;
+import pl.edu.notes.repository.NoteRepository;
+import pl.edu.notes.repository.NoteTombstoneRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Feed zmian do synchronizacji klientow - zamiast pobierac co chwile wszystkie notatki,
+// klient pyta o zmiany od swojego kursora i dostaje tylko notatki zmienione / usuniete od tego czasu
+// koszt odpytania zalezy od liczby zmian, a nie od liczby notatek (indeksy na updated_at i deleted_at)
+@Service
+public class NoteSyncService {
+
+    // kursor poczatkowy - klient bez kursora dostaje najpierw wszystkie istniejace notatki
+    public static final NoteCursor START = new NoteCursor(LocalDateTime.of(1970, 1, 1, 0, 0), 0L);
+
+    private final NoteRepository noteRepository;
+    private final NoteTombstoneRepository tombstoneRepository;
+    private final Duration settleTime;
+
+    // settle-millis - zmiany mlodsze niz ten czas nie sa jeszcze zwracane
+    // updatedAt jest ustawiany przed commitem, wiec transakcja ktora konczy sie chwile pozniej
+    // moglaby wstawic zmiane "za" kursorem, ktory klient juz dostal - i ta zmiana by przepadla
+    public NoteSyncService(NoteRepository noteRepository, NoteTombstoneRepository tombstoneRepository,
+                           @Value("${notes.sync.settle-millis:1000}") long settleMillis) {
+        this.noteRepository = noteRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.settleTime = Duration.ofMillis(settleMillis);
+    }
+
+    @Transactional(readOnly = true)
+    public ChangePage changesAfter(NoteCursor cursor, int size) {
+        LocalDateTime until = LocalDateTime.now().minus(settleTime);
+        // z kazdego zrodla jeden wiersz wiecej - w ten sposob wiadomo czy sa kolejne zmiany
+        Limit limit = Limit.of(size + 1);
+        List<NoteView> changed = noteRepository.findChangedAfter(cursor.position(), cursor.id(), until, limit);
+        List<NoteTombstone> deleted = tombstoneRepository.findDeletedAfter(cursor.position(), cursor.id(), until, limit);
+
+        // scalanie dwoch list posortowanych po (czas, id) w jedna kolejnosc zmian
+        List<NoteChange> changes = new ArrayList<>(size);
+        int c = 0;
+        int d = 0;
+        while (changes.size() < size && (c < changed.size() || d < deleted.size())) {
+            if (d == deleted.size() || (c < changed.size() && isBefore(changed.get(c), deleted.get(d)))) {
+                changes.add(NoteChange.upsert(changed.get(c++)));
+            } else {
+                NoteTombstone tombstone = deleted.get(d++);
+                changes.add(NoteChange.delete(tombstone.getNoteId(), tombstone.getDeletedAt()));
+            }
+        }
+        boolean hasMore = c < changed.size() || d < deleted.size();
+
+        NoteCursor next = cursor;
+        if (!changes.isEmpty()) {
+            NoteChange last = changes.get(changes.size() - 1);
+            next = new NoteCursor(last.changedAt(), last.id());
+        }
+        return new ChangePage(changes, next.encode(), hasMore);
+    }
+
+    private static boolean isBefore(NoteView note, NoteTombstone tombstone) {
+        int byTime = note.updatedAt().compareTo(tombstone.getDeletedAt());
+        return byTime != 0 ? byTime < 0 : note.id() < tombstone.getNoteId();
+    }
+}
@@ -0,0 +1,409 @@
+package pl.edu.notes.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import pl.edu.notes.event.NoteChangedEvent;
+import pl.edu.notes.model.Category;
+import pl.edu.notes.model.CompressedTextConverter;
+import pl.edu.notes.model.Note;
+import pl.edu.notes.repository.CategoryRepository;
+import pl.edu.notes.repository.NoteRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+// Tryb write-behind dla POST /api/notes i PUT /api/notes/{id} (notes.write-behind.enabled=true)
+// 1. zapis jest walidowany i potwierdzany od razu (202 Accepted) - nowa notatka dostaje id z sekwencji notes_seq
+// 2. stan notatki czeka w ograniczonym buforze w pamieci - kolejne zmiany tej samej notatki nadpisuja sie (koalescencja)
+// 3. osobny watek co flush-interval-ms zapisuje caly bufor jedna transakcja batchami JDBC
+// GET /api/notes/{id} widzi stan z bufora; listy i wyszukiwanie widza notatke dopiero po zapisie
+// pelny bufor to backpressure: zadanie czeka na zrzut do offer-timeout-ms, potem dostaje 503
+// po awarii procesu niezapisane zmiany z bufora przepadaja - stad tryb tylko na zadanie
+// dluga tresc (NoteBody) nie przechodzi przez bufor - takie zapisy NoteController wykonuje synchronicznie
+@Service
+@ConditionalOnProperty(name = "notes.write-behind.enabled", havingValue = "true")
+public class NoteWriteBehindService {
+
+    private static final Logger log = LoggerFactory.getLogger(NoteWriteBehindService.class);
+
+    private static final String INSERT = "INSERT INTO notes (id, title, content, category_id, created_at, updated_at, version) "
+            + "VALUES (?, ?, ?, ?, ?, ?, 0)";
+    private static final String UPDATE = "UPDATE notes SET title = ?, content = ?, body_id = NULL, category_id = ?, "
+            + "updated_at = ?, version = version + 1 WHERE id = ? AND deleted = FALSE";
+    private static final String DELETE_BODY = "DELETE FROM note_bodies WHERE id = ?";
+
+    private final NoteRepository noteRepository;
+    private final CategoryRepository categoryRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NoteIdAllocator idAllocator;
+    private final int capacity;
+    private final long offerTimeoutMillis;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    // kolejnosc wstawienia = kolejnosc zapisu; klucz - id notatki, wiec zmiany tej samej notatki sie lacza
+    private Map<Long, PendingWrite> pending = new LinkedHashMap<>();
+    // paczka wlasnie zapisywana - do commitu nadal widoczna dla odczytow, zeby GET nie cofnal sie do stanu z bazy
+    private Map<Long, PendingWrite> flushing = Map.of();
+    // zrzuty wykonuja sie po kolei - dwie zmiany tej samej notatki nie moga trafic do bazy w odwrotnej kolejnosci
+    private final Object flushMonitor = new Object();
+
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(
+            runnable -> new Thread(runnable, "notes-write-behind"));
+
+    private final Timer flushTimer;
+    private final DistributionSummary flushSize;
+    private final Counter coalesced;
+    private final Counter rejected;
+    private final Counter failed;
+    private final Counter dropped;
+
+    public NoteWriteBehindService(NoteRepository noteRepository, CategoryRepository categoryRepository,
+                                  JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                  ApplicationEventPublisher eventPublisher, EntityManagerFactory entityManagerFactory,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${notes.write-behind.capacity:10000}") int capacity,
+                                  @Value("${notes.write-behind.flush-interval-ms:200}") long flushIntervalMillis,
+                                  @Value("${notes.write-behind.offer-timeout-ms:500}") long offerTimeoutMillis) {
+        this.noteRepository = noteRepository;
+        this.categoryRepository = categoryRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.idAllocator = new NoteIdAllocator(jdbcTemplate, entityManagerFactory);
+        this.capacity = capacity;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+
+        Gauge.builder("notes.writebehind.queue.depth", this, NoteWriteBehindService::depth)
+                .description("Liczba notatek czekajacych na zapis")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("notes.writebehind.flush")
+                .description("Czas zapisu bufora do bazy")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.flushSize = DistributionSummary.builder("notes.writebehind.flush.size")
+                .description("Liczba notatek zapisanych jednym zrzutem")
+                .register(meterRegistry);
+        this.coalesced = meterRegistry.counter("notes.writebehind.coalesced");
+        this.rejected = meterRegistry.counter("notes.writebehind.rejected");
+        this.failed = meterRegistry.counter("notes.writebehind.failed");
+        this.dropped = meterRegistry.counter("notes.writebehind.dropped");
+
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // nowa notatka - id nadawane od razu, INSERT przy najblizszym zrzucie
+    public Note create(Note input) {
+        Category category = resolveCategory(input.getCategory());
+        LocalDateTime now = now();
+        Note note = new Note(input.getTitle(), input.getContent());
+        note.setId(idAllocator.next());
+        note.setCategory(category);
+        note.setCreatedAt(now);
+        note.setUpdatedAt(now);
+        note.setVersion(0L);
+        enqueue(note.getId(), existing -> new PendingWrite(note, true, null, null));
+        return note;
+    }
+
+    // zmiana notatki - Optional.empty() gdy notatki nie ma ani w buforze, ani w bazie
+    public Optional<Note> update(Long id, Note input) {
+        Category category = resolveCategory(input.getCategory());
+        // stan bazowy z bazy czytamy przed zalozeniem blokady - jesli notatka juz czeka w buforze, nie jest potrzebny
+        Optional<Note> stored = findPending(id).isPresent() ? Optional.empty() : noteRepository.findById(id);
+        Note[] result = new Note[1];
+        boolean accepted = enqueue(id, existing -> {
+            PendingWrite inFlight = flushing.get(id);
+            Note base = existing != null ? existing.note()
+                    : inFlight != null ? inFlight.note()
+                    : stored.orElse(null);
+            if (base == null) {
+                return null;
+            }
+            Note note = new Note(input.getTitle(), input.getContent());
+            note.setId(id);
+            note.setCategory(category);
+            note.setCreatedAt(base.getCreatedAt());
+            note.setUpdatedAt(now());
+            note.setVersion(base.getVersion());
+            // wersja po zapisie: kilka zmian polaczonych w buforze to jeden UPDATE, czyli +1 do wersji z bazy
+            if (existing == null) {
+                note.setVersion(base.getVersion() + 1);
+            } else {
+                coalesced.increment();
+            }
+            result[0] = note;
+            // dluga tresc zapisana wczesniej w bazie - jej wiersz w note_bodies usuwamy przy zrzucie
+            // poprzednia kategoria - ta z bazy sprzed pierwszej z polaczonych zmian
+            if (existing != null) {
+                return new PendingWrite(note, existing.create(), existing.replacedBodyId(),
+                        existing.previousCategoryId());
+            }
+            Long previousCategoryId = base.getCategory() != null ? base.getCategory().getId() : null;
+            return new PendingWrite(note, false, inFlight == null ? base.getBodyId() : null, previousCategoryId);
+        });
+        return accepted ? Optional.of(result[0]) : Optional.empty();
+    }
+
+    public Optional<Note> findPending(Long id) {
+        lock.lock();
+        try {
+            PendingWrite write = pending.get(id);
+            if (write == null) {
+                write = flushing.get(id);
+            }
+            return write != null ? Optional.of(write.note()) : Optional.empty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int depth() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // zapisuje caly bufor od razu - wolane przez sciezki synchroniczne (usuwanie, If-Match, operacje wsadowe),
+    // zeby nie dzialaly na starszym stanie niz ten potwierdzony juz klientowi
+    public void flush() {
+        synchronized (flushMonitor) {
+            Map<Long, PendingWrite> batch;
+            lock.lock();
+            try {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = pending;
+                flushing = batch;
+                pending = new LinkedHashMap<>();
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            try {
+                flushTimer.record(() -> write(new ArrayList<>(batch.values())));
+                flushSize.record(batch.size());
+            } finally {
+                lock.lock();
+                try {
+                    flushing = Map.of();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+        flush();
+    }
+
+    private boolean enqueue(Long id, Function<PendingWrite, PendingWrite> merge) {
+        lock.lock();
+        try {
+            PendingWrite existing = pending.get(id);
+            if (existing == null && pending.size() >= capacity) {
+                awaitCapacity();
+            }
+            existing = pending.get(id);
+            PendingWrite merged = merge.apply(existing);
+            if (merged == null) {
+                return false;
+            }
+            pending.put(id, merged);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // pelny bufor - zlecamy natychmiastowy zrzut i czekamy na miejsce, najwyzej offer-timeout-ms
+    private void awaitCapacity() {
+        flusher.execute(this::flushQuietly);
+        long remaining = TimeUnit.MILLISECONDS.toNanos(offerTimeoutMillis);
+        try {
+            while (pending.size() >= capacity) {
+                if (remaining <= 0) {
+                    rejected.increment();
+                    throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                            "Bufor zapisów jest pełny, spróbuj ponownie za chwilę");
+                }
+                remaining = notFull.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Przerwano oczekiwanie na bufor zapisów");
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Zapis bufora write-behind nie powiodl sie", e);
+        }
+    }
+
+    // jedna transakcja, dwa batche JDBC (INSERT i UPDATE)
+    // blad calej paczki (np. kategoria usunieta w miedzyczasie) - ponawiamy pozycje pojedynczo, zeby jedna zla
+    // notatka nie blokowala pozostalych
+    private void write(List<PendingWrite> writes) {
+        // updated_at z chwili zapisu - feed zmian (/api/notes/changes) nie moze dostac czasu starszego niz commit
+        LocalDateTime flushedAt = now();
+        writes.forEach(write -> write.note().setUpdatedAt(flushedAt));
+        try {
+            transactionTemplate.executeWithoutResult(status -> writeBatch(writes));
+        } catch (DataAccessException e) {
+            log.warn("Zapis paczki {} notatek nie powiodl sie, ponawianie pojedynczo: {}", writes.size(), e.getMessage());
+            for (PendingWrite write : writes) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> writeBatch(List.of(write)));
+                } catch (DataAccessException single) {
+                    failed.increment();
+                    log.error("Pominieto zapis notatki {}: {}", write.note().getId(), single.getMessage());
+                }
+            }
+        }
+    }
+
+    private void writeBatch(List<PendingWrite> writes) {
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        List<PendingWrite> updateWrites = new ArrayList<>();
+        for (PendingWrite write : writes) {
+            Note note = write.note();
+            Long categoryId = note.getCategory() != null ? note.getCategory().getId() : null;
+            Timestamp updatedAt = Timestamp.valueOf(note.getUpdatedAt());
+            // ta sama postac kolumny content co przy zapisie przez encje
+            byte[] content = CompressedTextConverter.encode(note.getContentPreview());
+            if (write.create()) {
+                inserts.add(new Object[]{note.getId(), note.getTitle(), content, categoryId,
+                        Timestamp.valueOf(note.getCreatedAt()), updatedAt});
+            } else {
+                updates.add(new Object[]{note.getTitle(), content, categoryId, updatedAt, note.getId()});
+                updateWrites.add(write);
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT, inserts);
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE, updates);
+
+        // UPDATE notatki usunietej w miedzyczasie nie zmienia zadnego wiersza - usuniecie wygrywa:
+        // bez zdarzenia (indeksy i replika nie moga przywrocic usunietej notatki) i bez usuwania jej dlugiej tresci
+        // (wiersz nadal ja wskazuje, usunie ja NotePurgeService)
+        Set<Long> droppedIds = new HashSet<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                droppedIds.add(updateWrites.get(i).note().getId());
+            }
+        }
+        if (!droppedIds.isEmpty()) {
+            dropped.increment(droppedIds.size());
+            log.info("Pominieto zmiany usunietych notatek: {}", droppedIds);
+        }
+        List<Object[]> replacedBodies = new ArrayList<>();
+        for (PendingWrite write : updateWrites) {
+            if (write.replacedBodyId() != null && !droppedIds.contains(write.note().getId())) {
+                replacedBodies.add(new Object[]{write.replacedBodyId()});
+            }
+        }
+        jdbcTemplate.batchUpdate(DELETE_BODY, replacedBodies);
+
+        // JDBC omija NoteEntityListener - zdarzenia publikujemy sami, odbiorcy dostana je po commicie
+        for (PendingWrite write : writes) {
+            if (droppedIds.contains(write.note().getId())) {
+                continue;
+            }
+            NoteChangedEvent.ChangeType type = write.create()
+                    ? NoteChangedEvent.ChangeType.CREATED
+                    : NoteChangedEvent.ChangeType.UPDATED;
+            eventPublisher.publishEvent(NoteChangedEvent.of(type, write.note(), write.previousCategoryId()));
+        }
+    }
+
+    private Category resolveCategory(Category category) {
+        if (category == null || category.getId() == null) {
+            return null;
+        }
+        return categoryRepository.findById(category.getId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Kategoria nie istnieje"));
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    // create == true - notatki nie ma jeszcze w bazie (INSERT), inaczej UPDATE
+    // replacedBodyId - dluga tresc z bazy zastapiona krotka, do usuniecia razem z UPDATE
+    // previousCategoryId - kategoria notatki w bazie przed zmiana (do NoteChangedEvent)
+    private record PendingWrite(Note note, boolean create, Long replacedBodyId, Long previousCategoryId) {
+    }
+
+    // Id z sekwencji notes_seq w tej samej konwencji co optymalizator pooled Hibernate:
+    // wartosc v z sekwencji rezerwuje przedzial (v - 50, v], wiec id nadane tutaj i przez Hibernate sie nie pokrywaja
+    // jedno zapytanie do bazy na 50 nowych notatek
+    private static final class NoteIdAllocator {
+
+        private static final int ALLOCATION_SIZE = 50;
+
+        private final JdbcTemplate jdbcTemplate;
+        private final String nextValueSql;
+        private long next;
+        private long last = -1;
+
+        NoteIdAllocator(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+            this.jdbcTemplate = jdbcTemplate;
+            // skladnia zalezy od bazy (NEXT VALUE FOR / nextval) - bierzemy ja z dialektu Hibernate
+            this.nextValueSql = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices().getDialect().getSequenceSupport().getSequenceNextValString("notes_seq");
+        }
+
+        synchronized long next() {
+            if (next > last) {
+                long value = jdbcTemplate.queryForObject(nextValueSql, Long.class);
+                last = value;
+                next = Math.max(1, value - ALLOCATION_SIZE + 1);
+            }
+            return next++;
+        }
+    }
+}
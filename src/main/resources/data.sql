@@ -3,7 +3,7 @@ INSERT INTO categories (name) VALUES
 ('Uczelnia'),
 ('Praca');
 
-INSERT INTO notes (title, content, category_id, created_at, updated_at) VALUES
-('Zakupy', 'mleko, chleb, jajka', 1, NOW(), NOW()),
-('Do zrobienia', 'oddac projekt z baz danych', 2, NOW(), NOW()),
-('Notatka z wykladu', 'JPA - Java Persistence API, ORM dla Javy', 2, NOW(), NOW());
+INSERT INTO notes (id, title, content, category_id, created_at, updated_at, version) VALUES
+(NEXT VALUE FOR notes_seq, 'Zakupy', 'mleko, chleb, jajka', 1, NOW(), NOW(), 0),
+(NEXT VALUE FOR notes_seq, 'Do zrobienia', 'oddac projekt z baz danych', 2, NOW(), NOW(), 0),
+(NEXT VALUE FOR notes_seq, 'Notatka z wykladu', 'JPA - Java Persistence API, ORM dla Javy', 2, NOW(), NOW(), 0);
@@ -0,0 +1,40 @@
+-- Schemat bazy w profilu "prod" - odpowiada encjom Category, Note i NoteTombstone
+-- (Hibernate sprawdza zgodnosc przy starcie: spring.jpa.hibernate.ddl-auto=validate)
+
+CREATE TABLE categories (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name VARCHAR(50) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_categories_name UNIQUE (name)
+);
+
+-- krok 50 = allocationSize w Note - Hibernate rezerwuje 50 id jednym odczytem sekwencji
+CREATE SEQUENCE notes_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE notes (
+    id BIGINT NOT NULL,
+    category_id BIGINT,
+    title VARCHAR(100) NOT NULL,
+    content VARCHAR(2000),
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6),
+    version BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_notes_category FOREIGN KEY (category_id) REFERENCES categories (id)
+);
+
+-- sortowanie, paginacja keyset i feed zmian po (updated_at, id)
+CREATE INDEX idx_notes_updated_at_id ON notes (updated_at, id);
+-- notatki kategorii (lista kategorii, usuwanie kaskadowe)
+CREATE INDEX idx_notes_category_id ON notes (category_id);
+-- wyszukiwanie i sortowanie po tytule
+CREATE INDEX idx_notes_title ON notes (title);
+
+CREATE TABLE note_tombstones (
+    note_id BIGINT NOT NULL,
+    category_id BIGINT,
+    deleted_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (note_id)
+);
+
+CREATE INDEX idx_note_tombstones_deleted_at_id ON note_tombstones (deleted_at, note_id);
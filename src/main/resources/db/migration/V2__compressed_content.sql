@@ -0,0 +1,14 @@
+-- Tresc notatek w kolumnie binarnej (CompressedTextConverter) i dlugie tresci w osobnej tabeli (NoteBody)
+
+-- istniejace teksty zamieniane sa na bajty UTF-8 - poprawna postac tresci bez kompresji
+ALTER TABLE notes ALTER COLUMN content SET DATA TYPE VARBINARY(6001);
+
+CREATE TABLE note_bodies (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    content BLOB NOT NULL,
+    PRIMARY KEY (id)
+);
+
+ALTER TABLE notes ADD COLUMN body_id BIGINT;
+ALTER TABLE notes ADD CONSTRAINT uk_notes_body_id UNIQUE (body_id);
+ALTER TABLE notes ADD CONSTRAINT fk_notes_body FOREIGN KEY (body_id) REFERENCES note_bodies (id);
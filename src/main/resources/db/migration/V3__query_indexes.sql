@@ -0,0 +1,11 @@
+-- Indeksy dla GET /api/notes/page z filtrami - odpowiadaja @Table(indexes) w Note
+-- kolumny malejaco: domyslne sortowanie stron to od najnowszych, a H2 nie czyta indeksu rosnacego od konca
+
+-- sortowanie i paginacja keyset po dacie modyfikacji (zastepuje rosnacy indeks z V1)
+DROP INDEX idx_notes_updated_at_id;
+CREATE INDEX idx_notes_updated_at_id ON notes (updated_at DESC, id DESC);
+-- sortowanie i paginacja keyset po dacie utworzenia
+CREATE INDEX idx_notes_created_at_id ON notes (created_at DESC, id DESC);
+-- notatki jednej kategorii w kolejnosci daty modyfikacji / utworzenia, z zakresem dat
+CREATE INDEX idx_notes_category_updated_at_id ON notes (category_id, updated_at DESC, id DESC);
+CREATE INDEX idx_notes_category_created_at_id ON notes (category_id, created_at DESC, id DESC);
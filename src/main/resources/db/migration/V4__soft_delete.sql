@@ -0,0 +1,10 @@
+-- Usuwanie notatek i kategorii jako soft delete (NoteDeletionService) - odpowiada polom deleted/deletedAt w Note
+-- i deletedAt w Category; usuniete wiersze nie sa odczytywane (@SQLRestriction), usuwa je w tle NotePurgeService
+
+-- deleted - warunek odczytow, bez indeksu (filtr na wierszach z indeksow sortowania)
+ALTER TABLE notes ADD COLUMN deleted BOOLEAN DEFAULT FALSE NOT NULL;
+ALTER TABLE notes ADD COLUMN deleted_at TIMESTAMP(6);
+ALTER TABLE categories ADD COLUMN deleted_at TIMESTAMP(6);
+
+-- paczki czyszczenia: zakres "deleted_at <= ?" po indeksie, zywe notatki (NULL) poza zakresem
+CREATE INDEX idx_notes_deleted_at ON notes (deleted_at);
@@ -0,0 +1,270 @@
+package pl.edu.notes;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import pl.edu.notes.service.CategoryStatsService;
+import pl.edu.notes.service.NotePurgeService;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CategoryControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CategoryStatsService categoryStatsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NotePurgeService notePurgeService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void getAllCategories() throws Exception {
+        mockMvc.perform(get("/api/categories"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void getCategoryReturnsNotModifiedUntilItsNotesChange() throws Exception {
+        String categoryId = createAndGetId("/api/categories", "{\"name\":\"Z ETagiem\"}");
+        String etag = mockMvc.perform(get("/api/categories/" + categoryId))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        mockMvc.perform(get("/api/categories/" + categoryId).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        String noteId = createAndGetId("/api/notes", "{\"title\":\"Nowa w kategorii\",\"content\":\"test\"}");
+        mockMvc.perform(put("/api/notes/" + noteId + "/category/" + categoryId))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/categories/" + categoryId).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.notes.length()").value(1));
+    }
+
+    // Test: kategoria z cache pokazuje aktualne notatki - zmiana notatki usuwa z cache jej stara i nowa kategorie
+    @Test
+    void cachedCategoryShowsCurrentNotes() throws Exception {
+        String categoryId = createAndGetId("/api/categories", "{\"name\":\"Z cache\"}");
+        String noteId = createAndGetId("/api/notes", "{\"title\":\"Przed zmiana\",\"content\":\"test\",\"category\":{\"id\":"
+                + categoryId + "}}");
+        mockMvc.perform(get("/api/categories/" + categoryId))
+                .andExpect(jsonPath("$.notes[0].title").value("Przed zmiana"));
+
+        mockMvc.perform(put("/api/notes/" + noteId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Po zmianie\",\"content\":\"test\",\"category\":{\"id\":" + categoryId + "}}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/categories/" + categoryId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Z cache"))
+                .andExpect(jsonPath("$.notes[0].title").value("Po zmianie"));
+
+        String otherId = createAndGetId("/api/categories", "{\"name\":\"Z cache druga\"}");
+        mockMvc.perform(get("/api/categories/" + otherId))
+                .andExpect(jsonPath("$.notes.length()").value(0));
+        mockMvc.perform(put("/api/notes/" + noteId + "/category/" + otherId))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/categories/" + categoryId))
+                .andExpect(jsonPath("$.notes.length()").value(0));
+        mockMvc.perform(get("/api/categories/" + otherId))
+                .andExpect(jsonPath("$.notes[0].title").value("Po zmianie"));
+    }
+
+    @Test
+    void getNonExistingCategory() throws Exception {
+        mockMvc.perform(get("/api/categories/9999"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void deleteCategoryInvalidatesCachedCategoryAndNotes() throws Exception {
+        String categoryId = createAndGetId("/api/categories", "{\"name\":\"Kaskada\"}");
+        String noteId = createAndGetId("/api/notes", "{\"title\":\"W kategorii\",\"content\":\"test\"}");
+        mockMvc.perform(put("/api/notes/" + noteId + "/category/" + categoryId))
+                .andExpect(status().isOk());
+
+        // odczyty zapisuja kategorie i notatke w cache
+        mockMvc.perform(get("/api/categories/" + categoryId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.notes.length()").value(1));
+        mockMvc.perform(get("/api/notes/" + noteId)).andExpect(status().isOk());
+
+        mockMvc.perform(delete("/api/categories/" + categoryId))
+                .andExpect(status().isNoContent());
+
+        // kategoria i jej notatka (usunieta kaskadowo) nie moga byc juz zwracane z cache
+        mockMvc.perform(get("/api/categories/" + categoryId)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/notes/" + noteId)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void deleteCategoryLeavesTombstonesForItsNotes() throws Exception {
+        String since = LocalDateTime.now().minusNanos(1000).toString();
+        String categoryId = createAndGetId("/api/categories", "{\"name\":\"Z nagrobkami\"}");
+        String noteId = createAndGetId("/api/notes", "{\"title\":\"Usunieta kaskadowo\",\"content\":\"test\"}");
+        mockMvc.perform(put("/api/notes/" + noteId + "/category/" + categoryId))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(delete("/api/categories/" + categoryId))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/notes/changes").param("since", since))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes.length()").value(1))
+                .andExpect(jsonPath("$.changes[0].type").value("DELETE"))
+                .andExpect(jsonPath("$.changes[0].id").value(Long.parseLong(noteId)));
+    }
+
+    @Test
+    void statsFollowNoteChanges() throws Exception {
+        String first = createAndGetId("/api/categories", "{\"name\":\"Statystyki A\"}");
+        String second = createAndGetId("/api/categories", "{\"name\":\"Statystyki B\"}");
+        // konteksty testow dziela baze w pamieci - liczniki wyrownane z nia przed startem
+        categoryStatsService.reconcile();
+        createAndGetId("/api/notes", "{\"title\":\"A1\",\"content\":\"test\",\"category\":{\"id\":" + first + "}}");
+        String moved = createAndGetId("/api/notes", "{\"title\":\"A2\",\"content\":\"test\"}");
+        mockMvc.perform(put("/api/notes/" + moved + "/category/" + first))
+                .andExpect(status().isOk());
+        expectCount(first, 2);
+        expectCount(second, 0);
+
+        // Test: przeniesienie przez PUT zmniejsza licznik starej kategorii i zwieksza nowej
+        mockMvc.perform(put("/api/notes/" + moved)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"A2\",\"content\":\"test\",\"category\":{\"id\":" + second + "}}"))
+                .andExpect(status().isOk());
+        expectCount(first, 1);
+        expectCount(second, 1);
+
+        // Test: zmiana bez zmiany kategorii nie rusza licznikow
+        mockMvc.perform(put("/api/notes/" + moved)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"B1\",\"content\":\"zmiana\",\"category\":{\"id\":" + second + "}}"))
+                .andExpect(status().isOk());
+        expectCount(second, 1);
+
+        mockMvc.perform(delete("/api/notes/" + moved))
+                .andExpect(status().isNoContent());
+        expectCount(second, 0);
+
+        mockMvc.perform(delete("/api/categories/" + first))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/categories/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.id == " + first + ")]").isEmpty());
+    }
+
+    @Test
+    void reconcileCorrectsCountersAfterChangesOutsideTheApplication() throws Exception {
+        String categoryId = createAndGetId("/api/categories", "{\"name\":\"Statystyki SQL\"}");
+        categoryStatsService.reconcile();
+        jdbcTemplate.update("INSERT INTO notes (id, title, content, category_id, created_at, updated_at, version) "
+                + "VALUES (NEXT VALUE FOR notes_seq, 'Z SQL', CAST('test' AS VARBINARY), ?, "
+                + "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0)", Long.parseLong(categoryId));
+
+        // Test: zapis z pominieciem encji nie publikuje zdarzenia - licznik wyrownuje dopiero przeliczenie
+        expectCount(categoryId, 0);
+        categoryStatsService.reconcile();
+        expectCount(categoryId, 1);
+    }
+
+    @Test
+    void deletedCategoryIsHiddenAtOnceAndPurgedInBatches() throws Exception {
+        String categoryId = createAndGetId("/api/categories", "{\"name\":\"Do czyszczenia\"}");
+        for (int i = 0; i < 3; i++) {
+            createAndGetId("/api/notes", "{\"title\":\"Stara " + i + "\",\"content\":\"test\",\"category\":{\"id\":"
+                    + categoryId + "}}");
+        }
+        String other = createAndGetId("/api/notes", "{\"title\":\"Bez kategorii\",\"content\":\"test\"}");
+
+        mockMvc.perform(delete("/api/categories/" + categoryId))
+                .andExpect(status().isNoContent());
+
+        // Test: usuniecie tylko oznacza wiersze - odczyty ich nie widza, kategorii nie mozna juz przypisac,
+        // a jej nazwa jest zajeta do czyszczenia
+        assertEquals(3, countNotes(categoryId));
+        mockMvc.perform(get("/api/categories/" + categoryId)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/notes/search").param("title", "Stara"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+        mockMvc.perform(put("/api/notes/" + other + "/category/" + categoryId))
+                .andExpect(status().isNotFound());
+        String withDeletedCategory = "{\"title\":\"Nowa\",\"content\":\"test\",\"category\":{\"id\":" + categoryId + "}}";
+        mockMvc.perform(post("/api/notes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(withDeletedCategory))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(put("/api/notes/" + other)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(withDeletedCategory))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/notes/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + withDeletedCategory + "]"))
+                .andExpect(jsonPath("$.items[0].status").value(400));
+        mockMvc.perform(post("/api/categories")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Do czyszczenia\"}"))
+                .andExpect(status().isConflict());
+
+        // Test: czyszczenie usuwa notatki paczkami (notes.purge.batch-size=2 w profilu testowym), potem kategorie
+        double purgedBefore = meterRegistry.counter("notes.purge.notes").count();
+        assertTrue(notePurgeService.purge() >= 3);
+        assertEquals(0, countNotes(categoryId));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM categories WHERE id = ?", Integer.class,
+                Long.parseLong(categoryId)));
+        assertTrue(meterRegistry.counter("notes.purge.notes").count() - purgedBefore >= 3);
+        assertTrue(meterRegistry.timer("notes.purge.batch").count() >= 2);
+        createAndGetId("/api/categories", "{\"name\":\"Do czyszczenia\"}");
+        mockMvc.perform(get("/api/notes/" + other)).andExpect(status().isOk());
+    }
+
+    // wszystkie wiersze notatek kategorii, takze oznaczone jako usuniete
+    private int countNotes(String categoryId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notes WHERE category_id = ?", Integer.class,
+                Long.parseLong(categoryId));
+    }
+
+    private void expectCount(String categoryId, long count) throws Exception {
+        mockMvc.perform(get("/api/categories/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.id == " + categoryId + ")].noteCount").value(contains((int) count)));
+    }
+
+    private String createAndGetId(String url, String json) throws Exception {
+        String response = mockMvc.perform(post(url)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return response.split("\"id\":")[1].split("[,}]")[0];
+    }
+}
@@ -0,0 +1,84 @@
+package pl.edu.notes;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.edu.notes.search.NoteSearchIndex;
+import pl.edu.notes.search.NoteSearchIndexer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Profile "prod" + "fast" (leniwa inicjalizacja beanow, indeksy budowane w tle) na bazie in-memory
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:fasttest;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles({"prod", "fast"})
+class FastProfileTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private NoteSearchIndexer searchIndexer;
+
+    @Autowired
+    private NoteSearchIndex searchIndex;
+
+    @Test
+    void lazyBeansServeRequests() throws Exception {
+        mockMvc.perform(post("/api/notes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Leniwa\",\"content\":\"utworzona po starcie\"}"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/notes/suggest").param("prefix", "leniw"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("Leniwa"));
+        mockMvc.perform(get("/api/categories/stats"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void indexesAreRebuiltInBackground() throws Exception {
+        // notatka dopisana z pominieciem aplikacji - do indeksu trafia dopiero przy przebudowie
+        // (pula w profilu prod ma auto-commit=false - zapis we wlasnej transakcji)
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> jdbcTemplate.update("INSERT INTO notes (id, title, content, created_at, updated_at, version) "
+                + "VALUES (NEXT VALUE FOR notes_seq, 'Spoza aplikacji', STRINGTOUTF8('dopisana przez SQL'), "
+                + "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0)"));
+
+        // Test: przebudowa nie wstrzymuje wywolujacego, a readiness zwraca 503 do jej konca
+        // (watek budowy czeka na monitor indeksera, dopoki test go trzyma)
+        synchronized (searchIndexer) {
+            searchIndexer.onApplicationReady();
+            mockMvc.perform(get("/actuator/health/readiness"))
+                    .andExpect(status().isServiceUnavailable());
+            mockMvc.perform(get("/actuator/health/liveness"))
+                    .andExpect(status().isOk());
+        }
+
+        // Test: notatka pojawia sie w wynikach po zakonczeniu przebudowy, a readiness zwraca 200
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!searchIndexer.isReady() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        mockMvc.perform(get("/actuator/health/readiness"))
+                .andExpect(status().isOk());
+        assertEquals(1, searchIndex.search("spoza", 0, 10).total());
+        mockMvc.perform(get("/api/notes/suggest").param("prefix", "spoza"))
+                .andExpect(jsonPath("$[0].title").value("Spoza aplikacji"));
+    }
+}
@@ -0,0 +1,60 @@
+package pl.edu.notes;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// @AutoConfigureObservability - w testach Spring Boot domyslnie nie eksportuje metryk, tu potrzebny jest Prometheus
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class MetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void prometheusEndpointExposesHotPathMetrics() throws Exception {
+        mockMvc.perform(get("/api/notes")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/notes/9999")).andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+                .andExpect(content().string(containsString("uri=\"/api/notes/{id}\"")))
+                .andExpect(content().string(containsString("quantile=\"0.999\"")))
+                .andExpect(content().string(containsString("spring_data_repository_invocations_seconds_count")))
+                .andExpect(content().string(containsString("notes_http_sql_statements_count")))
+                .andExpect(content().string(containsString("hikaricp_connections_active")))
+                .andExpect(content().string(containsString("jvm_gc_memory_allocated_bytes_total")));
+    }
+
+    @Test
+    void sqlStatementsAreCountedPerEndpoint() throws Exception {
+        mockMvc.perform(get("/api/notes")).andExpect(status().isOk());
+
+        // lista notatek to jedno zapytanie (projekcje NoteView)
+        DistributionSummary statements = meterRegistry.get("notes.http.sql.statements")
+                .tag("method", "GET")
+                .tag("uri", "/api/notes")
+                .summary();
+        assertTrue(statements.count() >= 1);
+        assertEquals(1.0, statements.max());
+    }
+}
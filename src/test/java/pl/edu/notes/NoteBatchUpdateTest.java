@@ -0,0 +1,81 @@
+package pl.edu.notes;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import pl.edu.notes.model.Note;
+import pl.edu.notes.repository.NoteRepository;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// PUT /api/notes/batch, gdy jedna z notatek zmienia sie w trakcie zapisu paczki
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class NoteBatchUpdateTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void concurrentChangeFailsOnlyItsOwnItem() throws Exception {
+        Note first = noteRepository.save(new Note("Pierwsza", "a"));
+        Note second = noteRepository.save(new Note("Druga", "b"));
+
+        // rownolegly zapis pierwszej notatki - blokada wiersza do commitu
+        TransactionStatus concurrent = transactionManager.getTransaction(TransactionDefinition.withDefaults());
+        jdbcTemplate.update("UPDATE notes SET title = 'Obca', version = version + 1 WHERE id = ?", first.getId());
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<MvcResult> batch = executor.submit(() -> mockMvc.perform(put("/api/notes/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("[{\"id\":" + first.getId() + ",\"title\":\"Z paczki 1\"},"
+                                    + "{\"id\":" + second.getId() + ",\"title\":\"Z paczki 2\"}]"))
+                    .andReturn());
+            // paczka odczytala obie notatki (stara wersja pierwszej) i czeka na blokade przy UPDATE
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.SESSIONS "
+                    + "WHERE BLOCKER_ID IS NOT NULL", Integer.class) == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            transactionManager.commit(concurrent);
+
+            // Test: konflikt wersji dostaje tylko zmieniona notatka (409), reszta porcji jest zapisana
+            MvcResult result = batch.get(10, TimeUnit.SECONDS);
+            status().isOk().match(result);
+            jsonPath("$.succeeded").value(1).match(result);
+            jsonPath("$.items[0].status").value(409).match(result);
+            jsonPath("$.items[1].status").value(200).match(result);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals("Obca", noteRepository.findById(first.getId()).orElseThrow().getTitle());
+        assertEquals("Z paczki 2", noteRepository.findById(second.getId()).orElseThrow().getTitle());
+    }
+}
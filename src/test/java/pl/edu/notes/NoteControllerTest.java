@@ -7,7 +7,15 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import pl.edu.notes.model.Note;
+import pl.edu.notes.search.NoteSearchIndexer;
 
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.nullValue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -19,6 +27,9 @@ class NoteControllerTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private NoteSearchIndexer noteSearchIndexer;
+
     @Test
     void getAllNotes() throws Exception {
         mockMvc.perform(get("/api/notes"))
@@ -61,4 +72,594 @@ class NoteControllerTest {
         mockMvc.perform(delete("/api/notes/" + id))
                 .andExpect(status().isNoContent());
     }
+
+    @Test
+    void getNotesPage() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/api/notes")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"title\":\"Strona " + i + "\",\"content\":\"test\"}"))
+                    .andExpect(status().isCreated());
+        }
+
+        mockMvc.perform(get("/api/notes/page").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty());
+    }
+
+    // Test: filtr kategorii i zakresu dat, sortowanie rosnaco po createdAt, kolejna strona z kursora
+    @Test
+    void getNotesPageWithFiltersAndSort() throws Exception {
+        String category = mockMvc.perform(post("/api/categories")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Filtrowana\"}"))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String categoryId = category.split("\"id\":")[1].split("[,}]")[0];
+        String from = LocalDateTime.now().minusMinutes(1).toString();
+        for (int i = 0; i < 3; i++) {
+            createNote("{\"title\":\"Filtr " + i + "\",\"category\":{\"id\":" + categoryId + "}}");
+        }
+        createNote("{\"title\":\"Poza kategoria\",\"content\":\"test\"}");
+
+        String first = mockMvc.perform(get("/api/notes/page")
+                        .param("categoryId", categoryId)
+                        .param("createdFrom", from)
+                        .param("sort", "createdAt,asc")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].title").value("Filtr 0"))
+                .andExpect(jsonPath("$.items[1].title").value("Filtr 1"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String cursor = first.split("\"nextCursor\":\"")[1].split("\"")[0];
+
+        mockMvc.perform(get("/api/notes/page")
+                        .param("categoryId", categoryId)
+                        .param("createdFrom", from)
+                        .param("sort", "createdAt,asc")
+                        .param("size", "2")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].title").value("Filtr 2"))
+                .andExpect(jsonPath("$.nextCursor").value(nullValue()));
+
+        // Test: kursor dziala tylko z sortowaniem i filtrami, z ktorymi go wydano
+        mockMvc.perform(get("/api/notes/page")
+                        .param("categoryId", categoryId)
+                        .param("createdFrom", from)
+                        .param("sort", "updatedAt,asc")
+                        .param("cursor", cursor))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/notes/page")
+                        .param("createdFrom", from)
+                        .param("sort", "createdAt,asc")
+                        .param("cursor", cursor))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/notes/changes").param("cursor", cursor))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/notes/page").param("categoryId", categoryId).param("createdTo", from))
+                .andExpect(jsonPath("$.items.length()").value(0));
+    }
+
+    @Test
+    void getNotesPageWithUnknownSortFails() throws Exception {
+        mockMvc.perform(get("/api/notes/page").param("sort", "title,desc"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/notes/page").param("sort", "updatedAt,down"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getNoteReturnsNotModifiedForMatchingETag() throws Exception {
+        String id = createNote("{\"title\":\"Z ETagiem\",\"content\":\"test\"}");
+
+        String etag = mockMvc.perform(get("/api/notes/" + id))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        mockMvc.perform(get("/api/notes/" + id).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // po zmianie notatki stary ETag juz nie pasuje
+        mockMvc.perform(put("/api/notes/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Z ETagiem\",\"content\":\"zmiana\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/notes/" + id).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").value("zmiana"));
+    }
+
+    @Test
+    void updateNoteWithStaleIfMatchFails() throws Exception {
+        String id = createNote("{\"title\":\"Wspolbieznie\",\"content\":\"test\"}");
+        String etag = mockMvc.perform(get("/api/notes/" + id))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        String newETag = mockMvc.perform(put("/api/notes/" + id)
+                        .header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Pierwszy zapis\",\"content\":\"test\"}"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        // drugi klient wysyla ETag sprzed pierwszego zapisu
+        mockMvc.perform(put("/api/notes/" + id)
+                        .header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Drugi zapis\",\"content\":\"test\"}"))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(get("/api/notes/" + id))
+                .andExpect(header().string("ETag", newETag))
+                .andExpect(jsonPath("$.title").value("Pierwszy zapis"));
+    }
+
+    // Test: PATCH zmienia tylko podane pola, podnosi wersje i ETag; null usuwa kategorie
+    @Test
+    void patchNoteChangesOnlyGivenFields() throws Exception {
+        String category = mockMvc.perform(post("/api/categories")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Poprawki\"}"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String categoryId = category.split("\"id\":")[1].split("[,}]")[0];
+        String id = createNote("{\"title\":\"Przed poprawka\",\"content\":\"bez zmian\",\"category\":{\"id\":"
+                + categoryId + "}}");
+
+        mockMvc.perform(patch("/api/notes/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Poprawiony tytul\",\"version\":0}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + id + "-1\""))
+                .andExpect(jsonPath("$.title").value("Poprawiony tytul"))
+                .andExpect(jsonPath("$.content").value("bez zmian"))
+                .andExpect(jsonPath("$.category.name").value("Poprawki"))
+                .andExpect(jsonPath("$.version").value(1));
+
+        mockMvc.perform(patch("/api/notes/" + id)
+                        .header("If-Match", "\"" + id + "-1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"categoryId\":null}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.category").value(nullValue()))
+                .andExpect(jsonPath("$.version").value(2));
+
+        // zmiany widoczne w odczycie (cache uniewazniony zdarzeniem) i w wyszukiwaniu pelnotekstowym
+        mockMvc.perform(get("/api/notes/" + id))
+                .andExpect(jsonPath("$.title").value("Poprawiony tytul"))
+                .andExpect(jsonPath("$.content").value("bez zmian"))
+                .andExpect(jsonPath("$.category").value(nullValue()))
+                .andExpect(jsonPath("$.version").value(2));
+        mockMvc.perform(get("/api/notes/search/text").param("q", "poprawiony"))
+                .andExpect(jsonPath("$.items[0].id").value(Long.parseLong(id)));
+    }
+
+    // Test: nieaktualna wersja - 409, brak wersji - 428, ETag innej notatki - 412, bledne dane - 400
+    @Test
+    void patchNoteWithStaleOrMissingVersionFails() throws Exception {
+        String id = createNote("{\"title\":\"Rownolegle\",\"content\":\"test\"}");
+        mockMvc.perform(patch("/api/notes/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\":\"pierwszy\",\"version\":0}"))
+                .andExpect(status().isOk());
+
+        // drugi klient z wersja sprzed pierwszej zmiany
+        mockMvc.perform(patch("/api/notes/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\":\"drugi\",\"version\":0}"))
+                .andExpect(status().isConflict());
+        mockMvc.perform(patch("/api/notes/" + id)
+                        .header("If-Match", "\"" + id + "-0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\":\"drugi\"}"))
+                .andExpect(status().isConflict());
+        mockMvc.perform(get("/api/notes/" + id))
+                .andExpect(jsonPath("$.content").value("pierwszy"));
+
+        mockMvc.perform(patch("/api/notes/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\":\"bez wersji\"}"))
+                .andExpect(status().isPreconditionRequired());
+        mockMvc.perform(patch("/api/notes/" + id)
+                        .header("If-Match", "\"999999-1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\":\"cudzy ETag\"}"))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(patch("/api/notes/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":null,\"version\":1}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/api/notes/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"categoryId\":999999,\"version\":1}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/api/notes/999999")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Brak\",\"version\":0}"))
+                .andExpect(status().isNotFound());
+    }
+
+    // Test: dluga tresc przez PATCH (zapis przez encje) i zastapienie jej krotka (jedna instrukcja UPDATE)
+    @Test
+    void patchNoteReplacesLongContent() throws Exception {
+        String id = createNote("{\"title\":\"Dluga przez PATCH\",\"content\":\"krotka\"}");
+        String longContent = "x".repeat(Note.INLINE_CONTENT_LENGTH + 10);
+        mockMvc.perform(patch("/api/notes/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\":\"" + longContent + "\",\"version\":0}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.largeContent").value(true))
+                .andExpect(jsonPath("$.version").value(1));
+        mockMvc.perform(get("/api/notes/" + id))
+                .andExpect(jsonPath("$.content").value(longContent));
+
+        mockMvc.perform(patch("/api/notes/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\":\"znowu krotka\",\"version\":1}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.largeContent").value(false));
+        mockMvc.perform(get("/api/notes/" + id))
+                .andExpect(jsonPath("$.content").value("znowu krotka"))
+                .andExpect(jsonPath("$.largeContent").value(false));
+    }
+
+    @Test
+    void getNotesPageReturnsNotModifiedForMatchingETag() throws Exception {
+        createNote("{\"title\":\"Strona z ETagiem\",\"content\":\"test\"}");
+        String etag = mockMvc.perform(get("/api/notes/page").param("size", "5"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        mockMvc.perform(get("/api/notes/page").param("size", "5").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        // nowa notatka trafia na pierwsza strone - ETag strony sie zmienia
+        createNote("{\"title\":\"Najnowsza\",\"content\":\"test\"}");
+        mockMvc.perform(get("/api/notes/page").param("size", "5").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].title").value("Najnowsza"));
+    }
+
+    @Test
+    void changesFeedReturnsUpdatesAndDeletesSinceWatermark() throws Exception {
+        String since = LocalDateTime.now().minusNanos(1000).toString();
+        String keptId = createNote("{\"title\":\"Zostaje\",\"content\":\"test\"}");
+        String deletedId = createNote("{\"title\":\"Znika\",\"content\":\"test\"}");
+        mockMvc.perform(put("/api/notes/" + keptId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Zostaje\",\"content\":\"zmiana\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/notes/" + deletedId)).andExpect(status().isNoContent());
+
+        // kazda notatka pojawia sie raz, w ostatnim stanie, w kolejnosci zmian
+        String nextCursor = mockMvc.perform(get("/api/notes/changes").param("since", since))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes.length()").value(2))
+                .andExpect(jsonPath("$.changes[0].type").value("UPSERT"))
+                .andExpect(jsonPath("$.changes[0].note.content").value("zmiana"))
+                .andExpect(jsonPath("$.changes[1].type").value("DELETE"))
+                .andExpect(jsonPath("$.changes[1].id").value(Long.parseLong(deletedId)))
+                .andExpect(jsonPath("$.hasMore").value(false))
+                .andReturn()
+                .getResponse()
+                .getContentAsString()
+                .split("\"nextCursor\":\"")[1].split("\"")[0];
+
+        // bez nowych zmian kolejne odpytanie jest puste i zwraca ten sam kursor
+        mockMvc.perform(get("/api/notes/changes").param("cursor", nextCursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes.length()").value(0))
+                .andExpect(jsonPath("$.nextCursor").value(nextCursor));
+
+        mockMvc.perform(get("/api/notes/changes").param("since", since).param("size", "1"))
+                .andExpect(jsonPath("$.changes.length()").value(1))
+                .andExpect(jsonPath("$.hasMore").value(true));
+    }
+
+    @Test
+    void getNotesPageWithInvalidCursor() throws Exception {
+        mockMvc.perform(get("/api/notes/page").param("cursor", "nie-kursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void streamAllNotes() throws Exception {
+        mockMvc.perform(post("/api/notes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Strumien\",\"content\":\"test\"}"))
+                .andExpect(status().isCreated());
+
+        MvcResult result = mockMvc.perform(get("/api/notes").accept(MediaType.APPLICATION_NDJSON_VALUE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON_VALUE))
+                .andExpect(content().string(containsString("\"title\":\"Strumien\"")));
+    }
+
+    @Test
+    void searchNotesFullText() throws Exception {
+        mockMvc.perform(post("/api/notes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Pełnotekstowa\",\"content\":\"Żółta łódź podwodna\"}"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/notes/search/text").param("q", "zolta lodz"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.items[0].title").value("Pełnotekstowa"));
+    }
+
+    // Test: slowo spoza podgladu dlugiej tresci - po zapisie, po zmianie samego tytulu i po przebudowie indeksu
+    @Test
+    void searchNotesFullTextFindsWordsBeyondPreview() throws Exception {
+        String content = "x".repeat(Note.INLINE_CONTENT_LENGTH + 100) + " zebrakonik";
+        String id = createNote("{\"title\":\"Długa do wyszukania\",\"content\":\"" + content + "\"}");
+        mockMvc.perform(get("/api/notes/search/text").param("q", "zebrakonik"))
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(Long.parseLong(id)));
+
+        mockMvc.perform(patch("/api/notes/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Nowy tytuł\",\"version\":0}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/notes/search/text").param("q", "zebrakonik"))
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.items[0].title").value("Nowy tytuł"));
+
+        noteSearchIndexer.rebuild();
+        mockMvc.perform(get("/api/notes/search/text").param("q", "zebrakonik"))
+                .andExpect(jsonPath("$.total").value(1));
+    }
+
+    @Test
+    void suggestFollowsCreatedUpdatedAndDeletedNotes() throws Exception {
+        String id = createNote("{\"title\":\"Źdźbło trawy\",\"content\":\"test\"}");
+
+        // Test: nowa notatka od razu w podpowiedziach, prefiks bez polskich znakow
+        mockMvc.perform(get("/api/notes/suggest").param("prefix", "zdzb"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(Long.parseLong(id)))
+                .andExpect(jsonPath("$[0].title").value("Źdźbło trawy"));
+
+        mockMvc.perform(put("/api/notes/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Kłos zboża\",\"content\":\"test\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/notes/suggest").param("prefix", "zdzb"))
+                .andExpect(jsonPath("$.length()").value(0));
+        mockMvc.perform(get("/api/notes/suggest").param("prefix", "KLOS Z"))
+                .andExpect(jsonPath("$[0].title").value("Kłos zboża"));
+
+        mockMvc.perform(delete("/api/notes/" + id)).andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/notes/suggest").param("prefix", "klos"))
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    // Test: limit podpowiedzi jest ograniczony do 10
+    @Test
+    void suggestCapsLimit() throws Exception {
+        for (int i = 0; i < 12; i++) {
+            createNote("{\"title\":\"Limitowana " + i + "\",\"content\":\"test\"}");
+        }
+
+        mockMvc.perform(get("/api/notes/suggest").param("prefix", "limitowana").param("limit", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(10));
+    }
+
+    // Test: bez repliki w pamieci lista ostatnio zmienionych i liczba notatek pochodza z bazy
+    @Test
+    void recentNotesAndCountFromDatabase() throws Exception {
+        String first = createNote("{\"title\":\"Ostatnia 1\",\"content\":\"test\"}");
+        String second = createNote("{\"title\":\"Ostatnia 2\",\"content\":\"test\"}");
+
+        mockMvc.perform(get("/api/notes/recent").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(Long.parseLong(second)))
+                .andExpect(jsonPath("$[0].categoryId").value(nullValue()))
+                .andExpect(jsonPath("$[0].content").doesNotExist())
+                .andExpect(jsonPath("$[1].id").value(Long.parseLong(first)));
+        mockMvc.perform(get("/api/notes/count"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(greaterThanOrEqualTo(2)));
+    }
+
+    @Test
+    void updateNoteInvalidatesCachedNote() throws Exception {
+        String response = mockMvc.perform(post("/api/notes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Przed zmiana\",\"content\":\"test\"}"))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String id = response.split("\"id\":")[1].split(",")[0];
+
+        // pierwszy odczyt zapisuje notatke w cache, drugi jest trafieniem
+        mockMvc.perform(get("/api/notes/" + id)).andExpect(jsonPath("$.title").value("Przed zmiana"));
+        mockMvc.perform(get("/api/notes/" + id)).andExpect(jsonPath("$.title").value("Przed zmiana"));
+
+        mockMvc.perform(put("/api/notes/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Po zmianie\",\"content\":\"test\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/notes/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Po zmianie"));
+        mockMvc.perform(get("/api/cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.notes.hits").value(greaterThanOrEqualTo(1)));
+    }
+
+    @Test
+    void getAllNotesReturnsOnlyRequestedFields() throws Exception {
+        String id = createNote("{\"title\":\"Wybrane pola\",\"content\":\"bez tresci\"}");
+
+        mockMvc.perform(get("/api/notes").param("fields", "title,updatedAt"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.id == " + id + ")].title").value("Wybrane pola"))
+                .andExpect(jsonPath("$[?(@.id == " + id + ")].updatedAt").exists())
+                .andExpect(jsonPath("$[0].content").doesNotExist())
+                .andExpect(jsonPath("$[0].version").doesNotExist())
+                .andExpect(jsonPath("$[0].category").doesNotExist());
+
+        mockMvc.perform(get("/api/notes/search").param("title", "wybrane").param("fields", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(Long.parseLong(id)))
+                .andExpect(jsonPath("$[0].category").value(nullValue()))
+                .andExpect(jsonPath("$[0].content").doesNotExist());
+    }
+
+    @Test
+    void getAllNotesWithUnknownFieldFails() throws Exception {
+        mockMvc.perform(get("/api/notes").param("fields", "title,haslo"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void largeContentIsReturnedInFullOnlyForSingleNote() throws Exception {
+        String content = "Długa treść notatki. ".repeat(300);
+        String id = createNote("{\"title\":\"Długa\",\"content\":\"" + content + "\"}");
+
+        mockMvc.perform(get("/api/notes/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").value(content))
+                .andExpect(jsonPath("$.largeContent").value(true));
+
+        // Test: lista zwraca tylko poczatek tresci - bez ladowania note_bodies
+        mockMvc.perform(get("/api/notes"))
+                .andExpect(jsonPath("$[?(@.id == " + id + ")].content")
+                        .value(content.substring(0, Note.INLINE_CONTENT_LENGTH)))
+                .andExpect(jsonPath("$[?(@.id == " + id + ")].largeContent").value(true));
+
+        // Test: zmiana tylko konca dlugiej tresci tez zmienia wersje notatki
+        mockMvc.perform(put("/api/notes/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Długa\",\"content\":\"" + content + "koniec\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + id + "-1\""));
+
+        mockMvc.perform(put("/api/notes/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Krótka\",\"content\":\"krótka treść\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/notes/" + id))
+                .andExpect(jsonPath("$.content").value("krótka treść"))
+                .andExpect(jsonPath("$.largeContent").value(false));
+    }
+
+    // Test: przypisanie kategorii zwraca cala notatke - dluga tresc w calosci, nowa wersja w ETag
+    @Test
+    void assignCategoryReturnsFullNote() throws Exception {
+        String content = "Długa treść notatki. ".repeat(300);
+        String id = createNote("{\"title\":\"Długa z kategorią\",\"content\":\"" + content + "\"}");
+        String category = mockMvc.perform(post("/api/categories")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Przypisana\"}"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String categoryId = category.split("\"id\":")[1].split("[,}]")[0];
+
+        mockMvc.perform(put("/api/notes/" + id + "/category/" + categoryId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + id + "-1\""))
+                .andExpect(jsonPath("$.content").value(content))
+                .andExpect(jsonPath("$.largeContent").value(true))
+                .andExpect(jsonPath("$.category.name").value("Przypisana"))
+                .andExpect(jsonPath("$.version").value(1));
+    }
+
+    @Test
+    void createNoteWithTooLongContentFails() throws Exception {
+        String content = "a".repeat(Note.MAX_CONTENT_LENGTH + 1);
+        mockMvc.perform(post("/api/notes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Za długa\",\"content\":\"" + content + "\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void createNotesBatchReportsEachItem() throws Exception {
+        String json = "[{\"title\":\"Wsadowa 1\",\"content\":\"a\"},"
+                + "{\"title\":\"\",\"content\":\"pusty tytul\"},"
+                + "{\"title\":\"Wsadowa 3\",\"category\":{\"id\":9999}}]";
+
+        mockMvc.perform(post("/api/notes/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.items[0].status").value(201))
+                .andExpect(jsonPath("$.items[0].id").exists())
+                .andExpect(jsonPath("$.items[1].status").value(400))
+                .andExpect(jsonPath("$.items[2].errors[0]").value(containsString("category")));
+    }
+
+    @Test
+    void updateAndDeleteNotesBatch() throws Exception {
+        String response = mockMvc.perform(post("/api/notes/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"title\":\"A\"},{\"title\":\"B\"}]"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String firstId = response.split("\"id\":")[1].split(",")[0];
+        String secondId = response.split("\"id\":")[2].split(",")[0];
+
+        mockMvc.perform(put("/api/notes/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"id\":" + firstId + ",\"title\":\"A2\"},{\"id\":999999,\"title\":\"X\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].status").value(200))
+                .andExpect(jsonPath("$.items[1].status").value(404));
+        mockMvc.perform(get("/api/notes/" + firstId))
+                .andExpect(jsonPath("$.title").value("A2"));
+
+        mockMvc.perform(delete("/api/notes/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + firstId + "," + secondId + "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(2));
+        mockMvc.perform(get("/api/notes/" + secondId))
+                .andExpect(status().isNotFound());
+    }
+
+    private String createNote(String json) throws Exception {
+        String response = mockMvc.perform(post("/api/notes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return response.split("\"id\":")[1].split("[,}]")[0];
+    }
 }
@@ -0,0 +1,161 @@
+package pl.edu.notes;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import pl.edu.notes.dto.NoteView;
+import pl.edu.notes.model.Category;
+import pl.edu.notes.model.Note;
+import pl.edu.notes.repository.CategoryRepository;
+import pl.edu.notes.repository.NoteRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class NoteImportExportTest {
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Test
+    void exportedNdjsonCanBeImportedBack() throws Exception {
+        Category category = categoryRepository.save(new Category("Eksport NDJSON"));
+        Note note = new Note("Do eksportu", "d".repeat(Note.INLINE_CONTENT_LENGTH + 100));
+        note.setCategory(category);
+        noteRepository.save(note);
+
+        // Test: eksport ma nazwe kategorii i cala dluga tresc, nie tylko jej poczatek
+        String exported = export("ndjson");
+        String line = exported.lines()
+                .filter(l -> l.contains("\"title\":\"Do eksportu\""))
+                .findFirst()
+                .orElseThrow();
+        assertTrue(line.contains("\"category\":\"Eksport NDJSON\""));
+        assertTrue(line.contains("d".repeat(Note.INLINE_CONTENT_LENGTH + 100)));
+
+        mockMvc.perform(post("/api/notes/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(line + "\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.failed").value(0));
+
+        // Test: kategoria rozpoznana po nazwie - import nie tworzy drugiej, a kopia ma te sama tresc
+        List<NoteView> copies = noteRepository.searchViewsByTitle("Do eksportu");
+        assertEquals(2, copies.size());
+        for (NoteView copy : copies) {
+            assertEquals(category.getId(), copy.category().id());
+            mockMvc.perform(get("/api/notes/" + copy.id()))
+                    .andExpect(jsonPath("$.content").value(note.getContent()));
+        }
+    }
+
+    @Test
+    void csvImportCreatesMissingCategoriesAndReportsInvalidRecords() throws Exception {
+        String csv = "title,content,category\r\n"
+                + "Pierwsza CSV,\"treść, z przecinkiem\nw dwóch liniach\",Nowa z CSV\r\n"
+                + ",bez tytułu,Nowa z CSV\r\n"
+                + "Druga CSV,\"cytat: \"\"tak\"\"\",Nowa z CSV\r\n";
+
+        mockMvc.perform(post("/api/notes/import")
+                        .contentType(TEXT_CSV)
+                        .content(csv.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].record").value(2))
+                .andExpect(jsonPath("$.errors[0].errors[0]").value("title: Tytuł nie może być pusty"));
+
+        Category created = categoryRepository.findByName("Nowa z CSV").orElseThrow();
+        assertEquals("treść, z przecinkiem\nw dwóch liniach",
+                noteRepository.findByTitleContainingIgnoreCase("Pierwsza CSV").get(0).getContent());
+        Note second = noteRepository.findByTitleContainingIgnoreCase("Druga CSV").get(0);
+        assertEquals("cytat: \"tak\"", second.getContent());
+        assertEquals(created.getId(), second.getCategory().getId());
+    }
+
+    @Test
+    void csvExportQuotesFieldsWithSeparators() throws Exception {
+        noteRepository.save(new Note("Eksport CSV", "a, \"b\"\nc"));
+
+        String csv = export("csv");
+
+        assertTrue(csv.startsWith("id,category,title,content,createdAt,updatedAt\r\n"));
+        assertTrue(csv.contains(",,Eksport CSV,\"a, \"\"b\"\"\nc\","));
+    }
+
+    @Test
+    void importLargerThanOneChunkIsWrittenCompletely() throws Exception {
+        String ndjson = IntStream.range(0, 1200)
+                .mapToObj(i -> "{\"title\":\"Paczka " + i + "\",\"content\":\"test\",\"category\":\"Paczki\"}")
+                .collect(Collectors.joining("\n"));
+
+        mockMvc.perform(post("/api/notes/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1200));
+
+        assertEquals(1200, noteRepository.findByTitleContainingIgnoreCase("Paczka ").size());
+    }
+
+    @Test
+    void syntaxErrorStopsImportAndKeepsEarlierRecords() throws Exception {
+        String ndjson = "{\"title\":\"Przed bledem\"}\n{\"title\": \n";
+
+        // Test: 400 z opisem bledu, ale rekord sprzed bledu jest zapisany
+        mockMvc.perform(post("/api/notes/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.error").value(containsString("Niepoprawny rekord 2")));
+        assertEquals(1, noteRepository.findByTitleContainingIgnoreCase("Przed bledem").size());
+    }
+
+    @Test
+    void unknownExportFormatIsRejected() throws Exception {
+        mockMvc.perform(get("/api/notes/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/notes/import")
+                        .contentType(TEXT_CSV)
+                        .content("content\nbez kolumny title\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Brak kolumny title w nagłówku CSV"));
+    }
+
+    private String export(String format) throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/notes/export").param("format", format))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", containsString("notes." + format)))
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+    }
+}
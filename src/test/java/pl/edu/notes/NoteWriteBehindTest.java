@@ -0,0 +1,219 @@
+package pl.edu.notes;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.test.web.servlet.MockMvc;
+import pl.edu.notes.event.NoteChangedEvent;
+import pl.edu.notes.model.Note;
+import pl.edu.notes.repository.NoteRepository;
+import pl.edu.notes.service.NoteWriteBehindService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// dlugi interwal zrzutu - bufor oprozniaja tylko testy (flush()) i sciezki synchroniczne
+@SpringBootTest(properties = {
+        "notes.write-behind.enabled=true",
+        "notes.write-behind.flush-interval-ms=600000"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@RecordApplicationEvents
+class NoteWriteBehindTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private NoteWriteBehindService writeBehind;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    @Test
+    void createIsAcknowledgedBeforeItReachesTheDatabase() throws Exception {
+        Long id = createNote("{\"title\":\"W buforze\",\"content\":\"test\"}");
+
+        // Test: notatka ma id i jest widoczna przez GET, ale jeszcze nie ma jej w bazie
+        assertTrue(noteRepository.findById(id).isEmpty());
+        mockMvc.perform(get("/api/notes/" + id))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + id + "-0\""))
+                .andExpect(jsonPath("$.title").value("W buforze"));
+
+        writeBehind.flush();
+
+        Note stored = noteRepository.findById(id).orElseThrow();
+        assertEquals("W buforze", stored.getTitle());
+        assertEquals(0L, stored.getVersion());
+        assertEquals(0, writeBehind.depth());
+    }
+
+    @Test
+    void updatesOfTheSameNoteAreCoalesced() throws Exception {
+        Long id = createNote("{\"title\":\"Pierwsza\",\"content\":\"test\"}");
+        writeBehind.flush();
+        double coalescedBefore = meterRegistry.counter("notes.writebehind.coalesced").count();
+
+        for (int i = 1; i <= 3; i++) {
+            mockMvc.perform(put("/api/notes/" + id)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"title\":\"Zmiana " + i + "\",\"content\":\"test\"}"))
+                    .andExpect(status().isAccepted())
+                    .andExpect(header().string("ETag", "\"" + id + "-1\""));
+        }
+
+        // Test: trzy zmiany to jedna pozycja w buforze i jeden UPDATE
+        assertEquals(1, writeBehind.depth());
+        assertEquals(2, meterRegistry.counter("notes.writebehind.coalesced").count() - coalescedBefore);
+        mockMvc.perform(get("/api/notes/" + id))
+                .andExpect(jsonPath("$.title").value("Zmiana 3"));
+
+        writeBehind.flush();
+
+        Note stored = noteRepository.findById(id).orElseThrow();
+        assertEquals("Zmiana 3", stored.getTitle());
+        assertEquals(1L, stored.getVersion());
+    }
+
+    @Test
+    void createAndUpdateBeforeFlushBecomeOneInsert() throws Exception {
+        Long id = createNote("{\"title\":\"Szkic\",\"content\":\"test\"}");
+        mockMvc.perform(put("/api/notes/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Gotowa\",\"content\":\"test\"}"))
+                .andExpect(status().isAccepted());
+
+        writeBehind.flush();
+
+        Note stored = noteRepository.findById(id).orElseThrow();
+        assertEquals("Gotowa", stored.getTitle());
+        assertEquals(0L, stored.getVersion());
+    }
+
+    @Test
+    void synchronousPathsSeePendingWrites() throws Exception {
+        Long id = createNote("{\"title\":\"Do usuniecia\",\"content\":\"test\"}");
+
+        // Test: DELETE najpierw zapisuje bufor, wiec notatka potwierdzona 202 da sie usunac
+        mockMvc.perform(delete("/api/notes/" + id))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/notes/" + id))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void largeContentIsWrittenSynchronously() throws Exception {
+        String content = "x".repeat(Note.INLINE_CONTENT_LENGTH + 100);
+
+        // Test: dluga tresc (note_bodies) omija bufor - notatka jest w bazie od razu
+        mockMvc.perform(post("/api/notes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Długa\",\"content\":\"" + content + "\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.largeContent").value(true));
+        assertEquals(0, writeBehind.depth());
+    }
+
+    @Test
+    void shortUpdateReplacesStoredLargeContent() throws Exception {
+        Note stored = noteRepository.save(new Note("Długa", "y".repeat(Note.INLINE_CONTENT_LENGTH + 100)));
+
+        mockMvc.perform(put("/api/notes/" + stored.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Krótka\",\"content\":\"krótka\"}"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.largeContent").value(false));
+        writeBehind.flush();
+
+        // Test: po zrzucie notatka nie wskazuje juz note_bodies, a stara dluga tresc jest usunieta
+        Note updated = noteRepository.findById(stored.getId()).orElseThrow();
+        assertEquals("krótka", updated.getContent());
+        assertFalse(updated.isLargeContent());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM note_bodies WHERE id = ?", Integer.class, stored.getBodyId()));
+    }
+
+    @Test
+    void updateOfNoteDeletedBeforeFlushIsDropped() throws Exception {
+        Note stored = noteRepository.save(new Note("Długa", "z".repeat(Note.INLINE_CONTENT_LENGTH + 100)));
+        double droppedBefore = meterRegistry.counter("notes.writebehind.dropped").count();
+
+        mockMvc.perform(put("/api/notes/" + stored.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Spóźniona\",\"content\":\"krótka\"}"))
+                .andExpect(status().isAccepted());
+        // usuniecie z innej sciezki niz NoteController - zmiana jest juz w buforze
+        jdbcTemplate.update("UPDATE notes SET deleted = TRUE, deleted_at = CURRENT_TIMESTAMP WHERE id = ?", stored.getId());
+        applicationEvents.clear();
+        writeBehind.flush();
+
+        // Test: UPDATE nie zmienil zadnego wiersza - bez zdarzenia UPDATED, zapis policzony jako pominiety,
+        // a dluga tresc zostaje, bo usuniety wiersz nadal ja wskazuje
+        assertEquals(1, meterRegistry.counter("notes.writebehind.dropped").count() - droppedBefore);
+        assertEquals(0, applicationEvents.stream(NoteChangedEvent.class)
+                .filter(event -> event.noteId().equals(stored.getId()))
+                .count());
+        assertEquals("Długa", jdbcTemplate.queryForObject(
+                "SELECT title FROM notes WHERE id = ?", String.class, stored.getId()));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM note_bodies WHERE id = ?", Integer.class, stored.getBodyId()));
+    }
+
+    @Test
+    void invalidWritesAreRejectedBeforeQueueing() throws Exception {
+        mockMvc.perform(post("/api/notes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"\",\"content\":\"test\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/notes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Zla kategoria\",\"category\":{\"id\":9999}}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(put("/api/notes/9999")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Brak\",\"content\":\"test\"}"))
+                .andExpect(status().isNotFound());
+        assertEquals(0, writeBehind.depth());
+    }
+
+    @Test
+    void queueDepthAndFlushLatencyAreMeasured() throws Exception {
+        createNote("{\"title\":\"Metryki\",\"content\":\"test\"}");
+
+        assertEquals(writeBehind.depth(), meterRegistry.get("notes.writebehind.queue.depth").gauge().value());
+        long flushesBefore = meterRegistry.get("notes.writebehind.flush").timer().count();
+        writeBehind.flush();
+        assertEquals(flushesBefore + 1, meterRegistry.get("notes.writebehind.flush").timer().count());
+        assertEquals(0.0, meterRegistry.get("notes.writebehind.queue.depth").gauge().value());
+    }
+
+    private Long createNote(String json) throws Exception {
+        String response = mockMvc.perform(post("/api/notes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isAccepted())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return Long.parseLong(response.split("\"id\":")[1].split("[,}]")[0]);
+    }
+}
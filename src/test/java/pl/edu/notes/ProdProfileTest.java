@@ -0,0 +1,84 @@
+package pl.edu.notes;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Profil "prod" na bazie in-memory zamiast pliku
+// sprawdza ze migracje Flyway tworza schemat zgodny z encjami (ddl-auto=validate) i ze aplikacja na nim dziala
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:prodtest;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("prod")
+class ProdProfileTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migrationsCreateSchemaWithIndexes() {
+        String version = jdbcTemplate.queryForObject(
+                "SELECT MAX(\"version\") FROM \"flyway_schema_history\" WHERE \"success\" = TRUE", String.class);
+        assertEquals("4", version);
+
+        Integer indexes = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES WHERE TABLE_NAME = 'NOTES' "
+                        + "AND INDEX_NAME IN ('IDX_NOTES_UPDATED_AT_ID', 'IDX_NOTES_CATEGORY_ID', 'IDX_NOTES_TITLE', "
+                        + "'IDX_NOTES_CREATED_AT_ID', 'IDX_NOTES_CATEGORY_UPDATED_AT_ID', 'IDX_NOTES_CATEGORY_CREATED_AT_ID', "
+                        + "'IDX_NOTES_DELETED_AT')",
+                Integer.class);
+        assertEquals(7, indexes);
+    }
+
+    @Test
+    void createAndReadNote() throws Exception {
+        String response = mockMvc.perform(post("/api/notes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Trwala\",\"content\":\"zapisana w bazie z migracji\"}"))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String id = response.split("\"id\":")[1].split("[,}]")[0];
+
+        mockMvc.perform(get("/api/notes/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Trwala"))
+                .andExpect(jsonPath("$.version").value(0));
+        mockMvc.perform(delete("/api/notes/" + id))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void largeContentIsStoredInNoteBodies() throws Exception {
+        String content = "Treść w kolumnie BLOB. ".repeat(200);
+        String response = mockMvc.perform(post("/api/notes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Długa\",\"content\":\"" + content + "\"}"))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String id = response.split("\"id\":")[1].split("[,}]")[0];
+
+        mockMvc.perform(get("/api/notes/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").value(content));
+        // tresc powtarzalna - w BLOB zapisana w postaci skompresowanej
+        Integer storedBytes = jdbcTemplate.queryForObject("SELECT OCTET_LENGTH(b.content) FROM note_bodies b "
+                + "JOIN notes n ON n.body_id = b.id WHERE n.id = ?", Integer.class, Long.parseLong(id));
+        assertTrue(storedBytes < content.length() / 10);
+    }
+}
@@ -0,0 +1,162 @@
+package pl.edu.notes;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import pl.edu.notes.model.Category;
+import pl.edu.notes.model.Note;
+import pl.edu.notes.repository.CategoryRepository;
+import pl.edu.notes.repository.NoteRepository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Sprawdza liczbe zapytan SQL wykonanych przez endpointy list (problem N+1)
+// licznik pochodzi ze statystyk Hibernate (hibernate.generate_statistics w application-test.properties),
+// a dla zmian przez JdbcTemplate - z metryki notes.http.sql.statements
+// dane: 5 kategorii po 4 notatki - przy N+1 liczba zapytan rosnie razem z liczba kategorii
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class QueryCountTest {
+
+    private static final int CATEGORIES = 5;
+    private static final int NOTES_PER_CATEGORY = 4;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        // takze wiersze oznaczone jako usuniete, ktorych repozytoria nie widza
+        jdbcTemplate.update("DELETE FROM notes");
+        jdbcTemplate.update("DELETE FROM categories");
+        for (int c = 0; c < CATEGORIES; c++) {
+            Category category = categoryRepository.save(new Category("Licznik " + c));
+            for (int n = 0; n < NOTES_PER_CATEGORY; n++) {
+                Note note = new Note("Notatka " + c + "-" + n, "tresc");
+                note.setCategory(category);
+                noteRepository.save(note);
+            }
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    // Test: lista z wybranymi polami - jedno zapytanie, bez kolumny content
+    @Test
+    void getAllNotesWithFields_shouldNotSelectContent() throws Exception {
+        mockMvc.perform(get("/api/notes").param("fields", "summary")).andExpect(status().isOk());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueries().length);
+        assertFalse(statistics.getQueries()[0].contains("content"));
+    }
+
+    // Test: lista notatek - jedno zapytanie z LEFT JOIN zamiast osobnego SELECT dla kazdej kategorii
+    @Test
+    void getAllNotes_shouldRunSingleStatement() throws Exception {
+        mockMvc.perform(get("/api/notes")).andExpect(status().isOk());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    // Test: wyszukiwanie po tytule - jedno zapytanie
+    @Test
+    void searchNotes_shouldRunSingleStatement() throws Exception {
+        mockMvc.perform(get("/api/notes/search").param("title", "notatka")).andExpect(status().isOk());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    // Test: strona keyset - jedno zapytanie
+    @Test
+    void getNotesPage_shouldRunSingleStatement() throws Exception {
+        mockMvc.perform(get("/api/notes/page").param("size", "10")).andExpect(status().isOk());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    // Test: lista kategorii z notatkami - dwa zapytania zamiast 1 + liczba kategorii
+    @Test
+    void getAllCategories_shouldRunTwoStatements() throws Exception {
+        mockMvc.perform(get("/api/categories")).andExpect(status().isOk());
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    // Test: PATCH notatki - jedna instrukcja UPDATE z OLD TABLE
+    @Test
+    void patchNote_shouldRunSingleStatement() throws Exception {
+        Note note = noteRepository.findAll().get(0);
+
+        assertEquals(1, sqlStatements(patch("/api/notes/" + note.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Zmieniony\",\"version\":" + note.getVersion() + "}"), "PATCH", "/api/notes/{id}"));
+    }
+
+    // Test: usuniecie notatki - UPDATE oznaczajacy notatke i batch nagrobkow
+    @Test
+    void deleteNote_shouldRunTwoStatements() throws Exception {
+        Note note = noteRepository.findAll().get(0);
+
+        assertEquals(2, sqlStatements(delete("/api/notes/" + note.getId()), "DELETE", "/api/notes/{id}"));
+    }
+
+    // Test: usuniecie kategorii - trzy instrukcje niezaleznie od liczby jej notatek
+    @Test
+    void deleteCategory_shouldRunThreeStatements() throws Exception {
+        Category category = categoryRepository.findAll().get(0);
+
+        assertEquals(3, sqlStatements(delete("/api/categories/" + category.getId()), "DELETE",
+                "/api/categories/{id}"));
+    }
+
+    // instrukcje SQL jednego zadania wedlug notes.http.sql.statements - takze te wyslane przez JdbcTemplate
+    private double sqlStatements(MockHttpServletRequestBuilder request, String method, String uri) throws Exception {
+        double before = statementsTotal(method, uri);
+        mockMvc.perform(request).andExpect(status().is2xxSuccessful());
+        return statementsTotal(method, uri) - before;
+    }
+
+    private double statementsTotal(String method, String uri) {
+        DistributionSummary summary = meterRegistry.find("notes.http.sql.statements")
+                .tag("method", method)
+                .tag("uri", uri)
+                .summary();
+        return summary != null ? summary.totalAmount() : 0;
+    }
+}
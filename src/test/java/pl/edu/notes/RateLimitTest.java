@@ -0,0 +1,116 @@
+package pl.edu.notes;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import pl.edu.notes.model.Note;
+import pl.edu.notes.ratelimit.EndpointClass;
+import pl.edu.notes.ratelimit.RateLimiter;
+import pl.edu.notes.repository.NoteRepository;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// maly kubelek wolno uzupelniany - limit da sie wyczerpac kilkoma zadaniami
+// kazdy test uzywa wlasnego adresu klienta, wiec testy nie dziela kubelkow
+@SpringBootTest(properties = {
+        "notes.rate-limit.enabled=true",
+        "notes.rate-limit.capacity=20",
+        "notes.rate-limit.refill-per-second=0.1",
+        "notes.rate-limit.concurrency.bulk=1"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RateLimitTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Test
+    void searchCostsMoreThanGetById() throws Exception {
+        Long id = noteRepository.save(new Note("Limitowana", "test")).getId();
+
+        // Test: 20 tokenow to dwa wyszukiwania (koszt 10) albo dwadziescia odczytow po id (koszt 1)
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/notes/search").param("title", "Limit").with(client("10.0.0.1")))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/api/notes/search").param("title", "Limit").with(client("10.0.0.1")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(content().string(containsString("Zbyt wiele żądań")));
+
+        for (int i = 0; i < 20; i++) {
+            mockMvc.perform(get("/api/notes/" + id).with(client("10.0.0.2")))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/api/notes/" + id).with(client("10.0.0.2")))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void retryAfterTellsWhenEnoughTokensReturn() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/notes/search").param("title", "x").with(client("10.0.0.3")))
+                    .andExpect(status().isOk());
+        }
+
+        // Test: 0,1 tokena na sekunde - brakujace 10 tokenow wroci za 100 s
+        mockMvc.perform(get("/api/notes/search").param("title", "x").with(client("10.0.0.3")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "100"));
+    }
+
+    @Test
+    void concurrencyLimitRejectsInsteadOfQueueing() throws Exception {
+        // Test: zajete jedyne miejsce dla operacji wsadowych - kolejna dostaje 429 od razu, inny klient tez
+        assertEquals(0, rateLimiter.tryAdmit("10.0.0.4", EndpointClass.BULK));
+        try {
+            mockMvc.perform(post("/api/notes/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("[{\"title\":\"Wsadowa\",\"content\":\"test\"}]")
+                            .with(client("10.0.0.5")))
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(header().string("Retry-After", "1"));
+        } finally {
+            rateLimiter.release(EndpointClass.BULK);
+        }
+
+        mockMvc.perform(post("/api/notes/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"title\":\"Wsadowa\",\"content\":\"test\"}]")
+                        .with(client("10.0.0.5")))
+                .andExpect(status().isOk());
+        // Test: miejsce zwolnione po zakonczeniu zadania
+        assertEquals(0, rateLimiter.tryAdmit("10.0.0.6", EndpointClass.BULK));
+        rateLimiter.release(EndpointClass.BULK);
+    }
+
+    @Test
+    void endpointsOutsideNotesApiAreNotLimited() throws Exception {
+        for (int i = 0; i < 30; i++) {
+            mockMvc.perform(get("/api/cache/stats").with(client("10.0.0.7")))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    private static RequestPostProcessor client(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+}
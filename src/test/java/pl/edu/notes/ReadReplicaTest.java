@@ -0,0 +1,110 @@
+package pl.edu.notes;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import pl.edu.notes.dto.NoteSummary;
+import pl.edu.notes.replica.NoteReadReplica;
+import pl.edu.notes.replica.NoteReadReplicaLoader;
+import pl.edu.notes.repository.NoteRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "notes.read-replica.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReadReplicaTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private NoteReadReplica replica;
+
+    @Autowired
+    private NoteReadReplicaLoader replicaLoader;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Test
+    void replicaFollowsCreatedUpdatedAndDeletedNotes() throws Exception {
+        Long categoryId = createCategory("Replika");
+        Long otherCategoryId = createCategory("Replika 2");
+        String first = createNote("{\"title\":\"Pierwsza\",\"category\":{\"id\":" + categoryId + "}}");
+        String second = createNote("{\"title\":\"Druga\",\"category\":{\"id\":" + categoryId + "}}");
+
+        // Test: lista z repliki od ostatnio zmienionych, licznik kategorii
+        mockMvc.perform(get("/api/notes/recent").param("categoryId", categoryId.toString()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(Long.parseLong(second)))
+                .andExpect(jsonPath("$[0].categoryId").value(categoryId))
+                .andExpect(jsonPath("$[1].title").value("Pierwsza"));
+        mockMvc.perform(get("/api/notes/count").param("categoryId", categoryId.toString()))
+                .andExpect(jsonPath("$.count").value(2));
+
+        // Test: przeniesienie do innej kategorii i usuniecie widoczne po commicie
+        mockMvc.perform(put("/api/notes/" + first)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Przeniesiona\",\"category\":{\"id\":" + otherCategoryId + "}}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/notes/" + second)).andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/notes/count").param("categoryId", categoryId.toString()))
+                .andExpect(jsonPath("$.count").value(0));
+        mockMvc.perform(get("/api/notes/recent").param("categoryId", otherCategoryId.toString()))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].title").value("Przeniesiona"));
+    }
+
+    @Test
+    void replicaMatchesDatabaseQueries() throws Exception {
+        Long categoryId = createCategory("Porownanie");
+        for (int i = 0; i < 5; i++) {
+            createNote("{\"title\":\"Porownanie " + i + "\",\"category\":{\"id\":" + categoryId + "}}");
+        }
+
+        // Test: replika daje te same wiersze (z datami co do mikrosekundy) co zapytania JPA
+        assertEquals(noteRepository.findRecentSummariesByCategory(categoryId, Limit.of(3)),
+                replica.recent(categoryId, 3));
+        assertEquals(noteRepository.countByCategoryId(categoryId), replica.count(categoryId));
+
+        // Test: ponowne zaladowanie z bazy daje ten sam stan co aktualizacje po zdarzeniach
+        List<NoteSummary> before = replica.recent(categoryId, 10);
+        replicaLoader.rebuild();
+        assertEquals(before, replica.recent(categoryId, 10));
+    }
+
+    private Long createCategory(String name) throws Exception {
+        String response = mockMvc.perform(post("/api/categories")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"" + name + "\"}"))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return Long.parseLong(response.split("\"id\":")[1].split("[,}]")[0]);
+    }
+
+    private String createNote(String json) throws Exception {
+        String response = mockMvc.perform(post("/api/notes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return response.split("\"id\":")[1].split("[,}]")[0];
+    }
+}
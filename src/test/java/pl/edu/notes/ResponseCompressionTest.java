@@ -0,0 +1,64 @@
+package pl.edu.notes;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import pl.edu.notes.model.Note;
+import pl.edu.notes.repository.NoteRepository;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Kompresje odpowiedzi wykonuje Tomcat (server.compression.*) - MockMvc jej nie widzi, potrzebny jest prawdziwy serwer
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class ResponseCompressionTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void largeListIsGzippedWhenClientAcceptsIt() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            noteRepository.save(new Note("Skompresowana " + i, "Powtarzalna treść notatki do kompresji. ".repeat(5)));
+        }
+
+        HttpResponse<byte[]> response = client.send(request("/api/notes").header("Accept-Encoding", "gzip").build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+
+        assertEquals(200, response.statusCode());
+        assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElse(null));
+        String json = new String(new GZIPInputStream(new ByteArrayInputStream(response.body())).readAllBytes(),
+                StandardCharsets.UTF_8);
+        assertTrue(json.contains("Skompresowana 19"));
+        assertTrue(response.body().length < json.length() / 3);
+    }
+
+    @Test
+    void smallResponseIsNotCompressed() throws Exception {
+        HttpResponse<byte[]> response = client.send(
+                request("/api/notes/9999").header("Accept-Encoding", "gzip").build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+
+        assertEquals(404, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Encoding").isEmpty());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+    }
+}
@@ -0,0 +1,86 @@
+package pl.edu.notes.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import pl.edu.notes.event.NoteChangedEvent;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Testy jednostkowe uniewazniania cache - kolejnosc odczytu i zapisu ustawiona recznie, bez watkow
+class CacheInvalidatorTest {
+
+    private final ConcurrentMapCacheManager cacheManager =
+            new ConcurrentMapCacheManager(CacheConfig.NOTES, CacheConfig.CATEGORIES);
+    private final CacheInvalidator invalidator = new CacheInvalidator(cacheManager);
+    private final Cache notes = cacheManager.getCache(CacheConfig.NOTES);
+    private final Cache categories = cacheManager.getCache(CacheConfig.CATEGORIES);
+
+    // Test: odczyt bez rownoleglego zapisu zostaje w cache
+    @Test
+    void putWithoutInvalidationIsKept() {
+        long generation = invalidator.generation(1L);
+        invalidator.putIfCurrent(notes, 1L, "aktualna", generation);
+
+        assertEquals("aktualna", notes.get(1L, String.class));
+    }
+
+    // Test: stara wartosc odczytana przed commitem zapisu, wstawiana po uniewaznieniu - nie zostaje w cache
+    @Test
+    void putAfterInvalidationIsDropped() {
+        long generation = invalidator.generation(1L);
+        invalidator.onNoteChanged(changed(1L, 5L));
+        invalidator.putIfCurrent(notes, 1L, "stara", generation);
+
+        assertNull(notes.get(1L));
+
+        // kolejny odczyt (juz po zapisie) trafia do cache normalnie
+        invalidator.putIfCurrent(notes, 1L, "nowa", invalidator.generation(1L));
+        assertEquals("nowa", notes.get(1L, String.class));
+    }
+
+    // Test: usuniecie kategorii w trakcie jej odczytu tez nie zostawia wpisu
+    @Test
+    void categoryPutAfterEvictionIsDropped() {
+        long generation = invalidator.generation(7L);
+        invalidator.evictCategory(7L);
+        invalidator.putIfCurrent(categories, 7L, "usunieta", generation);
+
+        assertNull(categories.get(7L));
+    }
+
+    // Test: przeniesienie notatki usuwa z cache obie kategorie (obie trzymaja liste notatek), inne zostaja
+    @Test
+    void noteMoveEvictsOldAndNewCategory() {
+        invalidator.putIfCurrent(categories, 5L, "stara", invalidator.generation(5L));
+        invalidator.putIfCurrent(categories, 6L, "nowa", invalidator.generation(6L));
+        invalidator.putIfCurrent(categories, 7L, "inna", invalidator.generation(7L));
+        invalidator.onNoteChanged(changed(1L, 6L, 5L));
+
+        assertNull(categories.get(5L));
+        assertNull(categories.get(6L));
+        assertEquals("inna", categories.get(7L, String.class));
+    }
+
+    // Test: odczyt kategorii, ktory minal sie ze zmiana jej notatki, nie zostawia starej listy w cache
+    @Test
+    void categoryPutAfterNoteChangeIsDropped() {
+        long generation = invalidator.generation(5L);
+        invalidator.onNoteChanged(changed(1L, 5L));
+        invalidator.putIfCurrent(categories, 5L, "stara lista", generation);
+
+        assertNull(categories.get(5L));
+    }
+
+    private static NoteChangedEvent changed(Long noteId, Long categoryId) {
+        return changed(noteId, categoryId, categoryId);
+    }
+
+    private static NoteChangedEvent changed(Long noteId, Long categoryId, Long previousCategoryId) {
+        LocalDateTime now = LocalDateTime.now();
+        return new NoteChangedEvent(NoteChangedEvent.ChangeType.UPDATED, noteId, categoryId, previousCategoryId,
+                "tytul", "tresc", now, now, null);
+    }
+}
@@ -0,0 +1,63 @@
+package pl.edu.notes.event;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Testy jednostkowe przebudowy ze strumienia - zmiana w trakcie przebudowy wywolana recznie z dostawcy strumienia
+class StreamingRebuildTest {
+
+    private final StreamingRebuild rebuild = new StreamingRebuild(this, new TransactionTemplate(new NoTransactions()));
+    private final List<String> structure = new ArrayList<>();
+
+    // Test: notatka zmieniona w trakcie przebudowy zostaje w nowszej wersji - strumien jej nie nadpisuje
+    @Test
+    void streamedRowOfNoteChangedDuringRebuildIsSkipped() {
+        structure.add("sprzed przebudowy");
+        rebuild.rebuild(structure::clear, () -> {
+            rebuild.applyChange(1L, () -> structure.add("1 nowa"));
+            return Stream.of(1L, 2L);
+        }, id -> id, id -> structure.add(id + " ze strumienia"));
+
+        assertEquals(List.of("1 nowa", "2 ze strumienia"), structure);
+    }
+
+    // Test: po przebudowie zmiany nie sa juz zapamietywane - kolejna przebudowa laduje wszystko
+    @Test
+    void changesAfterRebuildDoNotAffectNextRebuild() {
+        rebuild.rebuild(structure::clear, Stream::<Long>empty, id -> id, id -> structure.add(id + ""));
+        rebuild.applyChange(1L, () -> structure.add("zmiana"));
+        rebuild.rebuild(structure::clear, () -> Stream.of(1L), id -> id, id -> structure.add(id + " ze strumienia"));
+
+        assertEquals(List.of("1 ze strumienia"), structure);
+    }
+
+    // transakcja bez bazy - TransactionTemplate tylko wywoluje przekazany kod
+    private static final class NoTransactions extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package pl.edu.notes.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import pl.edu.notes.dto.CategorySummary;
+import pl.edu.notes.dto.CategoryView;
+import pl.edu.notes.dto.NoteView;
+import pl.edu.notes.model.Category;
+import pl.edu.notes.model.Note;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Serializery NoteJsonModule daja ten sam JSON co refleksyjny Jackson z adnotacjami encji i rekordow
+// ObjectMapper z Jackson2ObjectMapperBuilder i daty jako tekst - ta sama konfiguracja co w aplikacji Spring Boot
+class NoteJsonModuleTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    private ObjectMapper reflective;
+    private ObjectMapper dedicated;
+
+    @BeforeEach
+    void setUp() {
+        reflective = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        dedicated = reflective.copy().registerModule(new NoteJsonModule());
+    }
+
+    // Test: encja Note z kategoria, bez kategorii, z dluga trescia i z pustymi polami
+    @Test
+    void note_shouldMatchReflectiveJson() throws Exception {
+        Category category = category(7L, "Studia \"PW\"");
+        assertSameJson(note(1L, category, "Kolokwium", "Zadania 1-5\nłódź ☕"));
+        assertSameJson(note(2L, null, "Bez kategorii", null));
+        assertSameJson(note(3L, category, "Długa", "x".repeat(Note.INLINE_CONTENT_LENGTH + 1)));
+        assertSameJson(new Note());
+    }
+
+    // Test: encja Category z lista notatek (bez pola category) i bez listy
+    @Test
+    void category_shouldMatchReflectiveJson() throws Exception {
+        Category category = category(7L, "Zakupy");
+        category.setNotes(new ArrayList<>(List.of(note(1L, category, "Mleko", "2 l"), note(2L, category, "Chleb", ""))));
+        assertSameJson(category);
+        assertSameJson(category(8L, "Pusta"));
+    }
+
+    // Test: projekcje NoteView i CategoryView
+    @Test
+    void views_shouldMatchReflectiveJson() throws Exception {
+        assertSameJson(List.of(
+                new NoteView(1L, new CategorySummary(7L, "Zakupy"), "Mleko", "2 l", false, BASE, BASE.plusNanos(1), 3L),
+                new NoteView(2L, null, "Bez kategorii", null, true, BASE, null, null)));
+        assertSameJson(new CategoryView(7L, "Zakupy", List.of(
+                new CategoryView.NoteItem(7L, 1L, "Mleko", "2 l", 5L, BASE, BASE, 0L))));
+        assertSameJson(new CategoryView(8L, "Pusta", null));
+    }
+
+    // Test: daty - ulamki sekund roznej dlugosci, zmiana dnia miedzy kolejnymi datami (bufor daty), lata spoza 4 cyfr
+    @Test
+    void timestamps_shouldMatchIsoFormat() throws Exception {
+        Random random = new Random(42);
+        List<NoteView> notes = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            LocalDateTime createdAt = BASE.plusSeconds(random.nextInt(5_000_000)).withNano(switch (i % 4) {
+                case 0 -> 0;
+                case 1 -> random.nextInt(1000) * 1_000_000;
+                case 2 -> random.nextInt(1_000_000) * 1000;
+                default -> random.nextInt(1_000_000_000);
+            });
+            notes.add(new NoteView((long) i, null, "t", null, false, createdAt, createdAt.plusMinutes(i), 0L));
+        }
+        notes.add(new NoteView(-1L, null, "t", null, false, LocalDateTime.of(12026, 1, 1, 0, 0),
+                LocalDateTime.of(1, 2, 3, 4, 5, 6, 7), 0L));
+        assertSameJson(notes);
+    }
+
+    // Test: z WRITE_DATES_AS_TIMESTAMPS daty zostaja tablicami liczb, jak w standardowym serializerze
+    @Test
+    void timestampsAsArrays_shouldFollowMapperConfiguration() throws Exception {
+        reflective = Jackson2ObjectMapperBuilder.json().build();
+        dedicated = reflective.copy().registerModule(new NoteJsonModule());
+        assertSameJson(note(1L, category(7L, "Zakupy"), "Mleko", "2 l"));
+    }
+
+    private void assertSameJson(Object value) throws Exception {
+        assertEquals(reflective.writeValueAsString(value), dedicated.writeValueAsString(value));
+    }
+
+    private static Category category(Long id, String name) {
+        Category category = new Category(name);
+        category.setId(id);
+        return category;
+    }
+
+    private static Note note(Long id, Category category, String title, String content) {
+        Note note = new Note(title, content);
+        note.setId(id);
+        note.setCategory(category);
+        note.setCreatedAt(BASE.minusDays(id));
+        note.setUpdatedAt(BASE.plusNanos(123_400_000));
+        note.setVersion(id);
+        return note;
+    }
+}
@@ -0,0 +1,59 @@
+package pl.edu.notes.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Testy jednostkowe CompressedTextConverter - kompresja tylko wtedy, gdy zmniejsza zapis
+class CompressedTextConverterTest {
+
+    private final CompressedTextConverter converter = new CompressedTextConverter();
+
+    // Test: krotki tekst zapisywany jako zwykle bajty UTF-8
+    @Test
+    void shortText_shouldBeStoredAsUtf8() {
+        String text = "Zażółć gęślą jaźń";
+
+        byte[] stored = converter.convertToDatabaseColumn(text);
+
+        assertArrayEquals(text.getBytes(StandardCharsets.UTF_8), stored);
+        assertEquals(text, converter.convertToEntityAttribute(stored));
+    }
+
+    // Test: powtarzalny tekst zapisywany w postaci skompresowanej, odczyt zwraca oryginal
+    @Test
+    void compressibleText_shouldBeCompressed() {
+        String text = "Lista zakupów: mleko, chleb, jajka, kawa. ".repeat(40);
+
+        byte[] stored = converter.convertToDatabaseColumn(text);
+
+        assertEquals((byte) 0xFF, stored[0]);
+        assertTrue(stored.length < text.getBytes(StandardCharsets.UTF_8).length / 4);
+        assertEquals(text, converter.convertToEntityAttribute(stored));
+    }
+
+    // Test: tekst, ktorego kompresja nie zmniejsza (losowe znaki tuz nad progiem), zostaje bez kompresji
+    @Test
+    void incompressibleText_shouldBeStoredAsUtf8() {
+        Random random = new Random(42);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 130; i++) {
+            text.append((char) ('!' + random.nextInt(94)));
+        }
+
+        byte[] stored = converter.convertToDatabaseColumn(text.toString());
+
+        assertArrayEquals(text.toString().getBytes(StandardCharsets.UTF_8), stored);
+        assertEquals(text.toString(), converter.convertToEntityAttribute(stored));
+    }
+
+    // Test: null pozostaje null w obie strony
+    @Test
+    void nullText_shouldStayNull() {
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+}
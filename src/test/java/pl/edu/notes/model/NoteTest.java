@@ -118,4 +118,29 @@ class NoteTest {
 
         assertNull(note.getCategory());
     }
+
+    // Test: dluga tresc trafia do NoteBody, w wierszu notatki zostaje jej poczatek
+    @Test
+    void setContent_shouldMoveLongContentToBody() {
+        String longContent = "a".repeat(Note.INLINE_CONTENT_LENGTH + 1);
+        Note note = new Note("Test", longContent);
+
+        assertTrue(note.isLargeContent());
+        assertEquals(longContent, note.getContent());
+        assertEquals(Note.INLINE_CONTENT_LENGTH, note.getContentPreview().length());
+
+        note.setContent("Krotka");
+
+        assertFalse(note.isLargeContent());
+        assertEquals("Krotka", note.getContentPreview());
+    }
+
+    // Test: podglad nie rozcina pary surogatow na granicy
+    @Test
+    void contentPreview_shouldNotSplitSurrogatePair() {
+        String longContent = "a".repeat(Note.INLINE_CONTENT_LENGTH - 1) + "\uD83D\uDCDD" + "b";
+        Note note = new Note("Test", longContent);
+
+        assertEquals(Note.INLINE_CONTENT_LENGTH - 1, note.getContentPreview().length());
+    }
 }
@@ -0,0 +1,78 @@
+package pl.edu.notes.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Testy jednostkowe kubelka tokenow - czas podawany jawnie, bez czekania
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    // Test: pelny kubelek przyjmuje serie do pojemnosci, potem podaje czas oczekiwania na brakujace tokeny
+    @Test
+    void allowsBurstUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(10, 10, 0);
+
+        assertEquals(0, bucket.tryConsume(5, 0));
+        assertEquals(0, bucket.tryConsume(5, 0));
+        // 10 tokenow na sekunde - 3 brakujace tokeny beda za 0,3 s
+        assertEquals(300_000_000L, bucket.tryConsume(3, 0));
+    }
+
+    // Test: odmowa nie zuzywa tokenow, a tokeny wracaja z czasem
+    @Test
+    void refillsOverTime() {
+        TokenBucket bucket = new TokenBucket(10, 10, 0);
+        assertEquals(0, bucket.tryConsume(10, 0));
+        assertTrue(bucket.tryConsume(1, 0) > 0);
+
+        assertEquals(0, bucket.tryConsume(5, SECOND / 2));
+        assertFalse(bucket.isFull(SECOND / 2));
+        assertTrue(bucket.isFull(SECOND + SECOND / 2));
+    }
+
+    // Test: po dlugiej przerwie kubelek nie gromadzi wiecej tokenow niz pojemnosc
+    @Test
+    void neverExceedsCapacity() {
+        TokenBucket bucket = new TokenBucket(10, 10, 0);
+
+        assertEquals(0, bucket.tryConsume(10, 100 * SECOND));
+        assertTrue(bucket.tryConsume(1, 100 * SECOND) > 0);
+    }
+
+    // Test: rownolegle watki nie pobiora razem wiecej tokenow niz jest w kubelku (CAS bez blokad)
+    @Test
+    void concurrentConsumersNeverOverdraw() throws Exception {
+        TokenBucket bucket = new TokenBucket(1000, 1, 0);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                results.add(executor.submit(() -> {
+                    int admitted = 0;
+                    for (int i = 0; i < 1000; i++) {
+                        if (bucket.tryConsume(1, 0) == 0) {
+                            admitted++;
+                        }
+                    }
+                    return admitted;
+                }));
+            }
+            int total = 0;
+            for (Future<Integer> result : results) {
+                total += result.get();
+            }
+            assertEquals(1000, total);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
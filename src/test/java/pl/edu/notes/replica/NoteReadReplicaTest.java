@@ -0,0 +1,124 @@
+package pl.edu.notes.replica;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pl.edu.notes.dto.NoteSummary;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Testy jednostkowe repliki w pamieci - bez Springa i bez bazy danych
+class NoteReadReplicaTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private NoteReadReplica replica;
+
+    @BeforeEach
+    void setUp() {
+        replica = new NoteReadReplica();
+        replica.put(note(1L, 10L, "Zakupy", 1));
+        replica.put(note(2L, 20L, "Kolokwium", 2));
+        replica.put(note(3L, 10L, "Zakupy", 3));
+        replica.put(note(4L, null, "Bez kategorii", 4));
+    }
+
+    // Test: od ostatnio zmienionych, z filtrem kategorii i limitem; daty wracaja bez zmian
+    @Test
+    void recent_shouldReturnNewestFirst() {
+        assertEquals(List.of(4L, 3L, 2L, 1L), ids(replica.recent(null, 10)));
+        assertEquals(List.of(3L, 1L), ids(replica.recent(10L, 10)));
+        assertEquals(List.of(4L, 3L), ids(replica.recent(null, 2)));
+        assertEquals(List.of(), replica.recent(99L, 10));
+
+        NoteSummary note = replica.recent(20L, 1).get(0);
+        assertEquals(note(2L, 20L, "Kolokwium", 2), note);
+        assertNull(replica.recent(null, 1).get(0).categoryId());
+    }
+
+    // Test: zmiana notatki przenosi ja na poczatek listy i do nowej kategorii w licznikach
+    @Test
+    void put_shouldReplacePreviousState() {
+        replica.put(note(1L, 20L, "Zakupy - zrobione", 5));
+
+        assertEquals(List.of(1L, 4L, 3L, 2L), ids(replica.recent(null, 10)));
+        assertEquals("Zakupy - zrobione", replica.recent(20L, 1).get(0).title());
+        assertEquals(4, replica.count(null));
+        assertEquals(1, replica.count(10L));
+        assertEquals(2, replica.count(20L));
+
+        replica.remove(2L);
+        replica.remove(2L);
+        assertEquals(List.of(1L), ids(replica.recent(20L, 10)));
+        assertEquals(3, replica.count(null));
+        assertEquals(1, replica.count(20L));
+    }
+
+    // Test: zmiana zatwierdzona pozniej, ale ze starszym updatedAt trafia na swoje miejsce w kolejnosci
+    @Test
+    void put_shouldKeepOrderForLateCommits() {
+        replica.put(note(5L, 10L, "Pozny commit", 0));
+        replica.put(note(2L, 20L, "Kolokwium", 5));
+
+        assertEquals(List.of(2L, 4L, 3L, 1L, 5L), ids(replica.recent(null, 10)));
+        assertEquals(List.of(3L, 1L, 5L), ids(replica.recent(10L, 10)));
+    }
+
+    // Test: jednakowe tytuly to jeden obiekt String
+    @Test
+    void put_shouldPoolTitles() {
+        List<NoteSummary> notes = replica.recent(10L, 10);
+        assertSame(notes.get(0).title(), notes.get(1).title());
+    }
+
+    // Test: losowe zmiany i usuniecia (z kompaktowaniem) daja ten sam wynik co prosty model z mapa
+    @Test
+    void randomChanges_shouldMatchReferenceModel() {
+        replica.clear();
+        Map<Long, NoteSummary> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 50_000; i++) {
+            long id = 1 + random.nextInt(3000);
+            if (random.nextInt(3) == 0) {
+                replica.remove(id);
+                expected.remove(id);
+            } else {
+                Long categoryId = random.nextInt(5) == 0 ? null : (long) (1 + random.nextInt(7));
+                // zwykle coraz pozniejszy updatedAt, czasem starszy (pozny commit) albo taki sam
+                NoteSummary note = note(id, categoryId, "Notatka " + random.nextInt(100), i - random.nextInt(50));
+                replica.put(note);
+                expected.put(id, note);
+            }
+        }
+
+        Comparator<NoteSummary> newestFirst = Comparator.comparing(NoteSummary::updatedAt)
+                .thenComparing(NoteSummary::id).reversed();
+        assertEquals(expected.size(), replica.count(null));
+        assertEquals(expected.values().stream().sorted(newestFirst).toList(), replica.recent(null, Integer.MAX_VALUE));
+        for (long categoryId = 1; categoryId <= 7; categoryId++) {
+            Long category = categoryId;
+            List<NoteSummary> inCategory = expected.values().stream()
+                    .filter(note -> Objects.equals(note.categoryId(), category))
+                    .sorted(newestFirst)
+                    .toList();
+            assertEquals(inCategory.size(), replica.count(category));
+            assertEquals(inCategory.subList(0, Math.min(20, inCategory.size())), replica.recent(category, 20));
+        }
+    }
+
+    private static NoteSummary note(Long id, Long categoryId, String title, int minute) {
+        LocalDateTime updatedAt = BASE.plusMinutes(minute).plusNanos(123_000);
+        return new NoteSummary(id, categoryId, title, BASE.minusDays(1), updatedAt);
+    }
+
+    private static List<Long> ids(List<NoteSummary> notes) {
+        return notes.stream().map(NoteSummary::id).toList();
+    }
+}
@@ -0,0 +1,150 @@
+package pl.edu.notes.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import pl.edu.notes.dto.NoteCursor;
+import pl.edu.notes.dto.NoteQuery;
+import pl.edu.notes.dto.NoteSort;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Plany wykonania zapytan NoteQueryRepository.findPage - EXPLAIN w H2 na dokladnie tym SQL, ktory wygenerowal Hibernate
+// (przechwyconym przez StatementInspector) dla najczestszych kombinacji filtrow i sortowania
+// kazda ma uzyc indeksu z @Table(indexes) w Note zamiast pelnego skanu tabeli
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "pl.edu.notes.repository.NoteQueryPlanTest$LastSelect")
+@ActiveProfiles("test")
+class NoteQueryPlanTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    // 5000 notatek w 20 kategoriach + ANALYZE - optymalizator H2 zna rozklad danych
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("DELETE FROM notes");
+        jdbcTemplate.update("DELETE FROM categories");
+        for (int i = 1; i <= 20; i++) {
+            jdbcTemplate.update("INSERT INTO categories (id, name) VALUES (?, ?)", i, "Plan " + i);
+        }
+        List<Object[]> notes = new ArrayList<>();
+        for (int i = 1; i <= 5000; i++) {
+            Timestamp createdAt = Timestamp.valueOf(BASE.minusMinutes(i));
+            Timestamp updatedAt = Timestamp.valueOf(BASE.minusMinutes(i % 997));
+            notes.add(new Object[]{i, 1 + i % 20, "Notatka " + i, createdAt, updatedAt});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO notes (id, category_id, title, created_at, updated_at, version) "
+                + "VALUES (?, ?, ?, ?, ?, 0)", notes);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    // Test: bez filtrow, od najnowszych (takze kolejna strona) - indeks czytany w kolejnosci sortowania
+    @Test
+    void pageWithoutFilters_shouldUseSortIndex() {
+        assertPlanUses("IDX_NOTES_UPDATED_AT_ID", NoteQuery.all(), null);
+        assertPlanUses("IDX_NOTES_UPDATED_AT_ID", NoteQuery.all(), new NoteCursor(BASE.minusHours(1), 60L));
+        assertPlanUses("IDX_NOTES_CREATED_AT_ID",
+                new NoteQuery(null, null, null, null, null, NoteSort.CREATED_AT_DESC), null);
+    }
+
+    // Test: zakres dat na kolumnie sortowania (w obu kierunkach) - ten sam indeks, od granicy zakresu
+    @Test
+    void pageWithDateRange_shouldUseSortIndex() {
+        assertPlanUses("IDX_NOTES_UPDATED_AT_ID",
+                new NoteQuery(null, null, null, BASE.minusDays(1), BASE, NoteSort.UPDATED_AT_ASC), null);
+        assertPlanUses("IDX_NOTES_CREATED_AT_ID",
+                new NoteQuery(null, BASE.minusDays(1), null, null, null, NoteSort.CREATED_AT_DESC),
+                new NoteCursor(BASE.minusHours(1), 60L));
+    }
+
+    // Test: kategoria z kursorem albo zakresem dat - indeks (category_id, kolumna sortowania, id) zawezony do obu
+    @Test
+    void pageInCategory_shouldUseCompositeIndex() {
+        assertPlanUses("IDX_NOTES_CATEGORY_UPDATED_AT_ID",
+                new NoteQuery(3L, null, null, null, null, NoteSort.UPDATED_AT_DESC),
+                new NoteCursor(BASE.minusHours(1), 60L));
+        assertPlanUses("IDX_NOTES_CATEGORY_UPDATED_AT_ID",
+                new NoteQuery(3L, null, null, BASE.minusDays(1), null, NoteSort.UPDATED_AT_ASC), null);
+        assertPlanUses("IDX_NOTES_CATEGORY_CREATED_AT_ID",
+                new NoteQuery(3L, BASE.minusDays(2), BASE.minusDays(1), null, null, NoteSort.CREATED_AT_DESC), null);
+    }
+
+    // Test: pierwsza strona kategorii bez zakresu - H2 czyta wiersze kategorii jednym z indeksow na category_id
+    // (przy samej rownosci nie odroznia indeksu zlozonego od pojedynczego) i sortuje tylko je
+    @Test
+    void firstPageInCategory_shouldUseCategoryIndex() {
+        assertPlanUses("IDX_NOTES_CATEGORY_", new NoteQuery(3L, null, null, null, null, NoteSort.UPDATED_AT_DESC), null);
+    }
+
+    private void assertPlanUses(String index, NoteQuery query, NoteCursor after) {
+        LastSelect.sql = null;
+        noteRepository.findPage(query, after, 21);
+        String sql = LastSelect.sql;
+        assertNotNull(sql);
+
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, parameters(query, after));
+        // H2 opisuje uzyty indeks jako /* PUBLIC.NAZWA_INDEKSU ... */, pelny skan jako /* PUBLIC.NOTES.tableScan */
+        assertTrue(plan.contains("PUBLIC." + index), plan);
+        if (after != null || query.createdFrom() != null || query.updatedFrom() != null) {
+            // kursor i dolna granica zakresu sa warunkiem indeksu, a nie tylko filtrem przeczytanych wierszy
+            int start = plan.indexOf("/* PUBLIC." + index);
+            String indexCondition = plan.substring(start, plan.indexOf("*/", start));
+            assertTrue(indexCondition.contains("_AT "), plan);
+        }
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+
+    // parametry w kolejnosci wystapienia w SQL - tak jak buduje je NoteQueryRepositoryImpl, na koncu limit
+    private static Object[] parameters(NoteQuery query, NoteCursor after) {
+        List<Object> parameters = new ArrayList<>();
+        if (query.categoryId() != null) {
+            parameters.add(query.categoryId());
+        }
+        for (LocalDateTime bound : new LocalDateTime[]{query.createdFrom(), query.createdTo(),
+                query.updatedFrom(), query.updatedTo()}) {
+            if (bound != null) {
+                parameters.add(Timestamp.valueOf(bound));
+            }
+        }
+        if (after != null) {
+            parameters.add(Timestamp.valueOf(after.position()));
+            parameters.add(Timestamp.valueOf(after.position()));
+            parameters.add(after.id());
+        }
+        parameters.add(21);
+        return parameters.toArray();
+    }
+
+    // zapamietuje ostatnie zapytanie o notatki - Hibernate tworzy instancje sam, stad pole statyczne
+    public static class LastSelect implements StatementInspector {
+
+        static volatile String sql;
+
+        @Override
+        public String inspect(String statement) {
+            if (statement.startsWith("select") && statement.contains(" from notes ")) {
+                sql = statement;
+            }
+            return statement;
+        }
+    }
+}
@@ -4,12 +4,19 @@ import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.ActiveProfiles;
+import pl.edu.notes.dto.NoteCursor;
+import pl.edu.notes.dto.NoteQuery;
+import pl.edu.notes.dto.NoteSort;
+import pl.edu.notes.dto.NoteView;
 import pl.edu.notes.model.Category;
 import pl.edu.notes.model.Note;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -130,6 +137,35 @@ class NoteRepositoryTest {
         assertEquals("Nowy tytul", updated.getTitle());
     }
 
+    // Test: kazda aktualizacja zwieksza wersje notatki (@Version)
+    @Test
+    void save_shouldIncrementVersionOnUpdate() {
+        Note saved = noteRepository.saveAndFlush(new Note("Wersja", "test"));
+        assertEquals(0L, saved.getVersion());
+
+        saved.setContent("zmieniona tresc");
+        Note updated = noteRepository.saveAndFlush(saved);
+
+        assertEquals(1L, updated.getVersion());
+    }
+
+    // Test: zapis nieaktualnej kopii notatki konczy sie bledem blokowania optymistycznego
+    @Test
+    void save_shouldRejectStaleVersion() {
+        Note saved = noteRepository.saveAndFlush(new Note("Wersja", "test"));
+        entityManager.clear();
+
+        Note stale = new Note("Nieaktualna", "test");
+        stale.setId(saved.getId());
+        stale.setVersion(saved.getVersion());
+        stale.setCreatedAt(saved.getCreatedAt());
+        saved.setContent("pierwsza zmiana");
+        noteRepository.saveAndFlush(saved);
+        entityManager.clear();
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> noteRepository.saveAndFlush(stale));
+    }
+
     // Test: usuwanie notatki z bazy
     @Test
     void delete_shouldRemoveNote() {
@@ -173,4 +209,114 @@ class NoteRepositoryTest {
 
         assertEquals(3, count);
     }
+
+    // Test: pierwsza strona keyset zwraca najnowsze notatki z limitem
+    @Test
+    void findPage_shouldReturnNewestNotesUpToLimit() {
+        List<NoteView> page = noteRepository.findPage(NoteQuery.all(), null, 2);
+
+        assertEquals(2, page.size());
+        assertEquals("Notatka z baz danych", page.get(0).title());
+        assertEquals("Zakupy na weekend", page.get(1).title());
+    }
+
+    // Test: kolejna strona keyset zaczyna sie za kursorem i nie powtarza notatek
+    @Test
+    void findPage_shouldContinueAfterCursor() {
+        List<NoteView> first = noteRepository.findPage(NoteQuery.all(), null, 2);
+        NoteView last = first.get(1);
+
+        List<NoteView> next = noteRepository.findPage(NoteQuery.all(), new NoteCursor(last.updatedAt(), last.id()), 2);
+
+        assertEquals(1, next.size());
+        assertEquals("Projekt z baz danych", next.get(0).title());
+    }
+
+    // Test: filtr kategorii i zakresu dat [from, to) z sortowaniem rosnaco po dacie utworzenia
+    @Test
+    void findPage_shouldFilterByCategoryAndDateRange() {
+        List<NoteView> all = noteRepository.findPage(
+                new NoteQuery(category.getId(), null, null, null, null, NoteSort.CREATED_AT_ASC), null, 10);
+        assertEquals(List.of("Projekt z baz danych", "Notatka z baz danych"), all.stream().map(NoteView::title).toList());
+
+        LocalDateTime second = all.get(1).createdAt();
+        List<NoteView> from = noteRepository.findPage(
+                new NoteQuery(category.getId(), second, null, null, null, NoteSort.CREATED_AT_ASC), null, 10);
+        List<NoteView> before = noteRepository.findPage(
+                new NoteQuery(category.getId(), null, second, null, null, NoteSort.CREATED_AT_ASC), null, 10);
+        List<NoteView> updatedLater = noteRepository.findPage(
+                new NoteQuery(null, null, null, second.plusYears(1), null, NoteSort.UPDATED_AT_DESC), null, 10);
+
+        assertEquals(List.of("Notatka z baz danych"), from.stream().map(NoteView::title).toList());
+        assertEquals(List.of("Projekt z baz danych"), before.stream().map(NoteView::title).toList());
+        assertTrue(updatedLater.isEmpty());
+    }
+
+    // Test: strumien zwraca wszystkie notatki (wymaga transakcji - @DataJpaTest ja zapewnia)
+    @Test
+    void streamAll_shouldReturnAllNotes() {
+        try (Stream<NoteView> notes = noteRepository.streamAll()) {
+            assertEquals(3, notes.count());
+        }
+    }
+
+    // Test: projekcja NoteView zawiera kategorie albo null dla notatki bez kategorii
+    @Test
+    void findAllViews_shouldReturnProjectionsWithCategory() {
+        List<NoteView> views = noteRepository.findAllViews();
+
+        assertEquals(3, views.size());
+        assertEquals("Uczelnia", views.get(0).category().name());
+        assertNull(views.get(1).category());
+    }
+
+    // Test: wyszukiwanie projekcji ignoruje wielkosc liter jak findByTitleContainingIgnoreCase
+    @Test
+    void searchViewsByTitle_shouldFindMatchingIgnoringCase() {
+        List<NoteView> results = noteRepository.searchViewsByTitle("BAZ DANYCH");
+
+        assertEquals(2, results.size());
+    }
+
+    // Test: znak % w zapytaniu jest traktowany doslownie, a nie jako wzorzec LIKE
+    @Test
+    void searchViewsByTitle_shouldEscapeWildcards() {
+        noteRepository.saveAndFlush(new Note("Rabat 50% na wszystko", "Sklep"));
+
+        assertEquals(1, noteRepository.searchViewsByTitle("50%").size());
+        assertTrue(noteRepository.searchViewsByTitle("%").size() < noteRepository.count());
+    }
+
+    // Test: notatka oznaczona jako usunieta (NoteDeletionService) znika ze wszystkich odczytow encji i projekcji,
+    // takze z listy notatek kategorii, choc wiersz jeszcze jest w tabeli
+    @Test
+    void softDeletedNote_shouldBeHiddenFromReads() {
+        Note deleted = noteRepository.findByTitleContainingIgnoreCase("Projekt").get(0);
+        markDeleted("UPDATE notes SET deleted = TRUE, deleted_at = CURRENT_TIMESTAMP WHERE id = ?1", deleted.getId());
+
+        assertTrue(noteRepository.findById(deleted.getId()).isEmpty());
+        assertFalse(noteRepository.existsById(deleted.getId()));
+        assertEquals(2, noteRepository.count());
+        assertEquals(2, noteRepository.findAllViews().size());
+        assertEquals(1, noteRepository.searchViewsByTitle("baz danych").size());
+        assertEquals(1, noteRepository.countByCategoryId(category.getId()));
+        assertEquals(2, noteRepository.findPage(NoteQuery.all(), null, 10).size());
+        assertEquals(1, categoryRepository.findById(category.getId()).orElseThrow().getNotes().size());
+    }
+
+    // Test: usunieta kategoria nie jest odczytywana (jej notatki NoteDeletionService oznacza w tej samej transakcji)
+    @Test
+    void softDeletedCategory_shouldBeHiddenFromReads() {
+        markDeleted("UPDATE categories SET deleted_at = CURRENT_TIMESTAMP WHERE id = ?1", category.getId());
+
+        assertTrue(categoryRepository.findById(category.getId()).isEmpty());
+        assertTrue(categoryRepository.findByName("Uczelnia").isEmpty());
+        assertTrue(categoryRepository.findAllSummaries().isEmpty());
+        assertTrue(categoryRepository.findAll().isEmpty());
+    }
+
+    private void markDeleted(String sql, Long id) {
+        entityManager.getEntityManager().createNativeQuery(sql).setParameter(1, id).executeUpdate();
+        entityManager.clear();
+    }
 }
@@ -0,0 +1,102 @@
+package pl.edu.notes.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Testy jednostkowe indeksu pelnotekstowego - bez Springa i bez bazy danych
+class NoteSearchIndexTest {
+
+    private NoteSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new NoteSearchIndex();
+        index.index(1L, "Zakupy", "mleko, chleb, jajka");
+        index.index(2L, "Do zrobienia", "oddac projekt z baz danych");
+        index.index(3L, "Notatka z wykladu", "Bazy danych - JPA, ORM dla Javy");
+    }
+
+    // Test: tokenizer zamienia na male litery i usuwa polskie znaki
+    @Test
+    void tokenize_shouldLowercaseAndFoldPolishDiacritics() {
+        List<String> tokens = NoteTokenizer.tokenize("Żółw ŁĄKA, pięść!");
+
+        assertEquals(List.of("zolw", "laka", "piesc"), tokens);
+    }
+
+    // Test: wyszukiwanie przeszukuje tresc, nie tylko tytul
+    @Test
+    void search_shouldFindWordsInContent() {
+        NoteSearchIndex.SearchHits hits = index.search("mleko", 0, 10);
+
+        assertEquals(1, hits.total());
+        assertEquals(List.of(1L), hits.noteIds());
+    }
+
+    // Test: zapytanie bez polskich znakow znajduje tekst z polskimi znakami
+    @Test
+    void search_shouldIgnoreDiacritics() {
+        index.index(4L, "Źródła", "Książki do przeczytania");
+
+        assertEquals(List.of(4L), index.search("zrodla ksiazki", 0, 10).noteIds());
+    }
+
+    // Test: slowo w tytule jest wazniejsze niz to samo slowo w tresci
+    @Test
+    void search_shouldRankTitleMatchesHigher() {
+        index.index(5L, "Projekt", "opis");
+
+        List<Long> ids = index.search("projekt", 0, 10).noteIds();
+
+        assertEquals(List.of(5L, 2L), ids);
+    }
+
+    // Test: usunieta notatka znika z wynikow
+    @Test
+    void remove_shouldExcludeNoteFromResults() {
+        index.remove(1L);
+
+        assertEquals(0, index.search("mleko", 0, 10).total());
+        assertEquals(2, index.size());
+    }
+
+    // Test: ponowne zaindeksowanie notatki zastepuje jej poprzednia tresc
+    @Test
+    void index_shouldReplacePreviousVersion() {
+        index.index(1L, "Zakupy", "ser, maslo");
+
+        assertEquals(0, index.search("mleko", 0, 10).total());
+        assertEquals(List.of(1L), index.search("maslo", 0, 10).noteIds());
+    }
+
+    // Test: stronicowanie wynikow - druga strona zaczyna sie za pierwsza
+    @Test
+    void search_shouldPaginateResults() {
+        NoteSearchIndex.SearchHits first = index.search("danych", 0, 1);
+        NoteSearchIndex.SearchHits second = index.search("danych", 1, 1);
+
+        assertEquals(2, first.total());
+        assertEquals(1, first.noteIds().size());
+        assertEquals(1, second.noteIds().size());
+        assertNotEquals(first.noteIds(), second.noteIds());
+    }
+
+    // Test: po wielu usunieciach indeks sie kompaktuje i nadal zwraca poprawne wyniki
+    @Test
+    void remove_shouldKeepResultsCorrectAfterCompaction() {
+        for (long id = 100; id < 3100; id++) {
+            index.index(id, "Tymczasowa " + id, "do usuniecia");
+        }
+        for (long id = 100; id < 3100; id++) {
+            index.remove(id);
+        }
+
+        assertEquals(3, index.size());
+        assertEquals(0, index.search("tymczasowa", 0, 10).total());
+        assertEquals(List.of(1L), index.search("jajka", 0, 10).noteIds());
+    }
+}
@@ -0,0 +1,109 @@
+package pl.edu.notes.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pl.edu.notes.dto.TitleSuggestion;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Testy jednostkowe podpowiedzi tytulow - bez Springa i bez bazy danych
+class TitleSuggestIndexTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private TitleSuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TitleSuggestIndex();
+        index.put(1L, "Zakupy na weekend", BASE.plusMinutes(1));
+        index.put(2L, "Żółw - karmienie", BASE.plusMinutes(2));
+        index.put(3L, "Zadanie domowe", BASE.plusMinutes(3));
+    }
+
+    // Test: prefiks bez wielkich liter i polskich znakow pasuje do tytulu z nimi
+    @Test
+    void suggest_shouldIgnoreCaseAndDiacritics() {
+        assertEquals(List.of(2L), ids(index.suggest("zol", 10)));
+        assertEquals(List.of(2L), ids(index.suggest("ŻÓŁW", 10)));
+        assertEquals("Żółw - karmienie", index.suggest("zolw", 10).get(0).title());
+    }
+
+    // Test: wyniki od ostatnio zmienionych, z limitem
+    @Test
+    void suggest_shouldOrderByRecency() {
+        assertEquals(List.of(3L, 2L, 1L), ids(index.suggest("z", 10)));
+        assertEquals(List.of(3L, 1L), ids(index.suggest("za", 10)));
+        assertEquals(List.of(3L), ids(index.suggest("za", 1)));
+        assertEquals(List.of(), ids(index.suggest("zakupy w", 10)));
+    }
+
+    // Test: zmiana tytulu przenosi notatke, usuniecie ja wyklucza
+    @Test
+    void putAndRemove_shouldKeepIndexCurrent() {
+        index.put(1L, "Projekt", BASE.plusMinutes(4));
+        index.remove(3L);
+
+        assertEquals(List.of(2L), ids(index.suggest("z", 10)));
+        assertEquals(List.of(1L), ids(index.suggest("pro", 10)));
+        assertEquals(List.of(1L, 2L), ids(index.suggest("", 10)));
+    }
+
+    // Test: po przekroczeniu rozmiaru kubelka (rozbicie na wezly) wyniki sa takie same jak przy przeszukaniu wszystkich
+    // tytulow - takze po losowych zmianach i usunieciach
+    @Test
+    void suggest_shouldMatchFullScanAfterManyChanges() {
+        String[] words = {"Notatka", "Notes", "Nowy", "Projekt", "Plan", "Ąkacja", "Zakupy"};
+        Random random = new Random(42);
+        Map<Long, String> titles = new HashMap<>();
+        Map<Long, LocalDateTime> times = new HashMap<>();
+        index.clear();
+        for (int i = 0; i < 5000; i++) {
+            long id = 1 + random.nextInt(1500);
+            if (random.nextInt(5) == 0) {
+                index.remove(id);
+                titles.remove(id);
+                times.remove(id);
+                continue;
+            }
+            String title = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)]
+                    + (random.nextBoolean() ? " " + random.nextInt(20) : "");
+            LocalDateTime time = BASE.plusSeconds(random.nextInt(100_000));
+            index.put(id, title, time);
+            titles.put(id, title);
+            times.put(id, time);
+        }
+
+        assertEquals(titles.size(), index.size());
+        for (String prefix : List.of("", "n", "no", "not", "notatka ", "notes n", "akacja", "plan plan 1", "x")) {
+            List<Long> expected = titles.keySet().stream()
+                    .filter(id -> fold(titles.get(id)).startsWith(prefix))
+                    .sorted(Comparator.comparing((Long id) -> times.get(id)).thenComparing(id -> id).reversed())
+                    .limit(TitleSuggestIndex.MAX_SUGGESTIONS)
+                    .toList();
+            assertEquals(expected, ids(index.suggest(prefix, 100)), "prefiks: " + prefix);
+        }
+    }
+
+    private static String fold(String text) {
+        StringBuilder folded = new StringBuilder(text.length());
+        for (char c : text.toCharArray()) {
+            folded.append(NoteTokenizer.fold(c));
+        }
+        return folded.toString();
+    }
+
+    private static List<Long> ids(List<TitleSuggestion> suggestions) {
+        List<Long> ids = new ArrayList<>();
+        suggestions.forEach(suggestion -> ids.add(suggestion.id()));
+        return ids;
+    }
+}
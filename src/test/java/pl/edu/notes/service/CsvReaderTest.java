@@ -0,0 +1,63 @@
+package pl.edu.notes.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Testy jednostkowe zapisu i odczytu CSV - bez Springa i bez bazy danych
+class CsvReaderTest {
+
+    // Test: pola z przecinkiem, cudzyslowem i nowa linia przechodza przez zapis i odczyt bez zmian
+    @Test
+    void writtenRowsAreReadBack() throws IOException {
+        StringWriter out = new StringWriter();
+        CsvWriter writer = new CsvWriter(out);
+        writer.writeRow("title", "content");
+        writer.writeRow("Zakupy, sobota", "mleko\r\n\"świeże\"\nchleb");
+        writer.writeRow("Pusta", null);
+        writer.flush();
+
+        CsvReader reader = reader(out.toString());
+
+        assertEquals(List.of("title", "content"), reader.readRecord());
+        assertEquals(List.of("Zakupy, sobota", "mleko\r\n\"świeże\"\nchleb"), reader.readRecord());
+        assertEquals(List.of("Pusta", ""), reader.readRecord());
+        assertNull(reader.readRecord());
+    }
+
+    // Test: BOM na poczatku pliku i wiersze zakonczone samym LF (pliki z Excela i z Uniksa)
+    @Test
+    void readsBomAndLfLineEndings() throws IOException {
+        CsvReader reader = reader("﻿title,content\nA,\"\"\nB,b");
+
+        assertEquals(List.of("title", "content"), reader.readRecord());
+        assertEquals(List.of("A", ""), reader.readRecord());
+        assertEquals(List.of("B", "b"), reader.readRecord());
+        assertNull(reader.readRecord());
+    }
+
+    // Test: niezamkniety cudzyslow i znak po cudzyslowie zamykajacym to bledy skladni
+    @Test
+    void rejectsMalformedQuotes() throws IOException {
+        assertThrows(IllegalArgumentException.class, () -> reader("\"bez konca\n").readRecord());
+        assertThrows(IllegalArgumentException.class, () -> reader("\"a\"b,c\n").readRecord());
+    }
+
+    // Test: rekord dluzszy niz limit konczy odczyt zamiast rosnac w pamieci
+    @Test
+    void rejectsTooLongRecord() {
+        CsvReader reader = new CsvReader(new BufferedReader(new StringReader("x".repeat(100) + "\n")), 50);
+
+        assertThrows(IllegalArgumentException.class, reader::readRecord);
+    }
+
+    private static CsvReader reader(String csv) {
+        return new CsvReader(new BufferedReader(new StringReader(csv)), 1000);
+    }
+}